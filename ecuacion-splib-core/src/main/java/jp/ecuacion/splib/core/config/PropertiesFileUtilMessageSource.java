@@ -17,8 +17,8 @@ package jp.ecuacion.splib.core.config;
 
 import java.text.MessageFormat;
 import java.util.Locale;
-import jp.ecuacion.lib.core.util.LocaleUtil;
 import jp.ecuacion.lib.core.util.PropertiesFileUtil;
+import jp.ecuacion.splib.core.util.SplibMessageCacheUtil;
 import org.jspecify.annotations.Nullable;
 import org.springframework.context.support.AbstractMessageSource;
 
@@ -49,22 +49,31 @@ public class PropertiesFileUtilMessageSource extends AbstractMessageSource {
    * <p>Searches in order: {@code messages}, {@code constants}, {@code item_names}.
    * Returns {@code null} when the key does not exist in any file.</p>
    *
+   * <p>The {@link MessageFormat} is compiled once per code and locale,
+   * and kept until {@link SplibMessageCacheUtil#clear()} is called.</p>
+   *
    * @param code the message code to resolve
    * @param locale the locale to resolve the code for
    * @return a {@link MessageFormat} for the resolved message, or {@code null} if not found
    */
   @Override
   protected @Nullable MessageFormat resolveCode(String code, @Nullable Locale locale) {
-    String template;
-    if (PropertiesFileUtil.hasMessage(code)) {
-      template = PropertiesFileUtil.getMessage(locale, code);
-    } else if (PropertiesFileUtil.hasConstant(code)) {
-      template = PropertiesFileUtil.getConstant(code);
-    } else if (PropertiesFileUtil.hasItemName(code)) {
-      template = PropertiesFileUtil.getItemName(locale, code);
-    } else {
-      return null;
-    }
-    return new MessageFormat(template, locale != null ? locale : LocaleUtil.getFallbackLocale());
+    return SplibMessageCacheUtil.getMessageFormat(code, locale);
+  }
+
+  /**
+   * Resolves the given message code without arguments.
+   *
+   * <p>The result is the same as formatting the {@link MessageFormat} with no arguments,
+   * but it's cached, and {@link MessageFormat} is not used at all
+   * when the message contains neither quotes nor braces.</p>
+   *
+   * @param code the message code to resolve
+   * @param locale the locale to resolve the code for
+   * @return the resolved message, or {@code null} if not found
+   */
+  @Override
+  protected @Nullable String resolveCodeWithoutArguments(String code, Locale locale) {
+    return SplibMessageCacheUtil.getFormattedWithoutArgs(code, locale);
   }
 }
@@ -16,8 +16,11 @@
 package jp.ecuacion.splib.core.config;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 import jp.ecuacion.lib.core.util.PropertiesFileUtil;
 import org.jspecify.annotations.Nullable;
 import org.springframework.boot.EnvironmentPostProcessor;
@@ -25,6 +28,9 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
 
 /**
  * Performs two unrelated pieces of early {@link ConfigurableEnvironment} setup that both
@@ -51,6 +57,16 @@ public class SplibEnvironmentPostProcessor implements EnvironmentPostProcessor {
   /** The Spring Boot property that points at a custom logback configuration file. */
   private static final String LOGGING_CONFIG_PROPERTY_KEY = "logging.config";
 
+  /**
+   * The property which enables the snapshot of application properties.
+   *
+   * <p>It's read from the environment before the ecuacion module properties are added,
+   *     so it needs to be set in {@code application.properties}, a system property
+   *     or an environment variable.</p>
+   */
+  private static final String SNAPSHOT_ENABLED_PROPERTY_KEY =
+      "jp.ecuacion.splib.application-properties.snapshot.enabled";
+
   /**
    * Constructs a new instance.
    */
@@ -61,16 +77,60 @@ public class SplibEnvironmentPostProcessor implements EnvironmentPostProcessor {
    * and (see {@link #addLogbackConfigFallback}) makes {@code config/logback-spring.xml}
    * work without needing {@code -Dlogging.config} on the command line.
    *
+   * <p>By default every lookup is delegated to {@link PropertiesFileUtil}, so clearing its
+   * cache at runtime is reflected in the environment too. With {@code
+   * jp.ecuacion.splib.application-properties.snapshot.enabled=true}, the source is a frozen
+   * snapshot instead (see {@link #buildApplicationPropertySnapshot}), which is enumerable and
+   * answers the many probes Spring makes for keys it doesn't hold with a single hash lookup,
+   * but keeps the values taken at startup.</p>
+   *
    * @param environment the environment to post-process
    * @param application the application to post-process
    */
   @Override
   public void postProcessEnvironment(ConfigurableEnvironment environment,
       SpringApplication application) {
-    environment.getPropertySources().addLast(new ApplicationPropertySource());
+    boolean snapshotEnabled =
+        Boolean.parseBoolean(environment.getProperty(SNAPSHOT_ENABLED_PROPERTY_KEY, "false"));
+    environment.getPropertySources().addLast(snapshotEnabled
+        ? buildApplicationPropertySnapshot(application.getClassLoader())
+        : new ApplicationPropertySource());
     addLogbackConfigFallback(environment);
   }
 
+  /**
+   * Builds an immutable {@link MapPropertySource} with the values {@link PropertiesFileUtil}
+   * returns for the keys in {@code application*.properties} on the classpath.
+   *
+   * <p>The keys are collected from the files themselves, and the values are obtained from
+   * {@link PropertiesFileUtil} so that its precedence among the files is kept. Like {@link
+   * ApplicationPropertySource}, values are taken without external placeholder resolution,
+   * leaving {@code ${...}} to Spring.</p>
+   *
+   * @param classLoader the class loader to find the properties files with
+   * @return the snapshot
+   */
+  private static MapPropertySource buildApplicationPropertySnapshot(ClassLoader classLoader) {
+    Map<String, Object> map = new HashMap<>();
+    try {
+      for (Resource resource : new PathMatchingResourcePatternResolver(classLoader)
+          .getResources("classpath*:application*.properties")) {
+        Properties props = PropertiesLoaderUtils.loadProperties(resource);
+        for (String name : props.stringPropertyNames()) {
+          if (!map.containsKey(name) && PropertiesFileUtil.hasApplication(name)) {
+            map.put(name,
+                PropertiesFileUtil.getApplicationWithoutExternalPlaceholderResolution(name));
+          }
+        }
+      }
+
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to read application properties.", ex);
+    }
+
+    return new MapPropertySource(ApplicationPropertySource.SOURCE_NAME, Map.copyOf(map));
+  }
+
   /**
    * Makes {@code config/logback-spring.xml} (relative to the current working directory —
    * in practice, the directory the executable jar/war is launched from) work as a drop-in
@@ -16,12 +16,21 @@
 package jp.ecuacion.splib.core.container;
 
 import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provides DatetimeFormatParameters.
+ *
+ * <p>Formatters for the format patterns are obtained by {@code get*Formatter()} methods.
+ *     They are built once per pattern and shared globally,
+ *     since {@code DateTimeFormatter} is immutable and thread-safe.</p>
  */
 public class DatetimeFormatParameters {
 
+  private static final Map<String, DateTimeFormatter> FORMATTER_MAP = new ConcurrentHashMap<>();
+
   private ZoneOffset zoneOffset;
 
   private String dateTimeFormat = "yyyy-MM-dd HH:mm:ss";
@@ -68,6 +77,36 @@ public class DatetimeFormatParameters {
     zoneOffset = ZoneOffset.ofHoursMinutes(hour, minute);
   }
 
+  /**
+   * Returns the {@code DateTimeFormatter} of the pattern, which is built once per pattern.
+   *
+   * @param pattern pattern for {@code DateTimeFormatter.ofPattern(String)}
+   * @return DateTimeFormatter
+   */
+  public static DateTimeFormatter formatterOf(String pattern) {
+    return FORMATTER_MAP.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
+  }
+
+  public DateTimeFormatter getDateTimeFormatter() {
+    return formatterOf(dateTimeFormat);
+  }
+
+  public DateTimeFormatter getTimestampFormatter() {
+    return formatterOf(timestampFormat);
+  }
+
+  public DateTimeFormatter getDateFormatter() {
+    return formatterOf(dateFormat);
+  }
+
+  public DateTimeFormatter getTimeFormatter() {
+    return formatterOf(timeFormat);
+  }
+
+  public DateTimeFormatter getYearMonthFormatter() {
+    return formatterOf(yearMonthFormat);
+  }
+
   public String getDateTimeFormat() {
     return dateTimeFormat;
   }
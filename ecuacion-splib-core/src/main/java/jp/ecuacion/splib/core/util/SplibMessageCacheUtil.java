@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.core.util;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.Optional;
+import jp.ecuacion.lib.core.util.LocaleUtil;
+import jp.ecuacion.lib.core.util.PropertiesFileUtil;
+import jp.ecuacion.splib.core.util.internal.BoundedCache;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Caches the values obtained from {@code PropertiesFileUtil} by message code,
+ *     and the {@code MessageFormat}s compiled from them by (code, locale).
+ *
+ * <p>Keys are searched in {@code messages}, {@code constants} and {@code item_names}
+ *     in this order, which is shared by {@code PropertiesFileUtilMessageSource} and
+ *     {@code SplibThymeleafMessageUtil}.</p>
+ *
+ * <p>Properties files change only when {@code PropertiesFileUtil.clearCache()} is called,
+ *     so call {@link #clear()} at the same time.</p>
+ *
+ * <p>Codes not found and locales taken from {@code Accept-Language} can be unbounded,
+ *     so each cache holds at most {@value #MAX_CACHED_KEYS} keys,
+ *     and values of keys over the limit are obtained every time without being cached.</p>
+ */
+public class SplibMessageCacheUtil {
+
+  static final int MAX_CACHED_KEYS = 10000;
+
+  private static final BoundedCache<String, Kind> KIND_MAP = new BoundedCache<>(MAX_CACHED_KEYS);
+
+  private static final BoundedCache<CodeAndLocale, Optional<Entry>> ENTRY_MAP =
+      new BoundedCache<>(MAX_CACHED_KEYS);
+
+  /**
+   * Shows in which properties files the code is found.
+   */
+  public enum Kind {
+
+    /** Found in {@code messages}. */
+    MESSAGE,
+
+    /** Found in {@code constants}. */
+    CONSTANT,
+
+    /** Found in {@code item_names}. */
+    ITEM_NAME,
+
+    /** Not found. */
+    NONE
+  }
+
+  private record CodeAndLocale(String code, @Nullable Locale locale) {
+  }
+
+  /**
+   * Keeps the value and the {@code MessageFormat} compiled from it.
+   *
+   * <p>{@code MessageFormat} is not thread-safe,
+   *     so formatting is synchronized on the {@code MessageFormat} instance.</p>
+   */
+  private static class Entry {
+    private final String template;
+    private final Locale formatLocale;
+    private @Nullable MessageFormat messageFormat;
+    private @Nullable String formattedWithoutArgs;
+
+    Entry(String template, Locale formatLocale) {
+      this.template = template;
+      this.formatLocale = formatLocale;
+    }
+
+    synchronized MessageFormat messageFormat() {
+      MessageFormat format = messageFormat;
+      if (format == null) {
+        format = new MessageFormat(template, formatLocale);
+        messageFormat = format;
+      }
+      return format;
+    }
+
+    synchronized String formattedWithoutArgs() {
+      String formatted = formattedWithoutArgs;
+      if (formatted == null) {
+        // Without quotes and braces MessageFormat returns the template as it is.
+        if (template.indexOf('\'') < 0 && template.indexOf('{') < 0) {
+          formatted = template;
+
+        } else {
+          MessageFormat format = messageFormat();
+          synchronized (format) {
+            formatted = format.format(new Object[0]);
+          }
+        }
+        formattedWithoutArgs = formatted;
+      }
+      return formatted;
+    }
+  }
+
+  private SplibMessageCacheUtil() {}
+
+  /**
+   * Returns in which properties files the code is found.
+   *
+   * @param code code
+   * @return Kind
+   */
+  public static Kind getKind(String code) {
+    return KIND_MAP.get(code, c -> PropertiesFileUtil.hasMessage(c) ? Kind.MESSAGE
+        : PropertiesFileUtil.hasConstant(c) ? Kind.CONSTANT
+            : PropertiesFileUtil.hasItemName(c) ? Kind.ITEM_NAME : Kind.NONE);
+  }
+
+  /**
+   * Returns the value obtained from {@code PropertiesFileUtil} without arguments.
+   *
+   * @param code code
+   * @param locale locale, may be {@code null}
+   * @return the value, or {@code null} if the code is not found
+   */
+  public static @Nullable String getTemplate(String code, @Nullable Locale locale) {
+    Entry entry = getEntry(code, locale);
+    return entry == null ? null : entry.template;
+  }
+
+  /**
+   * Returns the {@code MessageFormat} compiled from the value.
+   *
+   * <p>The returned instance is shared, so synchronize on it when formatting
+   *     (as {@code AbstractMessageSource} does).</p>
+   *
+   * @param code code
+   * @param locale locale, may be {@code null}, in which case the fallback locale is used
+   *     for formatting
+   * @return MessageFormat, or {@code null} if the code is not found
+   */
+  public static @Nullable MessageFormat getMessageFormat(String code, @Nullable Locale locale) {
+    Entry entry = getEntry(code, locale);
+    return entry == null ? null : entry.messageFormat();
+  }
+
+  /**
+   * Returns the value formatted by {@code MessageFormat} without arguments.
+   *
+   * <p>{@code MessageFormat} is skipped when the value contains neither quotes nor braces.</p>
+   *
+   * @param code code
+   * @param locale locale, may be {@code null}
+   * @return the formatted value, or {@code null} if the code is not found
+   */
+  public static @Nullable String getFormattedWithoutArgs(String code, @Nullable Locale locale) {
+    Entry entry = getEntry(code, locale);
+    return entry == null ? null : entry.formattedWithoutArgs();
+  }
+
+  /**
+   * Clears all the cached values.
+   */
+  public static void clear() {
+    KIND_MAP.clear();
+    ENTRY_MAP.clear();
+  }
+
+  /** Returns the number of codes whose kinds are cached. */
+  static int kindCacheSize() {
+    return KIND_MAP.size();
+  }
+
+  /** Returns the number of (code, locale) pairs whose values are cached. */
+  static int entryCacheSize() {
+    return ENTRY_MAP.size();
+  }
+
+  private static @Nullable Entry getEntry(String code, @Nullable Locale locale) {
+    if (getKind(code) == Kind.NONE) {
+      return null;
+    }
+
+    Optional<Entry> entry =
+        ENTRY_MAP.get(new CodeAndLocale(code, locale), SplibMessageCacheUtil::newEntry);
+    return entry.isPresent() ? entry.get() : null;
+  }
+
+  private static Optional<Entry> newEntry(CodeAndLocale key) {
+    String code = key.code();
+    Locale locale = key.locale();
+    String template = switch (getKind(code)) {
+      case MESSAGE -> PropertiesFileUtil.getMessage(locale, code);
+      case CONSTANT -> PropertiesFileUtil.getConstant(code);
+      case ITEM_NAME -> PropertiesFileUtil.getItemName(locale, code);
+      case NONE -> null;
+    };
+
+    if (template == null) {
+      return Optional.empty();
+    }
+
+    return Optional.of(
+        new Entry(template, locale != null ? locale : LocaleUtil.getFallbackLocale()));
+  }
+}
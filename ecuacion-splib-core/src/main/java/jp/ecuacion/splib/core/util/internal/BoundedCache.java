@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.core.util.internal;
+
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Caches values computed from keys, up to a fixed number of keys.
+ *
+ * <p>It's used for keys which can be unbounded, like paths with list indexes or values sent
+ *     by clients. When a new key exceeds the limit, keys are evicted by the clock
+ *     (second chance) algorithm: a key read since the hand last passed it is passed over once,
+ *     and one not read is evicted. So keys used only once, like ones sent by a client
+ *     to fill the cache, are evicted before the ones used repeatedly.</p>
+ *
+ * <p>Reads of cached keys take no lock. Only the eviction is serialized,
+ *     and under contention the cache may hold a few keys over the limit for a while.</p>
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public final class BoundedCache<K, V> {
+
+  private final int maxSize;
+
+  private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+
+  private final Object evictionLock = new Object();
+
+  /** The clock hand, guarded by {@code evictionLock}. */
+  private @Nullable Iterator<Map.Entry<K, Entry<V>>> hand;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param maxSize the maximum number of keys cached
+   */
+  public BoundedCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Returns the cached value of {@code key}, or the one computed by {@code loader}.
+   *
+   * <p>{@code loader} is called outside any lock, so it may be called more than once
+   *     for the same key when called concurrently.</p>
+   *
+   * @param key key
+   * @param loader computes the value of {@code key}
+   * @return the value
+   */
+  public V get(K key, Function<? super K, ? extends V> loader) {
+    Entry<V> cached = map.get(key);
+    if (cached != null) {
+      // Checked first so that hot keys don't keep writing to a shared cache line.
+      if (!cached.referenced) {
+        cached.referenced = true;
+      }
+
+      return cached.value;
+    }
+
+    V value = loader.apply(key);
+    if (map.putIfAbsent(key, new Entry<>(value)) == null && map.size() > maxSize) {
+      evict();
+    }
+
+    return value;
+  }
+
+  private void evict() {
+    synchronized (evictionLock) {
+      while (map.size() > maxSize) {
+        Iterator<Map.Entry<K, Entry<V>>> it = hand;
+        if (it == null || !it.hasNext()) {
+          it = map.entrySet().iterator();
+          hand = it;
+          if (!it.hasNext()) {
+            return;
+          }
+        }
+
+        Map.Entry<K, Entry<V>> candidate = it.next();
+        Entry<V> entry = candidate.getValue();
+        if (entry.referenced) {
+          entry.referenced = false;
+
+        } else {
+          map.remove(candidate.getKey(), entry);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of keys cached.
+   *
+   * @return int
+   */
+  public int size() {
+    return map.size();
+  }
+
+  /**
+   * Removes all the cached values.
+   */
+  public void clear() {
+    synchronized (evictionLock) {
+      map.clear();
+      hand = null;
+    }
+  }
+
+  /** A cached value with the reference bit of the clock algorithm. */
+  private static final class Entry<V> {
+
+    private final V value;
+
+    private volatile boolean referenced;
+
+    private Entry(V value) {
+      this.value = value;
+    }
+  }
+}
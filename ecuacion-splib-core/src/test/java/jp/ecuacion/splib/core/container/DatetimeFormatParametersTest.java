@@ -15,9 +15,11 @@
  */
 package jp.ecuacion.splib.core.container;
 
+import java.time.LocalDate;
 import java.time.ZoneOffset;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
@@ -45,4 +47,28 @@ class DatetimeFormatParametersTest {
           .isEqualTo(ZoneOffset.ofHoursMinutes(expectedHours, expectedMinutes));
     }
   }
+
+  @Nested
+  @DisplayName("get*Formatter()")
+  class GetFormatter {
+
+    @Test
+    @DisplayName("Returns the same formatter instance for the same pattern")
+    void sharesFormatterPerPattern() {
+      DatetimeFormatParameters params1 = new DatetimeFormatParameters();
+      DatetimeFormatParameters params2 = new DatetimeFormatParameters();
+      assertThat(params1.getDateFormatter()).isSameAs(params2.getDateFormatter());
+      assertThat(params1.getDateFormatter())
+          .isSameAs(DatetimeFormatParameters.formatterOf("yyyy-MM-dd"));
+    }
+
+    @Test
+    @DisplayName("Follows the pattern changed by the setter")
+    void followsChangedPattern() {
+      DatetimeFormatParameters params = new DatetimeFormatParameters();
+      params.setDateFormat("yyyy/MM/dd");
+      assertThat(params.getDateFormatter().format(LocalDate.of(2024, 1, 2)))
+          .isEqualTo("2024/01/02");
+    }
+  }
 }
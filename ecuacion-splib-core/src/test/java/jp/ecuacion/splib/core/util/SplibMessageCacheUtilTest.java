@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Locale;
+import jp.ecuacion.splib.core.util.SplibMessageCacheUtil.Kind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SplibMessageCacheUtil}.
+ *
+ * <p>The test locale is fixed to {@code Locale.ROOT} so that
+ * {@code messages_splib-core-test.properties} (no locale suffix) is resolved.</p>
+ */
+class SplibMessageCacheUtilTest {
+
+  private static final String MSG = "jp.ecuacion.splib.core.test.message";
+  private static final String QUOTED = "jp.ecuacion.splib.core.test.quoted";
+
+  @AfterEach
+  void clear() {
+    SplibMessageCacheUtil.clear();
+  }
+
+  @Test
+  void getKind_returnsWhereCodeIsFound() {
+    assertThat(SplibMessageCacheUtil.getKind(MSG)).isEqualTo(Kind.MESSAGE);
+    assertThat(SplibMessageCacheUtil.getKind("jp.ecuacion.splib.core.test.unknown"))
+        .isEqualTo(Kind.NONE);
+  }
+
+  @Test
+  void getTemplate_returnsValueOrNull() {
+    assertThat(SplibMessageCacheUtil.getTemplate(MSG, Locale.ROOT)).isEqualTo("Test message");
+    assertThat(SplibMessageCacheUtil.getTemplate("jp.ecuacion.splib.core.test.unknown",
+        Locale.ROOT)).isNull();
+  }
+
+  @Test
+  void getFormattedWithoutArgs_appliesMessageFormatOnlyWhenNeeded() {
+    assertThat(SplibMessageCacheUtil.getFormattedWithoutArgs(MSG, Locale.ROOT))
+        .isEqualTo("Test message");
+    assertThat(SplibMessageCacheUtil.getFormattedWithoutArgs(QUOTED, Locale.ROOT))
+        .isEqualTo("It's {0}");
+  }
+
+  @Test
+  void getMessageFormat_returnsSameInstanceForSameCodeAndLocale() {
+    assertThat(SplibMessageCacheUtil.getMessageFormat(QUOTED, Locale.ROOT))
+        .isSameAs(SplibMessageCacheUtil.getMessageFormat(QUOTED, Locale.ROOT));
+  }
+
+  @Test
+  void getEntry_doesNotCacheUnknownCode() {
+    SplibMessageCacheUtil.getTemplate("jp.ecuacion.splib.core.test.unknown", Locale.ROOT);
+
+    assertThat(SplibMessageCacheUtil.entryCacheSize()).isZero();
+  }
+
+  @Test
+  void getKind_cachesAtMostMaxKeys() {
+    for (int i = 0; i < SplibMessageCacheUtil.MAX_CACHED_KEYS + 100; i++) {
+      assertThat(SplibMessageCacheUtil.getKind("jp.ecuacion.splib.core.test.unknown" + i))
+          .isEqualTo(Kind.NONE);
+    }
+
+    assertThat(SplibMessageCacheUtil.kindCacheSize())
+        .isLessThanOrEqualTo(SplibMessageCacheUtil.MAX_CACHED_KEYS);
+  }
+
+  @Test
+  void clear_resetsBothCaches() {
+    SplibMessageCacheUtil.getTemplate(MSG, Locale.ROOT);
+    assertThat(SplibMessageCacheUtil.kindCacheSize()).isPositive();
+    assertThat(SplibMessageCacheUtil.entryCacheSize()).isPositive();
+
+    SplibMessageCacheUtil.clear();
+    assertThat(SplibMessageCacheUtil.kindCacheSize()).isZero();
+    assertThat(SplibMessageCacheUtil.entryCacheSize()).isZero();
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.core.util.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link BoundedCache}.
+ */
+class BoundedCacheTest {
+
+  private final AtomicInteger loadCount = new AtomicInteger();
+
+  private String load(String key) {
+    loadCount.incrementAndGet();
+    return key.toUpperCase();
+  }
+
+  @Test
+  void get_computesValueOnce_whileUnderLimit() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10);
+
+    assertThat(cache.get("a", this::load)).isEqualTo("A");
+    assertThat(cache.get("a", this::load)).isEqualTo("A");
+    assertThat(loadCount).hasValue(1);
+  }
+
+  @Test
+  void get_cachesNewKey_overLimit() {
+    BoundedCache<String, String> cache = new BoundedCache<>(1);
+    cache.get("a", this::load);
+
+    assertThat(cache.get("b", this::load)).isEqualTo("B");
+    assertThat(cache.get("b", this::load)).isEqualTo("B");
+    assertThat(loadCount).hasValue(2);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void get_evictsKeysNotReadAgain_beforeKeysReadAgain() {
+    BoundedCache<String, String> cache = new BoundedCache<>(3);
+    for (int i = 0; i < 100; i++) {
+      cache.get("hot", this::load);
+      cache.get("once" + i, this::load);
+    }
+
+    assertThat(cache.size()).isEqualTo(3);
+    assertThat(loadCount).hasValue(101);
+  }
+
+  @Test
+  void clear_removesCachedValues() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10);
+    cache.get("a", this::load);
+
+    cache.clear();
+    assertThat(cache.size()).isZero();
+    cache.get("a", this::load);
+    assertThat(loadCount).hasValue(2);
+  }
+}
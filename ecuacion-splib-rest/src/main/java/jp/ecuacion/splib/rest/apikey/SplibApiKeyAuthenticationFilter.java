@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Objects;
 import jp.ecuacion.lib.core.logging.DetailLogger;
@@ -55,13 +56,27 @@ public class SplibApiKeyAuthenticationFilter extends OncePerRequestFilter {
   /** The authority granted to a request that authenticates successfully via this filter. */
   private static final String API_KEY_AUTHORITY = "ROLE_API_KEY";
 
+  /**
+   * Keeps a {@code MessageDigest} per thread, since creating one for each request allocates
+   *     and a {@code MessageDigest} cannot be shared between threads.
+   */
+  private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      // SHA-256 is guaranteed to be available on every conforming JDK.
+      throw new AssertionError(ex);
+    }
+  });
+
   private final DetailLogger detailLog = new DetailLogger(this);
 
   private final @Nullable SplibApiKeyExpectedValueProvider expectedValueProvider;
   private final SplibApiKeyComparisonMode comparisonMode;
+  private final SplibApiKeyExpectedValueCache expectedValueCache;
 
   /**
-   * Constructs a new instance.
+   * Constructs a new instance without caching expected values.
    *
    * @param expectedValueProvider the application-supplied provider, or {@code null} if the
    *     application never registered one — every request is then rejected
@@ -70,8 +85,24 @@ public class SplibApiKeyAuthenticationFilter extends OncePerRequestFilter {
   public SplibApiKeyAuthenticationFilter(
       @Nullable SplibApiKeyExpectedValueProvider expectedValueProvider,
       SplibApiKeyComparisonMode comparisonMode) {
+    this(expectedValueProvider, comparisonMode, SplibApiKeyExpectedValueCache.disabled());
+  }
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param expectedValueProvider the application-supplied provider, or {@code null} if the
+   *     application never registered one — every request is then rejected
+   * @param comparisonMode how to compare the presented key against the provider's return value
+   * @param expectedValueCache caches the provider's return values
+   */
+  public SplibApiKeyAuthenticationFilter(
+      @Nullable SplibApiKeyExpectedValueProvider expectedValueProvider,
+      SplibApiKeyComparisonMode comparisonMode,
+      SplibApiKeyExpectedValueCache expectedValueCache) {
     this.expectedValueProvider = expectedValueProvider;
     this.comparisonMode = comparisonMode;
+    this.expectedValueCache = expectedValueCache;
   }
 
   @Override
@@ -97,9 +128,14 @@ public class SplibApiKeyAuthenticationFilter extends OncePerRequestFilter {
       return;
     }
 
-    String expectedValue =
-        Objects.requireNonNull(expectedValueProvider).getExpectedValue(apiKeyId, presentedApiKey);
-    if (expectedValue == null || !matches(presentedApiKey, expectedValue)) {
+    SplibApiKeyExpectedValueProvider provider = Objects.requireNonNull(expectedValueProvider);
+
+    // The hash is needed for HASH mode, and as the cache key when X-Api-Key-Id is absent.
+    String presentedApiKeyHash = comparisonMode == SplibApiKeyComparisonMode.HASH
+        || (expectedValueCache.isEnabled() && apiKeyId == null) ? sha256Hex(presentedApiKey) : "";
+    String expectedValue = expectedValueCache.get(apiKeyId, presentedApiKeyHash,
+        () -> provider.getExpectedValue(apiKeyId, presentedApiKey));
+    if (expectedValue == null || !matches(presentedApiKey, presentedApiKeyHash, expectedValue)) {
       detailLog.warn("apiKey mismatch on request to " + request.getRequestURI() + ".");
       reject(response);
       return;
@@ -113,31 +149,23 @@ public class SplibApiKeyAuthenticationFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
-  private boolean matches(String presentedApiKey, String expectedValue) {
+  private boolean matches(String presentedApiKey, String presentedApiKeyHash,
+      String expectedValue) {
     String comparisonValue =
-        comparisonMode == SplibApiKeyComparisonMode.HASH ? sha256Hex(presentedApiKey)
-            : presentedApiKey;
+        comparisonMode == SplibApiKeyComparisonMode.HASH ? presentedApiKeyHash : presentedApiKey;
 
     // MessageDigest.isEqual() is used instead of String.equals() to avoid a timing attack.
     return MessageDigest.isEqual(comparisonValue.getBytes(StandardCharsets.UTF_8),
         expectedValue.getBytes(StandardCharsets.UTF_8));
   }
 
-  private String sha256Hex(String value) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance("SHA-256");
-    } catch (NoSuchAlgorithmException ex) {
-      // SHA-256 is guaranteed to be available on every conforming JDK.
-      throw new AssertionError(ex);
-    }
-
-    byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
-    StringBuilder hex = new StringBuilder(hash.length * 2);
-    for (byte b : hash) {
-      hex.append(String.format("%02x", b));
-    }
-    return hex.toString();
+  /**
+   * Returns the lowercase-hex SHA-256 digest of {@code value}.
+   */
+  static String sha256Hex(String value) {
+    MessageDigest digest = SHA256.get();
+    digest.reset();
+    return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
   }
 
   private void reject(HttpServletResponse response) throws IOException {
@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.rest.apikey;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Caches the values returned by {@link SplibApiKeyExpectedValueProvider#getExpectedValue}
+ * for a limited time, so the provider (which typically queries a database) is not called on
+ * every request.
+ *
+ * <p>Enabled by setting {@code jp.ecuacion.splib.rest.api-key.cache.ttl-seconds} to a positive
+ *     value (default {@code 0}, which disables the cache). The number of entries is bounded by
+ *     {@code jp.ecuacion.splib.rest.api-key.cache.max-size} (default {@code 10000}); when it's
+ *     full, the least recently used entry is evicted.</p>
+ *
+ * <p>{@code null} results can be cached too by setting
+ *     {@code jp.ecuacion.splib.rest.api-key.cache.negative-ttl-seconds} to a positive value
+ *     (default {@code 0}), so a client repeating an unknown key does not reach the provider
+ *     each time. They are kept apart from non-null values in a map of at most
+ *     {@value #NEGATIVE_MAX_SIZE} entries, so clients sending random keys cannot evict
+ *     the values of valid keys.</p>
+ *
+ * <p>Entries are keyed by {@code apiKeyId} when the client sends one, so the cache assumes the
+ *     provider returns the same value for the same {@code apiKeyId}. Without {@code apiKeyId},
+ *     the SHA-256 digest of the presented key is used instead; the raw key is never kept.</p>
+ *
+ * <p>When a key is revoked or rotated, call {@link #revoke(String)} (or {@link #revokeAll()})
+ *     so the change takes effect before the entry expires. This class is registered as a bean
+ *     by {@code SplibRestSecurityConfig}, so it can be injected where keys are managed.</p>
+ */
+public class SplibApiKeyExpectedValueCache {
+
+  static final int NEGATIVE_MAX_SIZE = 1000;
+
+  private static final String PREFIX_KEY_ID = "id:";
+  private static final String PREFIX_KEY_HASH = "hash:";
+
+  private final long ttlNanos;
+  private final long negativeTtlNanos;
+  private final int maxSize;
+  private final LongSupplier nanoTime;
+
+  /** Keeps non-null values. Guarded by itself. */
+  private final LruMap map;
+
+  /** Keeps {@code null} results. Guarded by itself. */
+  private final LruMap negativeMap;
+
+  private record Entry(@Nullable String expectedValue, long expiresAtNanos) {
+  }
+
+  /**
+   * Keeps entries in access order, evicting the least recently used one when full.
+   */
+  private static class LruMap extends LinkedHashMap<String, Entry> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maxSize;
+
+    LruMap(int maxSize) {
+      super(16, 0.75f, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+      return size() > maxSize;
+    }
+  }
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param ttl how long a non-null expected value is kept; zero or negative disables the cache
+   * @param negativeTtl how long a {@code null} result is kept; zero or negative disables
+   *     negative caching
+   * @param maxSize the maximum number of entries
+   */
+  public SplibApiKeyExpectedValueCache(Duration ttl, Duration negativeTtl, int maxSize) {
+    this(ttl, negativeTtl, maxSize, System::nanoTime);
+  }
+
+  SplibApiKeyExpectedValueCache(Duration ttl, Duration negativeTtl, int maxSize,
+      LongSupplier nanoTime) {
+    this.ttlNanos = ttl.toNanos();
+    this.negativeTtlNanos = negativeTtl.toNanos();
+    this.maxSize = maxSize;
+    this.nanoTime = nanoTime;
+    this.map = new LruMap(Math.max(0, maxSize));
+    this.negativeMap = new LruMap(Math.max(0, Math.min(maxSize, NEGATIVE_MAX_SIZE)));
+  }
+
+  /**
+   * Returns a disabled instance, which always calls the provider.
+   *
+   * @return SplibApiKeyExpectedValueCache
+   */
+  public static SplibApiKeyExpectedValueCache disabled() {
+    return new SplibApiKeyExpectedValueCache(Duration.ZERO, Duration.ZERO, 0);
+  }
+
+  /**
+   * Returns whether the cache is enabled.
+   *
+   * @return boolean
+   */
+  public boolean isEnabled() {
+    return ttlNanos > 0 && maxSize > 0;
+  }
+
+  /**
+   * Returns the cached expected value, or the one obtained from {@code loader}.
+   *
+   * @param apiKeyId the {@code X-Api-Key-Id} header value, may be {@code null}
+   * @param presentedApiKeyHash the lowercase-hex SHA-256 digest of the presented key,
+   *     used as the cache key when {@code apiKeyId} is {@code null}
+   * @param loader calls the provider
+   * @return the expected value, may be {@code null}
+   */
+  @Nullable
+  String get(@Nullable String apiKeyId, String presentedApiKeyHash,
+      Supplier<@Nullable String> loader) {
+    if (!isEnabled()) {
+      return loader.get();
+    }
+
+    String key =
+        apiKeyId != null ? PREFIX_KEY_ID + apiKeyId : PREFIX_KEY_HASH + presentedApiKeyHash;
+    long now = nanoTime.getAsLong();
+    Entry entry = lookUp(map, key, now);
+    if (entry == null && negativeTtlNanos > 0) {
+      entry = lookUp(negativeMap, key, now);
+    }
+    if (entry != null) {
+      return entry.expectedValue();
+    }
+
+    // The loader runs outside the lock, since it typically queries a database.
+    String expectedValue = loader.get();
+    if (expectedValue != null) {
+      put(map, key, new Entry(expectedValue, now + ttlNanos));
+
+    } else if (negativeTtlNanos > 0) {
+      put(negativeMap, key, new Entry(null, now + negativeTtlNanos));
+    }
+
+    return expectedValue;
+  }
+
+  private static @Nullable Entry lookUp(LruMap lruMap, String key, long now) {
+    synchronized (lruMap) {
+      Entry entry = lruMap.get(key);
+      if (entry == null) {
+        return null;
+      }
+
+      if (entry.expiresAtNanos() - now <= 0) {
+        lruMap.remove(key);
+        return null;
+      }
+
+      return entry;
+    }
+  }
+
+  private static void put(LruMap lruMap, String key, Entry entry) {
+    synchronized (lruMap) {
+      lruMap.put(key, entry);
+    }
+  }
+
+  /** Returns the number of cached non-null values and {@code null} results. */
+  int size() {
+    synchronized (map) {
+      synchronized (negativeMap) {
+        return map.size() + negativeMap.size();
+      }
+    }
+  }
+
+  /**
+   * Removes the cached value for {@code apiKeyId}.
+   *
+   * @param apiKeyId the {@code X-Api-Key-Id} value of the revoked or rotated key
+   */
+  public void revoke(String apiKeyId) {
+    String key = PREFIX_KEY_ID + apiKeyId;
+    synchronized (map) {
+      map.remove(key);
+    }
+    synchronized (negativeMap) {
+      negativeMap.remove(key);
+    }
+  }
+
+  /**
+   * Removes all the cached values.
+   *
+   * <p>Use this when a key used without {@code X-Api-Key-Id} is revoked or rotated.</p>
+   */
+  public void revokeAll() {
+    synchronized (map) {
+      map.clear();
+    }
+    synchronized (negativeMap) {
+      negativeMap.clear();
+    }
+  }
+}
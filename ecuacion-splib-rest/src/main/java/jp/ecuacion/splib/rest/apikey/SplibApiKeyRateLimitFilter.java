@@ -0,0 +1,162 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.rest.apikey;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import jp.ecuacion.lib.core.logging.DetailLogger;
+import jp.ecuacion.splib.rest.ratelimit.SplibRateLimitRecorder;
+import jp.ecuacion.splib.rest.ratelimit.SplibRateLimitStore;
+import org.jspecify.annotations.Nullable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limits the rate of requests under {@code /api/key/**} with a token bucket.
+ *
+ * <p>Since {@code X-Api-Key-Id} and {@code X-Api-Key} are sent by clients,
+ *     a bucket is never chosen by them before the key is authenticated.
+ *     Two instances are used, selected by {@link KeySource}:</p>
+ *
+ * <ul>
+ * <li>{@link KeySource#REMOTE_ADDRESS} runs before {@link SplibApiKeyAuthenticationFilter}
+ *     and limits requests with {@code X-Api-Key} per remote address,
+ *     so a client sending wrong keys repeatedly is throttled before it reaches
+ *     {@link SplibApiKeyExpectedValueProvider}.</li>
+ * <li>{@link KeySource#AUTHENTICATED_KEY} runs after {@link SplibApiKeyAuthenticationFilter}
+ *     and limits requests per accepted key, chosen by the {@code X-Api-Key-Id} header
+ *     when the client sends it, otherwise by the SHA-256 digest of the {@code X-Api-Key}
+ *     header.</li>
+ * </ul>
+ *
+ * <p>A request over the limit receives {@code 429 Too Many Requests} with a
+ *     {@code Retry-After} header in seconds.</p>
+ *
+ * <p>Each instance has its own already-filtered request attribute named after its
+ *     {@link KeySource}, so both instances run in the same filter chain.</p>
+ */
+public class SplibApiKeyRateLimitFilter extends OncePerRequestFilter {
+
+  /**
+   * Selects what a bucket is chosen by.
+   */
+  public enum KeySource {
+
+    /** The remote address of the request, used before the key is authenticated. */
+    REMOTE_ADDRESS,
+
+    /** The accepted API key, used after the key is authenticated. */
+    AUTHENTICATED_KEY
+  }
+
+  private final DetailLogger detailLog = new DetailLogger(this);
+
+  private final SplibRateLimitStore store;
+  private final @Nullable SplibRateLimitRecorder recorder;
+  private final KeySource keySource;
+  private final int capacity;
+  private final double refillPerSecond;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param store the store of token buckets
+   * @param recorder the recorder of results, may be {@code null}
+   * @param keySource what a bucket is chosen by
+   * @param capacity the maximum number of tokens of a bucket, which is the allowed burst,
+   *     must be positive
+   * @param refillPerSecond the number of tokens added to a bucket per second,
+   *     must be positive
+   */
+  public SplibApiKeyRateLimitFilter(SplibRateLimitStore store,
+      @Nullable SplibRateLimitRecorder recorder, KeySource keySource, int capacity,
+      double refillPerSecond) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    if (!(refillPerSecond > 0) || Double.isInfinite(refillPerSecond)) {
+      throw new IllegalArgumentException(
+          "refillPerSecond must be a positive finite number: " + refillPerSecond);
+    }
+
+    this.store = store;
+    this.recorder = recorder;
+    this.keySource = keySource;
+    this.capacity = capacity;
+    this.refillPerSecond = refillPerSecond;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+
+    String presentedApiKey = request.getHeader(SplibApiKeyAuthenticationFilter.HEADER_API_KEY);
+    if (presentedApiKey == null || presentedApiKey.isEmpty()) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    String apiKeyId = request.getHeader(SplibApiKeyAuthenticationFilter.HEADER_API_KEY_ID);
+    String bucketKey;
+    String recordedKey;
+    if (keySource == KeySource.REMOTE_ADDRESS) {
+      bucketKey = "addr:" + request.getRemoteAddr();
+      // Remote addresses are not recorded so that the number of meters stays small.
+      recordedKey = "-";
+
+    } else {
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      if (authentication == null || !authentication.isAuthenticated()) {
+        filterChain.doFilter(request, response);
+        return;
+      }
+
+      bucketKey = apiKeyId != null ? "id:" + apiKeyId
+          : "hash:" + SplibApiKeyAuthenticationFilter.sha256Hex(presentedApiKey);
+      recordedKey = apiKeyId != null ? apiKeyId : "-";
+    }
+
+    long waitNanos = store.tryConsume(bucketKey, capacity, refillPerSecond);
+    if (recorder != null) {
+      recorder.record(recordedKey, waitNanos == 0);
+    }
+
+    if (waitNanos > 0) {
+      long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1);
+      detailLog.warn("Rate limit exceeded on request to " + request.getRequestURI()
+          + (keySource == KeySource.REMOTE_ADDRESS ? " from " + request.getRemoteAddr()
+              : apiKeyId != null ? " (" + SplibApiKeyAuthenticationFilter.HEADER_API_KEY_ID
+                  + ": " + apiKeyId.replaceAll("\\p{Cntrl}", "_") + ")" : "")
+          + ".");
+      response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+      response.sendError(429, "Too many requests.");
+      return;
+    }
+
+    filterChain.doFilter(request, response);
+  }
+
+  @Override
+  protected String getAlreadyFilteredAttributeName() {
+    return SplibApiKeyRateLimitFilter.class.getName() + "." + keySource.name()
+        + ALREADY_FILTERED_SUFFIX;
+  }
+}
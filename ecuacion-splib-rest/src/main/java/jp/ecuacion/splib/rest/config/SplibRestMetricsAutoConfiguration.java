@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.rest.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jp.ecuacion.splib.rest.ratelimit.MicrometerRateLimitRecorder;
+import jp.ecuacion.splib.rest.ratelimit.SplibRateLimitRecorder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configures {@link MicrometerRateLimitRecorder}
+ *     when {@code jp.ecuacion.splib.rest.rate-limit.enabled} is {@code true}
+ *     and Micrometer is on the classpath.
+ *
+ * <p>The {@code MeterRegistry} bean is used if present
+ *     (normally provided by {@code spring-boot-starter-actuator}),
+ *     otherwise {@code Metrics.globalRegistry}.</p>
+ */
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(name = "jp.ecuacion.splib.rest.rate-limit.enabled", havingValue = "true")
+public class SplibRestMetricsAutoConfiguration {
+
+  /**
+   * Provides {@link MicrometerRateLimitRecorder}.
+   *
+   * @param registryProvider registryProvider
+   * @return SplibRateLimitRecorder
+   */
+  @Bean
+  @ConditionalOnMissingBean(SplibRateLimitRecorder.class)
+  SplibRateLimitRecorder micrometerRateLimitRecorder(
+      ObjectProvider<MeterRegistry> registryProvider) {
+    return new MicrometerRateLimitRecorder(
+        registryProvider.getIfAvailable(() -> Metrics.globalRegistry));
+  }
+}
@@ -15,11 +15,18 @@
  */
 package jp.ecuacion.splib.rest.config;
 
-
+import java.time.Duration;
 import jp.ecuacion.splib.rest.apikey.SplibApiKeyAuthenticationFilter;
 import jp.ecuacion.splib.rest.apikey.SplibApiKeyComparisonMode;
+import jp.ecuacion.splib.rest.apikey.SplibApiKeyExpectedValueCache;
 import jp.ecuacion.splib.rest.apikey.SplibApiKeyExpectedValueProvider;
+import jp.ecuacion.splib.rest.apikey.SplibApiKeyRateLimitFilter;
+import jp.ecuacion.splib.rest.apikey.SplibApiKeyRateLimitFilter.KeySource;
+import jp.ecuacion.splib.rest.ratelimit.InMemoryRateLimitStore;
+import jp.ecuacion.splib.rest.ratelimit.SplibRateLimitRecorder;
+import jp.ecuacion.splib.rest.ratelimit.SplibRateLimitStore;
 import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.annotation.Order;
@@ -41,6 +48,39 @@ public abstract class SplibRestSecurityConfig {
   @Value("${jp.ecuacion.splib.rest.api-key.mode:PLAIN}")
   private SplibApiKeyComparisonMode apiKeyComparisonMode = SplibApiKeyComparisonMode.PLAIN;
 
+  @Value("${jp.ecuacion.splib.rest.api-key.cache.ttl-seconds:0}")
+  private long apiKeyCacheTtlSeconds = 0;
+
+  @Value("${jp.ecuacion.splib.rest.api-key.cache.negative-ttl-seconds:0}")
+  private long apiKeyCacheNegativeTtlSeconds = 0;
+
+  @Value("${jp.ecuacion.splib.rest.api-key.cache.max-size:10000}")
+  private int apiKeyCacheMaxSize = 10000;
+
+  @Value("${jp.ecuacion.splib.rest.rate-limit.enabled:false}")
+  private boolean rateLimitEnabled = false;
+
+  @Value("${jp.ecuacion.splib.rest.rate-limit.capacity:100}")
+  private int rateLimitCapacity = 100;
+
+  @Value("${jp.ecuacion.splib.rest.rate-limit.refill-per-second:50}")
+  private double rateLimitRefillPerSecond = 50;
+
+  @Value("${jp.ecuacion.splib.rest.rate-limit.max-keys:100000}")
+  private int rateLimitMaxKeys = 100000;
+
+  @Value("${jp.ecuacion.splib.rest.rate-limit.remote-address.enabled:true}")
+  private boolean rateLimitRemoteAddressEnabled = true;
+
+  @Value("${jp.ecuacion.splib.rest.rate-limit.remote-address.capacity:100}")
+  private int rateLimitRemoteAddressCapacity = 100;
+
+  @Value("${jp.ecuacion.splib.rest.rate-limit.remote-address.refill-per-second:50}")
+  private double rateLimitRemoteAddressRefillPerSecond = 50;
+
+  @Value("${jp.ecuacion.splib.rest.rate-limit.remote-address.max-keys:100000}")
+  private int rateLimitRemoteAddressMaxKeys = 100000;
+
   /**
    * Constructs a new instance.
    *
@@ -70,6 +110,20 @@ public abstract class SplibRestSecurityConfig {
     return new InMemoryUserDetailsManager();
   }
 
+  /**
+   * Provides the cache of the values returned by {@link SplibApiKeyExpectedValueProvider}.
+   *
+   * <p>Disabled unless {@code jp.ecuacion.splib.rest.api-key.cache.ttl-seconds} is positive.
+   *     Inject it to revoke cached keys; see {@link SplibApiKeyExpectedValueCache}.</p>
+   *
+   * @return SplibApiKeyExpectedValueCache
+   */
+  @Bean
+  SplibApiKeyExpectedValueCache apiKeyExpectedValueCache() {
+    return new SplibApiKeyExpectedValueCache(Duration.ofSeconds(apiKeyCacheTtlSeconds),
+        Duration.ofSeconds(apiKeyCacheNegativeTtlSeconds), apiKeyCacheMaxSize);
+  }
+
   /**
    * Provides SecurityFilterChain.
    *
@@ -121,22 +175,73 @@ public abstract class SplibRestSecurityConfig {
    *     underneath is read-only or not (contrast {@link #filterChainForApiPublic}, where CSRF is
    *     safe to disable only because the path is assumed read-only).</p>
    *
+   * <p>With {@code jp.ecuacion.splib.rest.rate-limit.enabled=true}, requests are also
+   *     rate-limited by {@link SplibApiKeyRateLimitFilter} per accepted key after
+   *     authentication: each key can send {@code jp.ecuacion.splib.rest.rate-limit.capacity}
+   *     (default {@code 100}) requests at once, refilled by
+   *     {@code jp.ecuacion.splib.rest.rate-limit.refill-per-second} (default {@code 50}).
+   *     Both must be positive. Buckets are kept by the {@link SplibRateLimitStore} bean if any,
+   *     otherwise in memory, holding at most {@code jp.ecuacion.splib.rest.rate-limit.max-keys}
+   *     (default {@code 100000}) buckets; a new key is refused while the store is full.</p>
+   *
+   * <p>Requests are also limited per remote address before authentication unless
+   *     {@code jp.ecuacion.splib.rest.rate-limit.remote-address.enabled} is {@code false},
+   *     with {@code capacity}, {@code refill-per-second} and {@code max-keys} set separately
+   *     under {@code jp.ecuacion.splib.rest.rate-limit.remote-address} (same defaults).
+   *     Without a {@link SplibRateLimitStore} bean these buckets are kept in a store of their
+   *     own, so many addresses never crowd out the keys.
+   *     The remote address is {@link jakarta.servlet.ServletRequest#getRemoteAddr()}: behind a
+   *     proxy or load balancer it is the proxy's address, which makes the limit one for all
+   *     clients. Set {@code server.forward-headers-strategy} to {@code native} or
+   *     {@code framework} there so that it is taken from {@code X-Forwarded-For}, but only
+   *     when the proxy overwrites that header, since otherwise clients choose their own bucket;
+   *     if neither fits, disable the limit per remote address.</p>
+   *
    * @param http http
+   * @param apiKeyExpectedValueCache apiKeyExpectedValueCache
+   * @param rateLimitStoreProvider rateLimitStoreProvider
+   * @param rateLimitRecorderProvider rateLimitRecorderProvider
    * @return SecurityFilterChain
    * @throws Exception Exception
    */
   @Order(9)
   @Bean
-  SecurityFilterChain filterChainForApiKey(HttpSecurity http) throws Exception {
+  SecurityFilterChain filterChainForApiKey(HttpSecurity http,
+      SplibApiKeyExpectedValueCache apiKeyExpectedValueCache,
+      ObjectProvider<SplibRateLimitStore> rateLimitStoreProvider,
+      ObjectProvider<SplibRateLimitRecorder> rateLimitRecorderProvider) throws Exception {
     http.securityMatcher("/api/key/**");
 
     http.httpBasic(basic -> basic.disable());
     http.csrf(csrf -> csrf.disable());
 
     http.addFilterBefore(
-        new SplibApiKeyAuthenticationFilter(apiKeyExpectedValueProvider, apiKeyComparisonMode),
+        new SplibApiKeyAuthenticationFilter(apiKeyExpectedValueProvider, apiKeyComparisonMode,
+            apiKeyExpectedValueCache),
         UsernamePasswordAuthenticationFilter.class);
 
+    if (rateLimitEnabled) {
+      SplibRateLimitStore appStore = rateLimitStoreProvider.getIfAvailable();
+      SplibRateLimitRecorder recorder = rateLimitRecorderProvider.getIfAvailable();
+
+      // Limited per key after the authentication filter so that the bucket is never chosen
+      // by an unverified header.
+      http.addFilterAfter(new SplibApiKeyRateLimitFilter(
+          appStore != null ? appStore : new InMemoryRateLimitStore(rateLimitMaxKeys), recorder,
+          KeySource.AUTHENTICATED_KEY, rateLimitCapacity, rateLimitRefillPerSecond),
+          SplibApiKeyAuthenticationFilter.class);
+
+      // Limited per remote address before the authentication filter so that a client sending
+      // wrong keys repeatedly is throttled before it reaches SplibApiKeyExpectedValueProvider.
+      if (rateLimitRemoteAddressEnabled) {
+        http.addFilterBefore(new SplibApiKeyRateLimitFilter(
+            appStore != null ? appStore
+                : new InMemoryRateLimitStore(rateLimitRemoteAddressMaxKeys),
+            recorder, KeySource.REMOTE_ADDRESS, rateLimitRemoteAddressCapacity,
+            rateLimitRemoteAddressRefillPerSecond), SplibApiKeyAuthenticationFilter.class);
+      }
+    }
+
     // The filter above already rejects (401) any request that fails API-key authentication, so
     // authorization here only needs to admit requests that got past it.
     http.authorizeHttpRequests(requests -> requests
@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.rest.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Keeps token buckets in memory.
+ *
+ * <p>Each bucket is a single {@code AtomicLong} updated by compare-and-set, following the
+ *     generic cell rate algorithm (GCRA), which behaves the same as a token bucket.
+ *     It stores the time when the bucket would be full again, so no lock or refill timer is
+ *     needed, and buckets are spread over the stripes of a {@code ConcurrentHashMap}.</p>
+ *
+ * <p>The number of buckets never exceeds {@code maxKeys}.
+ *     Buckets that are full again are no different from absent ones,
+ *     so they are removed when a new key arrives while the store is full.
+ *     That scan runs at most once per {@value #PURGE_INTERVAL_SECONDS} second,
+ *     and a new key arriving while the store is still full is refused
+ *     until a later scan makes room.</p>
+ */
+public class InMemoryRateLimitStore implements SplibRateLimitStore {
+
+  static final long PURGE_INTERVAL_SECONDS = 1;
+
+  private static final long PURGE_INTERVAL_NANOS =
+      TimeUnit.SECONDS.toNanos(PURGE_INTERVAL_SECONDS);
+
+  private final int maxKeys;
+
+  private final LongSupplier nanoTime;
+
+  /** Keeps the theoretical arrival time in nanoseconds, keyed by bucket key. */
+  private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+  /** Counts buckets including ones being added, so that the bound holds under contention. */
+  private final AtomicInteger size = new AtomicInteger();
+
+  private final AtomicLong nextPurgeAt;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param maxKeys the maximum number of buckets, must be positive
+   */
+  public InMemoryRateLimitStore(int maxKeys) {
+    this(maxKeys, System::nanoTime);
+  }
+
+  InMemoryRateLimitStore(int maxKeys, LongSupplier nanoTime) {
+    if (maxKeys <= 0) {
+      throw new IllegalArgumentException("maxKeys must be positive: " + maxKeys);
+    }
+
+    this.maxKeys = maxKeys;
+    this.nanoTime = nanoTime;
+    this.nextPurgeAt = new AtomicLong(nanoTime.getAsLong());
+  }
+
+  @Override
+  public long tryConsume(String key, int capacity, double refillPerSecond) {
+    long interval = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+    long burstTolerance = interval * capacity;
+    long now = nanoTime.getAsLong();
+
+    AtomicLong tat = buckets.get(key);
+    if (tat == null) {
+      tat = addBucket(key, now);
+      if (tat == null) {
+        return Math.max(1, nextPurgeAt.get() - now);
+      }
+    }
+
+    while (true) {
+      long current = tat.get();
+      long base = current - now > 0 ? current : now;
+      long newTat = base + interval;
+      long allowAt = newTat - burstTolerance;
+      if (allowAt - now > 0) {
+        return allowAt - now;
+      }
+      if (tat.compareAndSet(current, newTat)) {
+        return 0;
+      }
+    }
+  }
+
+  /** Returns the number of buckets. */
+  int size() {
+    return size.get();
+  }
+
+  /**
+   * Adds a full bucket for {@code key}, or returns {@code null} if the store is full.
+   */
+  private @Nullable AtomicLong addBucket(String key, long now) {
+    if (!reserve() && !(purge(now) && reserve())) {
+      return null;
+    }
+
+    AtomicLong added = new AtomicLong(now);
+    AtomicLong existing = buckets.putIfAbsent(key, added);
+    if (existing != null) {
+      size.decrementAndGet();
+      return existing;
+    }
+
+    return added;
+  }
+
+  private boolean reserve() {
+    if (size.incrementAndGet() <= maxKeys) {
+      return true;
+    }
+
+    size.decrementAndGet();
+    return false;
+  }
+
+  /**
+   * Removes buckets that are full again, at most once per purge interval.
+   *
+   * @return whether the scan ran
+   */
+  private boolean purge(long now) {
+    long next = nextPurgeAt.get();
+    if (next - now > 0 || !nextPurgeAt.compareAndSet(next, now + PURGE_INTERVAL_NANOS)) {
+      return false;
+    }
+
+    for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+      if (entry.getValue().get() - now <= 0 && buckets.remove(entry.getKey(), entry.getValue())) {
+        size.decrementAndGet();
+      }
+    }
+
+    return true;
+  }
+}
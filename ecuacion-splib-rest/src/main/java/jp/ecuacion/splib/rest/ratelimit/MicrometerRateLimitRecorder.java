@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.rest.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the results of rate limiting as the Micrometer counter
+ *     {@code splib.rest.rate-limit.requests} tagged with {@code key} and {@code result}
+ *     ({@code allowed} / {@code rejected}).
+ *
+ * <p>Since {@code X-Api-Key-Id} is sent by clients, keys after the first
+ *     {@value #MAX_KEYS} distinct ones are recorded as {@code other}
+ *     so that a client sending random ids cannot make the number of meters unbounded.</p>
+ */
+public class MicrometerRateLimitRecorder implements SplibRateLimitRecorder {
+
+  static final int MAX_KEYS = 1000;
+
+  private static final String KEY_OTHER = "other";
+
+  private final MeterRegistry registry;
+
+  private final Map<String, Counter> allowedCounters = new ConcurrentHashMap<>();
+  private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param registry registry
+   */
+  public MicrometerRateLimitRecorder(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public void record(String key, boolean allowed) {
+    Map<String, Counter> counters = allowed ? allowedCounters : rejectedCounters;
+    if (!counters.containsKey(key) && counters.size() >= MAX_KEYS) {
+      key = KEY_OTHER;
+    }
+
+    counters.computeIfAbsent(key, k -> Counter.builder("splib.rest.rate-limit.requests")
+        .tag("key", k).tag("result", allowed ? "allowed" : "rejected").register(registry))
+        .increment();
+  }
+}
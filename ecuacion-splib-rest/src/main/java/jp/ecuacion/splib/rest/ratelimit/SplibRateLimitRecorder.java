@@ -0,0 +1,35 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.rest.ratelimit;
+
+/**
+ * Records the results of rate limiting.
+ *
+ * <p>{@link MicrometerRateLimitRecorder} is registered automatically when Micrometer is
+ *     on the classpath and rate limiting is enabled.</p>
+ */
+public interface SplibRateLimitRecorder {
+
+  /**
+   * Records a request.
+   *
+   * @param key the key shown in metrics, which is the {@code X-Api-Key-Id} value
+   *     of an accepted key, or {@code "-"} when the client did not send it
+   *     or the key is not authenticated yet
+   * @param allowed whether the request is allowed
+   */
+  void record(String key, boolean allowed);
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.rest.ratelimit;
+
+/**
+ * Keeps the token buckets used to rate-limit requests.
+ *
+ * <p>{@link InMemoryRateLimitStore} is used unless the application registers a bean of this
+ *     type. Implement this interface to share buckets among multiple nodes
+ *     (with Redis or other shared storage, for example).</p>
+ */
+public interface SplibRateLimitStore {
+
+  /**
+   * Takes one token from the bucket for {@code key}.
+   *
+   * <p>The bucket holds at most {@code capacity} tokens and is refilled by
+   *     {@code refillPerSecond} tokens per second. A bucket not used before is full.</p>
+   *
+   * @param key the key identifying the bucket
+   * @param capacity the maximum number of tokens, which is the allowed burst
+   * @param refillPerSecond the number of tokens added per second
+   * @return {@code 0} if a token is taken, otherwise nanoseconds until a token is available
+   */
+  long tryConsume(String key, int capacity, double refillPerSecond);
+}
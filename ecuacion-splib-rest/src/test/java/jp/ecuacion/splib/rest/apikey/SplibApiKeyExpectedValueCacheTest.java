@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.rest.apikey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SplibApiKeyExpectedValueCache}.
+ */
+class SplibApiKeyExpectedValueCacheTest {
+
+  private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+  private final AtomicInteger loadCount = new AtomicInteger();
+
+  private SplibApiKeyExpectedValueCache cache(long ttlSeconds, long negativeTtlSeconds,
+      int maxSize) {
+    return new SplibApiKeyExpectedValueCache(Duration.ofSeconds(ttlSeconds),
+        Duration.ofSeconds(negativeTtlSeconds), maxSize, now::get);
+  }
+
+  private @Nullable String get(SplibApiKeyExpectedValueCache cache, String apiKeyId,
+      @Nullable String value) {
+    return cache.get(apiKeyId, "", () -> {
+      loadCount.incrementAndGet();
+      return value;
+    });
+  }
+
+  @Test
+  void get_returnsCachedValue_untilTtlExpires() {
+    SplibApiKeyExpectedValueCache cache = cache(10, 0, 100);
+
+    assertThat(get(cache, "a", "v1")).isEqualTo("v1");
+    now.addAndGet(Duration.ofSeconds(9).toNanos());
+    assertThat(get(cache, "a", "v2")).isEqualTo("v1");
+    assertThat(loadCount).hasValue(1);
+
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertThat(get(cache, "a", "v2")).isEqualTo("v2");
+    assertThat(loadCount).hasValue(2);
+  }
+
+  @Test
+  void get_doesNotCacheNullResult_byDefault() {
+    SplibApiKeyExpectedValueCache cache = cache(10, 0, 100);
+
+    assertThat(get(cache, "a", null)).isNull();
+    assertThat(get(cache, "a", null)).isNull();
+    assertThat(loadCount).hasValue(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void get_cachesNullResult_untilNegativeTtlExpires() {
+    SplibApiKeyExpectedValueCache cache = cache(60, 5, 100);
+
+    assertThat(get(cache, "a", null)).isNull();
+    now.addAndGet(Duration.ofSeconds(4).toNanos());
+    assertThat(get(cache, "a", "v1")).isNull();
+    assertThat(loadCount).hasValue(1);
+
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertThat(get(cache, "a", "v1")).isEqualTo("v1");
+    assertThat(loadCount).hasValue(2);
+  }
+
+  @Test
+  void get_evictsLeastRecentlyUsedEntry_whenFull() {
+    SplibApiKeyExpectedValueCache cache = cache(60, 0, 2);
+    get(cache, "a", "va");
+    get(cache, "b", "vb");
+    // Accessing "a" makes "b" the least recently used one.
+    get(cache, "a", "va");
+
+    get(cache, "c", "vc");
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(loadCount).hasValue(3);
+
+    get(cache, "a", "va");
+    get(cache, "c", "vc");
+    assertThat(loadCount).hasValue(3);
+    get(cache, "b", "vb");
+    assertThat(loadCount).hasValue(4);
+  }
+
+  @Test
+  void get_keepsValidKeys_whenUnknownKeysFloodNegativeCache() {
+    SplibApiKeyExpectedValueCache cache = cache(60, 60, 10_000);
+    get(cache, "valid", "v");
+
+    for (int i = 0; i < SplibApiKeyExpectedValueCache.NEGATIVE_MAX_SIZE * 2; i++) {
+      get(cache, "random" + i, null);
+    }
+    assertThat(cache.size()).isEqualTo(SplibApiKeyExpectedValueCache.NEGATIVE_MAX_SIZE + 1);
+
+    int loaded = loadCount.get();
+    assertThat(get(cache, "valid", "v")).isEqualTo("v");
+    assertThat(loadCount).hasValue(loaded);
+  }
+
+  @Test
+  void revoke_removesCachedValue() {
+    SplibApiKeyExpectedValueCache cache = cache(60, 0, 100);
+    get(cache, "a", "v1");
+
+    cache.revoke("a");
+    assertThat(get(cache, "a", "v2")).isEqualTo("v2");
+  }
+
+  @Test
+  void get_alwaysCallsLoader_whenDisabled() {
+    SplibApiKeyExpectedValueCache cache = SplibApiKeyExpectedValueCache.disabled();
+
+    get(cache, "a", "v1");
+    get(cache, "a", "v1");
+    assertThat(loadCount).hasValue(2);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.rest.apikey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServlet;
+import java.util.List;
+import jp.ecuacion.splib.rest.apikey.SplibApiKeyRateLimitFilter.KeySource;
+import jp.ecuacion.splib.rest.ratelimit.InMemoryRateLimitStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Unit tests for {@link SplibApiKeyRateLimitFilter}.
+ */
+class SplibApiKeyRateLimitFilterTest {
+
+  @AfterEach
+  void clearSecurityContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  private int doFilter(SplibApiKeyRateLimitFilter filter, String remoteAddr, String apiKeyId)
+      throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/key/test");
+    request.setRemoteAddr(remoteAddr);
+    request.addHeader(SplibApiKeyAuthenticationFilter.HEADER_API_KEY, "secret");
+    request.addHeader(SplibApiKeyAuthenticationFilter.HEADER_API_KEY_ID, apiKeyId);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain());
+
+    return response.getStatus();
+  }
+
+  @Test
+  void doFilter_limitsPerRemoteAddress_evenIfKeyIdRotates() throws Exception {
+    SplibApiKeyRateLimitFilter filter = new SplibApiKeyRateLimitFilter(
+        new InMemoryRateLimitStore(100), null, KeySource.REMOTE_ADDRESS, 2, 1);
+
+    assertThat(doFilter(filter, "192.0.2.1", "id1")).isEqualTo(200);
+    assertThat(doFilter(filter, "192.0.2.1", "id2")).isEqualTo(200);
+    assertThat(doFilter(filter, "192.0.2.1", "id3")).isEqualTo(429);
+    assertThat(doFilter(filter, "192.0.2.2", "id4")).isEqualTo(200);
+  }
+
+  @Test
+  void doFilter_limitsPerAuthenticatedKey() throws Exception {
+    SplibApiKeyRateLimitFilter filter = new SplibApiKeyRateLimitFilter(
+        new InMemoryRateLimitStore(100), null, KeySource.AUTHENTICATED_KEY, 1, 1);
+    SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken
+        .authenticated("id1", null, List.of(new SimpleGrantedAuthority("ROLE_API_KEY"))));
+
+    assertThat(doFilter(filter, "192.0.2.1", "id1")).isEqualTo(200);
+    assertThat(doFilter(filter, "192.0.2.2", "id1")).isEqualTo(429);
+  }
+
+  @Test
+  void doFilter_passesThroughUnauthenticatedRequest_whenKeyedByAuthenticatedKey()
+      throws Exception {
+    SplibApiKeyRateLimitFilter filter = new SplibApiKeyRateLimitFilter(
+        new InMemoryRateLimitStore(100), null, KeySource.AUTHENTICATED_KEY, 1, 1);
+
+    assertThat(doFilter(filter, "192.0.2.1", "id1")).isEqualTo(200);
+    assertThat(doFilter(filter, "192.0.2.1", "id1")).isEqualTo(200);
+  }
+
+  @Test
+  void doFilter_runsBothInstances_inOneChain() throws Exception {
+    SplibApiKeyRateLimitFilter addressFilter = new SplibApiKeyRateLimitFilter(
+        new InMemoryRateLimitStore(100), null, KeySource.REMOTE_ADDRESS, 10, 1);
+    SplibApiKeyRateLimitFilter keyFilter = new SplibApiKeyRateLimitFilter(
+        new InMemoryRateLimitStore(100), null, KeySource.AUTHENTICATED_KEY, 1, 1);
+    Filter authenticationFilter = (request, response, chain) -> {
+      SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken
+          .authenticated("id1", null, List.of(new SimpleGrantedAuthority("ROLE_API_KEY"))));
+      chain.doFilter(request, response);
+    };
+
+    assertThat(doFilterChain(addressFilter, authenticationFilter, keyFilter)).isEqualTo(200);
+    assertThat(doFilterChain(addressFilter, authenticationFilter, keyFilter)).isEqualTo(429);
+  }
+
+  private int doFilterChain(Filter... filters) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/key/test");
+    request.addHeader(SplibApiKeyAuthenticationFilter.HEADER_API_KEY, "secret");
+    request.addHeader(SplibApiKeyAuthenticationFilter.HEADER_API_KEY_ID, "id1");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    HttpServlet servlet = new HttpServlet() {
+      @Override
+      public void service(ServletRequest req, ServletResponse res) {}
+    };
+    new MockFilterChain(servlet, filters).doFilter(request, response);
+    SecurityContextHolder.clearContext();
+
+    return response.getStatus();
+  }
+
+  @Test
+  void constructor_rejectsNonPositiveSettings() {
+    InMemoryRateLimitStore store = new InMemoryRateLimitStore(100);
+
+    assertThatThrownBy(
+        () -> new SplibApiKeyRateLimitFilter(store, null, KeySource.REMOTE_ADDRESS, 0, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+        () -> new SplibApiKeyRateLimitFilter(store, null, KeySource.REMOTE_ADDRESS, 1, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(
+        () -> new SplibApiKeyRateLimitFilter(store, null, KeySource.REMOTE_ADDRESS, 1, Double.NaN))
+            .isInstanceOf(IllegalArgumentException.class);
+  }
+}
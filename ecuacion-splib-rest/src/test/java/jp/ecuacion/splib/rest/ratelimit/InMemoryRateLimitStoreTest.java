@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.rest.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link InMemoryRateLimitStore}.
+ */
+class InMemoryRateLimitStoreTest {
+
+  /** 10 tokens per second, so one token per 100 ms. */
+  private static final double REFILL_PER_SECOND = 10;
+
+  private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+  @Test
+  void tryConsume_allowsBurstOfCapacity() {
+    InMemoryRateLimitStore store = new InMemoryRateLimitStore(10, now::get);
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(store.tryConsume("a", 5, REFILL_PER_SECOND)).isZero();
+    }
+    assertThat(store.tryConsume("a", 5, REFILL_PER_SECOND)).isEqualTo(INTERVAL);
+  }
+
+  @Test
+  void tryConsume_returnsWaitUntilNextToken() {
+    InMemoryRateLimitStore store = new InMemoryRateLimitStore(10, now::get);
+    store.tryConsume("a", 1, REFILL_PER_SECOND);
+
+    now.addAndGet(INTERVAL / 4);
+    assertThat(store.tryConsume("a", 1, REFILL_PER_SECOND)).isEqualTo(INTERVAL * 3 / 4);
+  }
+
+  @Test
+  void tryConsume_refillsOneTokenPerInterval() {
+    InMemoryRateLimitStore store = new InMemoryRateLimitStore(10, now::get);
+    for (int i = 0; i < 3; i++) {
+      store.tryConsume("a", 3, REFILL_PER_SECOND);
+    }
+
+    now.addAndGet(INTERVAL);
+    assertThat(store.tryConsume("a", 3, REFILL_PER_SECOND)).isZero();
+    assertThat(store.tryConsume("a", 3, REFILL_PER_SECOND)).isPositive();
+  }
+
+  @Test
+  void tryConsume_doesNotRefillOverCapacity() {
+    InMemoryRateLimitStore store = new InMemoryRateLimitStore(10, now::get);
+    store.tryConsume("a", 2, REFILL_PER_SECOND);
+
+    now.addAndGet(INTERVAL * 100);
+    assertThat(store.tryConsume("a", 2, REFILL_PER_SECOND)).isZero();
+    assertThat(store.tryConsume("a", 2, REFILL_PER_SECOND)).isZero();
+    assertThat(store.tryConsume("a", 2, REFILL_PER_SECOND)).isPositive();
+  }
+
+  @Test
+  void tryConsume_keepsBucketsPerKey() {
+    InMemoryRateLimitStore store = new InMemoryRateLimitStore(10, now::get);
+    store.tryConsume("a", 1, REFILL_PER_SECOND);
+
+    assertThat(store.tryConsume("a", 1, REFILL_PER_SECOND)).isPositive();
+    assertThat(store.tryConsume("b", 1, REFILL_PER_SECOND)).isZero();
+  }
+
+  @Test
+  void tryConsume_refusesNewKey_whenFullAndNothingIsPurged() {
+    InMemoryRateLimitStore store = new InMemoryRateLimitStore(2, now::get);
+    store.tryConsume("a", 1, REFILL_PER_SECOND);
+    store.tryConsume("b", 1, REFILL_PER_SECOND);
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(store.tryConsume("new" + i, 1, REFILL_PER_SECOND)).isPositive();
+    }
+    assertThat(store.size()).isEqualTo(2);
+  }
+
+  @Test
+  void tryConsume_purgesFullBuckets_whenFull() {
+    InMemoryRateLimitStore store = new InMemoryRateLimitStore(2, now::get);
+    store.tryConsume("a", 1, REFILL_PER_SECOND);
+    store.tryConsume("b", 1, REFILL_PER_SECOND);
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(InMemoryRateLimitStore.PURGE_INTERVAL_SECONDS));
+    assertThat(store.tryConsume("c", 1, REFILL_PER_SECOND)).isZero();
+    assertThat(store.size()).isEqualTo(1);
+  }
+
+  @Test
+  void tryConsume_scansAtMostOncePerPurgeInterval() {
+    InMemoryRateLimitStore store = new InMemoryRateLimitStore(1, now::get);
+    store.tryConsume("a", 1, REFILL_PER_SECOND);
+    assertThat(store.tryConsume("b", 1, REFILL_PER_SECOND)).isPositive();
+
+    // "a" is full again, but the scan does not run again until the interval has passed.
+    now.addAndGet(INTERVAL);
+    assertThat(store.tryConsume("b", 1, REFILL_PER_SECOND)).isPositive();
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(InMemoryRateLimitStore.PURGE_INTERVAL_SECONDS));
+    assertThat(store.tryConsume("b", 1, REFILL_PER_SECOND)).isZero();
+  }
+
+  @Test
+  void constructor_rejectsNonPositiveMaxKeys() {
+    assertThatThrownBy(() -> new InMemoryRateLimitStore(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -20,7 +20,6 @@ import jakarta.persistence.PersistenceContext;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import jp.ecuacion.splib.core.container.DatetimeFormatParameters;
 import jp.ecuacion.splib.jpa.entity.SplibEntity;
 import jp.ecuacion.splib.web.form.SplibListForm;
@@ -73,7 +72,7 @@ public abstract class SplibSearchListJpaService<FST extends SplibSearchForm,
    */
   protected @Nullable LocalDate localDate(String date) {
     return (date == null || date.isEmpty()) ? null
-        : LocalDate.parse(date, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        : LocalDate.parse(date, DatetimeFormatParameters.formatterOf("yyyy-MM-dd"));
   }
 
   /**
@@ -81,7 +80,7 @@ public abstract class SplibSearchListJpaService<FST extends SplibSearchForm,
    */
   protected @Nullable YearMonth yearMonth(String yearMonth) {
     return (yearMonth == null || yearMonth.isEmpty()) ? null
-        : YearMonth.parse(yearMonth, DateTimeFormatter.ofPattern("yyyy-MM"));
+        : YearMonth.parse(yearMonth, DatetimeFormatParameters.formatterOf("yyyy-MM"));
   }
 
   /**
@@ -16,16 +16,21 @@
 
 package jp.ecuacion.splib.web.markdown.controller;
 
+import java.time.Instant;
 import java.util.Locale;
 import jp.ecuacion.lib.core.util.PropertiesFileUtil;
 import jp.ecuacion.splib.web.exception.RedirectToHomePageException;
 import jp.ecuacion.splib.web.markdown.service.MarkdownPageService;
+import jp.ecuacion.splib.web.markdown.service.MarkdownPageService.RenderedPage;
 import org.slf4j.event.Level;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.info.BuildProperties;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 /** Controller for Markdown-based pages. */
 @Controller
@@ -33,25 +38,54 @@ public class ShowMarkdownPageController {
 
   private final MarkdownPageService markdownPageService;
 
-  /** Constructor. */
-  public ShowMarkdownPageController(MarkdownPageService markdownPageService) {
+  /**
+   * The time the running templates and messages were built at, in milliseconds.
+   *
+   * <p>It's the build time from {@code META-INF/build-info.properties} when it exists,
+   *     or the time this controller was created otherwise.
+   *     The latter differs among instances behind a load balancer,
+   *     so generating the build info is recommended for them.</p>
+   */
+  private final long deployedAt;
+
+  /**
+   * Constructor.
+   *
+   * @param markdownPageService markdownPageService
+   * @param buildProperties the build info, which may not exist
+   */
+  public ShowMarkdownPageController(MarkdownPageService markdownPageService,
+      ObjectProvider<BuildProperties> buildProperties) {
     this.markdownPageService = markdownPageService;
+
+    BuildProperties build = buildProperties.getIfAvailable();
+    Instant builtAt = build == null ? null : build.getTime();
+    this.deployedAt = builtAt == null ? System.currentTimeMillis() : builtAt.toEpochMilli();
   }
 
   /**
    * Shows the Markdown page for the given page ID, in the requested language.
    *
+   * <p>The response carries a strong {@code ETag} and {@code Last-Modified}
+   * so that browsers and CDNs can revalidate it. The {@code ETag} is derived from the rendered
+   * Markdown, the locale of the content and the resolved display language, which are what the
+   * response varies with, and the build time, since the page template and the title message
+   * around the Markdown change only with a deployment.
+   * {@code Last-Modified} is never earlier than the build time for the same reason.</p>
+   *
    * @param id    the Markdown page identifier
    * @param lang  optional language tag (e.g. {@code "ja"}) overriding the resolved locale; when
    *              absent, the locale resolved by the configured {@code LocaleResolver} is used
    * @param model the Spring MVC model
-   * @return template name
+   * @param webRequest used to evaluate conditional request headers
+   * @return template name, or {@code null} when {@code 304 Not Modified} is returned
    * @throws RedirectToHomePageException if {@code id} is malformed, or no Markdown page is found
    *     for it, not even in the default language
    */
   @GetMapping("/public/showMarkdown/page")
   public String showMarkdownPage(
-      @RequestParam String id, @RequestParam(required = false) String lang, Model model) {
+      @RequestParam String id, @RequestParam(required = false) String lang, Model model,
+      WebRequest webRequest) {
 
     // Validate input string to prevent from attacks.
     if (!MarkdownPageService.ID_PATTERN.matcher(id).matches()) {
@@ -66,11 +100,17 @@ public class ShowMarkdownPageController {
     }
 
     Locale locale = lang != null ? Locale.forLanguageTag(lang) : LocaleContextHolder.getLocale();
-    String content = markdownPageService.renderMarkdownPage(locale, id)
+    RenderedPage page = markdownPageService.getRenderedPage(locale, id)
         .orElseThrow(() -> new RedirectToHomePageException(Level.INFO,
             "MARKDOWN_PAGE_NOT_FOUND_MSG", new String[] {locale + "/" + id}));
 
-    model.addAttribute("content", content);
+    String etag = "\"" + page.contentHash() + "-" + Long.toString(deployedAt, 36) + "-"
+        + locale.toLanguageTag() + "-" + LocaleContextHolder.getLocale().getLanguage() + "\"";
+    if (webRequest.checkNotModified(etag, Math.max(page.lastModified(), deployedAt))) {
+      return null;
+    }
+
+    model.addAttribute("content", page.html());
     model.addAttribute("currentMarkdownPageId", id);
 
     // "markdownPage.{id}.title" drives the page-base title area; when absent, the title area
@@ -25,19 +25,47 @@ import com.vladsch.flexmark.util.data.MutableDataSet;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import jp.ecuacion.lib.core.logging.DetailLogger;
+import jp.ecuacion.lib.core.util.PropertiesFileUtil;
+import jp.ecuacion.splib.web.controller.PropertiesCacheClearListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 
-/** Reads Markdown files from classpath and renders them as HTML. */
+/**
+ * Reads Markdown files from classpath and renders them as HTML.
+ *
+ * <p>Rendered pages are kept in memory keyed by the page id and the requested locale,
+ *     including the result that no page exists, so the classpath lookup and the rendering
+ *     happen only once per key. The cache is bounded both by the number of entries and by the
+ *     total length of the rendered HTML, and can be disabled with
+ *     {@code jp.ecuacion.splib.web.markdown.cache.enabled=false}.</p>
+ *
+ * <p>With {@code jp.ecuacion.splib.web.markdown.precompile.enabled=true}, all the
+ *     {@code markdown/**}{@code /*.md} files on the classpath are rendered at startup instead,
+ *     and pages are served from the resulting index. Neither the classpath lookup nor the
+ *     Markdown parser is used on requests, and a missing page is just a miss in the index.</p>
+ *
+ * <p>The cache is cleared when the properties cache is cleared from the ecuacion config page.</p>
+ */
 @Service
-public class MarkdownPageService {
+public class MarkdownPageService implements PropertiesCacheClearListener {
 
   /** Only alphanumerics, hyphens, and slashes are allowed in a Markdown page id. */
   public static final Pattern ID_PATTERN =
@@ -48,8 +76,48 @@ public class MarkdownPageService {
   private final Parser parser;
   private final HtmlRenderer renderer;
 
+  private final RenderedPageCache cache;
+
+  /**
+   * Keeps the pages rendered at startup, keyed by {@code id + suffix}
+   *     (like {@code docs/intro_ja}), or {@code null} when precompiling is disabled.
+   */
+  private final Map<String, RenderedPage> precompiledPages;
+
+  /**
+   * Holds a rendered Markdown page.
+   *
+   * @param html the rendered HTML
+   * @param resourcePath the classpath resource the page is rendered from
+   * @param lastModified the last modified time of the resource in milliseconds,
+   *     or {@code -1} if unknown
+   * @param contentHash the hex string of the hash of {@code html}, usable as an ETag value
+   */
+  public record RenderedPage(String html, String resourcePath, long lastModified,
+      String contentHash) {
+  }
+
   /** Initializes the Markdown parser with GFM-compatible extensions. */
   public MarkdownPageService() {
+    this(Boolean.parseBoolean(PropertiesFileUtil
+        .getApplicationOrElse("jp.ecuacion.splib.web.markdown.cache.enabled", "true"))
+            ? Integer.parseInt(PropertiesFileUtil.getApplicationOrElse(
+                "jp.ecuacion.splib.web.markdown.cache.max-entries", "1000"))
+            : 0,
+        Long.parseLong(PropertiesFileUtil.getApplicationOrElse(
+            "jp.ecuacion.splib.web.markdown.cache.max-total-chars", "16000000")),
+        Boolean.parseBoolean(PropertiesFileUtil
+            .getApplicationOrElse("jp.ecuacion.splib.web.markdown.precompile.enabled", "false")));
+  }
+
+  /**
+   * Constructs a new instance with the settings given directly.
+   *
+   * @param cacheMaxEntries the maximum number of cached pages, {@code 0} to disable the cache
+   * @param cacheMaxTotalChars the maximum total length of the cached HTML
+   * @param precompiles whether all the pages are rendered at startup
+   */
+  MarkdownPageService(int cacheMaxEntries, long cacheMaxTotalChars, boolean precompiles) {
     MutableDataSet options = new MutableDataSet();
     options.set(Parser.EXTENSIONS, Arrays.asList(
         TablesExtension.create(),
@@ -57,6 +125,49 @@ public class MarkdownPageService {
     ));
     parser = Parser.builder(options).build();
     renderer = HtmlRenderer.builder(options).build();
+
+    cache = new RenderedPageCache(cacheMaxEntries, cacheMaxTotalChars);
+    precompiledPages = precompiles ? precompile() : null;
+  }
+
+  /**
+   * Renders all the Markdown files under {@code markdown/} on the classpath.
+   *
+   * <p>When the same path exists in multiple classpath roots, the first one is used,
+   *     which is the same one {@code ClassLoader#getResource} returns.</p>
+   */
+  private Map<String, RenderedPage> precompile() {
+    long start = System.currentTimeMillis();
+    Map<String, RenderedPage> map = new HashMap<>();
+
+    try {
+      PathMatchingResourcePatternResolver resolver =
+          new PathMatchingResourcePatternResolver(getClass().getClassLoader());
+      for (Resource root : resolver.getResources("classpath*:markdown/")) {
+        String rootUrl = root.getURL().toString();
+        for (Resource resource : resolver.getResources(rootUrl + "**/*.md")) {
+          String relativePath = resource.getURL().toString().substring(rootUrl.length());
+          String key = relativePath.substring(0, relativePath.length() - ".md".length());
+
+          // The suffix starts with the first "_" in the file name. The rest is the id.
+          int slash = key.lastIndexOf('/');
+          int underscore = key.indexOf('_', slash + 1);
+          String id = underscore < 0 ? key : key.substring(0, underscore);
+          if (!ID_PATTERN.matcher(id).matches() || map.containsKey(key)) {
+            continue;
+          }
+
+          map.put(key, render("markdown/" + relativePath, resource.getURL()));
+        }
+      }
+
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to precompile Markdown pages.", ex);
+    }
+
+    detailLog.info("Precompiled " + map.size() + " Markdown pages in "
+        + (System.currentTimeMillis() - start) + " ms.");
+    return Map.copyOf(map);
   }
 
   /**
@@ -81,29 +192,100 @@ public class MarkdownPageService {
    * @throws UncheckedIOException if a matching Markdown file exists but cannot be read
    */
   public Optional<String> renderMarkdownPage(Locale locale, String id) {
+    return getRenderedPage(locale, id).map(RenderedPage::html);
+  }
+
+  /**
+   * Returns the rendered page with its metadata used for HTTP revalidation.
+   *
+   * <p>The resolution of the Markdown file is the same as
+   *     {@link #renderMarkdownPage(Locale, String)}.</p>
+   *
+   * @param locale the requested locale
+   * @param id     the Markdown page identifier
+   * @return the rendered page, or {@link Optional#empty()} if no file is found for {@code id},
+   *     not even the root page
+   * @throws UncheckedIOException if a matching Markdown file exists but cannot be read
+   */
+  public Optional<RenderedPage> getRenderedPage(Locale locale, String id) {
     List<String> suffixes = candidateSuffixes(locale);
+
+    if (precompiledPages != null) {
+      for (String suffix : suffixes) {
+        RenderedPage page = precompiledPages.get(id + suffix);
+        if (page != null) {
+          return Optional.of(page);
+        }
+      }
+
+      return Optional.empty();
+    }
+
+    // id never contains "_" (see ID_PATTERN), so the key is unique for each (id, locale).
+    return cache.get(id + suffixes.get(0), key -> loadAndRender(locale, id, suffixes));
+  }
+
+  /**
+   * Removes all the rendered pages from the cache.
+   */
+  public void clearCache() {
+    cache.clear();
+  }
+
+  @Override
+  public void onPropertiesCacheCleared() {
+    clearCache();
+  }
+
+  private Optional<RenderedPage> loadAndRender(Locale locale, String id, List<String> suffixes) {
     for (int i = 0; i < suffixes.size(); i++) {
       String resourcePath = "markdown/" + id + suffixes.get(i) + ".md";
-      try (InputStream is = getClass().getClassLoader().getResourceAsStream(resourcePath)) {
-        if (is == null) {
-          continue;
-        }
-        if (i > 0) {
-          detailLog.debug("Markdown page locale fallback: requested locale '" + locale
-              + "' has no '" + suffixes.get(0) + "' variant for id '" + id
-              + "'; using '" + resourcePath + "' instead.");
-        }
-        String markdown = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-        Node document = parser.parse(markdown);
-        return Optional.of(renderer.render(document));
-      } catch (IOException ex) {
-        throw new UncheckedIOException("Failed to read Markdown page: " + resourcePath, ex);
+      URL url = getClass().getClassLoader().getResource(resourcePath);
+      if (url == null) {
+        continue;
+      }
+      if (i > 0) {
+        detailLog.debug("Markdown page locale fallback: requested locale '" + locale
+            + "' has no '" + suffixes.get(0) + "' variant for id '" + id
+            + "'; using '" + resourcePath + "' instead.");
       }
+
+      return Optional.of(render(resourcePath, url));
     }
 
     return Optional.empty();
   }
 
+  private RenderedPage render(String resourcePath, URL url) {
+    try {
+      URLConnection connection = url.openConnection();
+      long lastModified = connection.getLastModified();
+      String markdown;
+      try (InputStream is = connection.getInputStream()) {
+        markdown = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+      }
+
+      Node document = parser.parse(markdown);
+      String html = renderer.render(document);
+      return new RenderedPage(html, resourcePath, lastModified > 0 ? lastModified : -1,
+          hash(html));
+
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to read Markdown page: " + resourcePath, ex);
+    }
+  }
+
+  private static String hash(String html) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(html.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest, 0, 16);
+
+    } catch (NoSuchAlgorithmException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
   /**
    * Builds the candidate filename suffixes for {@code locale}, most specific first and ending
    * with {@code ""} for the root/default page, mirroring
@@ -127,4 +309,72 @@ public class MarkdownPageService {
     suffixes.add("");
     return suffixes;
   }
+
+  /**
+   * Keeps rendered pages in LRU order, bounded by the number of entries
+   *     and by the total length of the rendered HTML.
+   *
+   * <p>{@code Optional.empty()} is also stored so that a missing page is not searched again.
+   *     {@code maxEntries == 0} disables the cache.</p>
+   */
+  private static class RenderedPageCache {
+
+    private final int maxEntries;
+    private final long maxTotalChars;
+
+    private final LinkedHashMap<String, Optional<RenderedPage>> map =
+        new LinkedHashMap<>(16, 0.75f, true);
+    private long totalChars = 0;
+
+    RenderedPageCache(int maxEntries, long maxTotalChars) {
+      this.maxEntries = maxEntries;
+      this.maxTotalChars = maxTotalChars;
+    }
+
+    /**
+     * Returns the cached page, or the one {@code loader} returns after storing it.
+     *
+     * <p>{@code loader} is called outside the lock,
+     *     so the same page may be rendered more than once when requested at the same time.</p>
+     */
+    Optional<RenderedPage> get(String key, Function<String, Optional<RenderedPage>> loader) {
+      synchronized (this) {
+        if (map.containsKey(key)) {
+          return map.get(key);
+        }
+      }
+
+      Optional<RenderedPage> page = loader.apply(key);
+      put(key, page);
+      return page;
+    }
+
+    private synchronized void put(String key, Optional<RenderedPage> page) {
+      if (maxEntries <= 0 || weight(page) > maxTotalChars) {
+        return;
+      }
+
+      Optional<RenderedPage> old = map.put(key, page);
+      if (old != null) {
+        totalChars -= weight(old);
+      }
+      totalChars += weight(page);
+
+      var it = map.entrySet().iterator();
+      while ((map.size() > maxEntries || totalChars > maxTotalChars) && it.hasNext()) {
+        Map.Entry<String, Optional<RenderedPage>> eldest = it.next();
+        totalChars -= weight(eldest.getValue());
+        it.remove();
+      }
+    }
+
+    synchronized void clear() {
+      map.clear();
+      totalChars = 0;
+    }
+
+    private static long weight(Optional<RenderedPage> page) {
+      return page.map(p -> (long) p.html().length()).orElse(0L);
+    }
+  }
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.markdown.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Properties;
+import jp.ecuacion.splib.web.markdown.service.MarkdownPageService;
+import jp.ecuacion.splib.web.markdown.service.MarkdownPageService.RenderedPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Unit tests for {@link ShowMarkdownPageController}.
+ */
+class ShowMarkdownPageControllerTest {
+
+  private static final String ID = "splib-test/page";
+
+  private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+  private static final long BUILT_AT = 1_600_000_000_000L;
+
+  private MarkdownPageService service;
+
+  private ShowMarkdownPageController controller;
+
+  @BeforeEach
+  void setUp() {
+    service = mock(MarkdownPageService.class);
+    when(service.getRenderedPage(any(Locale.class), eq(ID)))
+        .thenAnswer(inv -> Optional.of(new RenderedPage("<p>page</p>", "markdown/" + ID + ".md",
+            LAST_MODIFIED, "0123456789abcdef0123456789abcdef")));
+    controller = new ShowMarkdownPageController(service, buildPropertiesOf(BUILT_AT));
+    LocaleContextHolder.setLocale(Locale.ENGLISH);
+  }
+
+  private static ObjectProvider<BuildProperties> buildPropertiesOf(long builtAt) {
+    Properties properties = new Properties();
+    properties.setProperty("time", Instant.ofEpochMilli(builtAt).toString());
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("buildProperties", new BuildProperties(properties));
+    return beanFactory.getBeanProvider(BuildProperties.class);
+  }
+
+  @AfterEach
+  void tearDown() {
+    LocaleContextHolder.resetLocaleContext();
+  }
+
+  private String etagOf(MockHttpServletRequest request) {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    controller.showMarkdownPage(ID, null, new ExtendedModelMap(),
+        new ServletWebRequest(request, response));
+    return response.getHeader("ETag");
+  }
+
+  @Test
+  void showMarkdownPage_returnsPageWithEtagAndLastModified() {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    ExtendedModelMap model = new ExtendedModelMap();
+
+    String view = controller.showMarkdownPage(ID, null, model,
+        new ServletWebRequest(new MockHttpServletRequest("GET", "/"), response));
+
+    assertThat(view).isEqualTo("page-markdown");
+    assertThat(model.get("content")).isEqualTo("<p>page</p>");
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.getHeader("ETag"))
+        .isEqualTo("\"0123456789abcdef0123456789abcdef-" + Long.toString(BUILT_AT, 36)
+            + "-en-en\"");
+    assertThat(response.getDateHeader("Last-Modified")).isEqualTo(LAST_MODIFIED);
+  }
+
+  @Test
+  void showMarkdownPage_returnsNotModified_whenEtagMatches() {
+    String etag = etagOf(new MockHttpServletRequest("GET", "/"));
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader("If-None-Match", etag);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    ExtendedModelMap model = new ExtendedModelMap();
+
+    String view = controller.showMarkdownPage(ID, null, model,
+        new ServletWebRequest(request, response));
+
+    assertThat(view).isNull();
+    assertThat(response.getStatus()).isEqualTo(304);
+    assertThat(model).doesNotContainKey("content");
+  }
+
+  @Test
+  void showMarkdownPage_returnsPage_whenEtagDoesNotMatch() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader("If-None-Match", "\"other\"");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    String view = controller.showMarkdownPage(ID, null, new ExtendedModelMap(),
+        new ServletWebRequest(request, response));
+
+    assertThat(view).isEqualTo("page-markdown");
+    assertThat(response.getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  void showMarkdownPage_changesEtag_withRequestedLanguage() {
+    String etag = etagOf(new MockHttpServletRequest("GET", "/"));
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    controller.showMarkdownPage(ID, "ja", new ExtendedModelMap(),
+        new ServletWebRequest(new MockHttpServletRequest("GET", "/"), response));
+
+    assertThat(response.getHeader("ETag")).isNotEqualTo(etag).contains("-ja-en");
+  }
+
+  @Test
+  void showMarkdownPage_changesEtag_withBuildTime() {
+    String etag = etagOf(new MockHttpServletRequest("GET", "/"));
+
+    controller = new ShowMarkdownPageController(service, buildPropertiesOf(BUILT_AT + 1000));
+
+    assertThat(etagOf(new MockHttpServletRequest("GET", "/"))).isNotEqualTo(etag);
+  }
+
+  @Test
+  void showMarkdownPage_usesBuildTime_asLastModified_whenLater() {
+    controller = new ShowMarkdownPageController(service,
+        buildPropertiesOf(LAST_MODIFIED + 60_000));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    controller.showMarkdownPage(ID, null, new ExtendedModelMap(),
+        new ServletWebRequest(new MockHttpServletRequest("GET", "/"), response));
+
+    assertThat(response.getDateHeader("Last-Modified")).isEqualTo(LAST_MODIFIED + 60_000);
+  }
+
+  @Test
+  void showMarkdownPage_usesCreationTime_withoutBuildInfo() {
+    long before = System.currentTimeMillis();
+    controller = new ShowMarkdownPageController(service,
+        new StaticListableBeanFactory().getBeanProvider(BuildProperties.class));
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    controller.showMarkdownPage(ID, null, new ExtendedModelMap(),
+        new ServletWebRequest(new MockHttpServletRequest("GET", "/"), response));
+
+    assertThat(response.getDateHeader("Last-Modified"))
+        .isGreaterThanOrEqualTo(before / 1000 * 1000);
+  }
+}
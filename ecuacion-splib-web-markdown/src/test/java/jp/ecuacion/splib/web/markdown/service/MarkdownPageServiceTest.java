@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.markdown.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.Locale;
+import jp.ecuacion.splib.web.markdown.service.MarkdownPageService.RenderedPage;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link MarkdownPageService}.
+ */
+class MarkdownPageServiceTest {
+
+  private static final String ID = "splib-test/page";
+
+  @Test
+  void getRenderedPage_rendersLocalizedPage() {
+    MarkdownPageService service = new MarkdownPageService(10, 1_000_000, false);
+
+    RenderedPage page = service.getRenderedPage(Locale.JAPAN, ID).orElseThrow();
+
+    assertThat(page.resourcePath()).isEqualTo("markdown/splib-test/page_ja.md");
+    assertThat(page.html()).contains("<h1>テストページ</h1>");
+  }
+
+  @Test
+  void getRenderedPage_fallsBackToRootPage() {
+    MarkdownPageService service = new MarkdownPageService(10, 1_000_000, false);
+
+    RenderedPage page = service.getRenderedPage(Locale.FRENCH, ID).orElseThrow();
+
+    assertThat(page.resourcePath()).isEqualTo("markdown/splib-test/page.md");
+    assertThat(page.html()).contains("<em>default</em>");
+  }
+
+  @Test
+  void getRenderedPage_returnsEmpty_whenNoPageExists() {
+    MarkdownPageService service = new MarkdownPageService(10, 1_000_000, false);
+
+    assertThat(service.getRenderedPage(Locale.ENGLISH, "splib-test/none")).isEmpty();
+    // The cached miss is returned as empty as well.
+    assertThat(service.getRenderedPage(Locale.ENGLISH, "splib-test/none")).isEmpty();
+  }
+
+  @Test
+  void getRenderedPage_returnsCachedPage_untilCacheIsCleared() {
+    MarkdownPageService service = new MarkdownPageService(10, 1_000_000, false);
+
+    RenderedPage page = service.getRenderedPage(Locale.ENGLISH, ID).orElseThrow();
+    assertThat(service.getRenderedPage(Locale.ENGLISH, ID).orElseThrow()).isSameAs(page);
+
+    service.onPropertiesCacheCleared();
+    RenderedPage reloaded = service.getRenderedPage(Locale.ENGLISH, ID).orElseThrow();
+    assertThat(reloaded).isNotSameAs(page).isEqualTo(page);
+  }
+
+  @Test
+  void getRenderedPage_rendersEveryTime_whenCacheIsDisabled() {
+    MarkdownPageService service = new MarkdownPageService(0, 1_000_000, false);
+
+    RenderedPage page = service.getRenderedPage(Locale.ENGLISH, ID).orElseThrow();
+    assertThat(service.getRenderedPage(Locale.ENGLISH, ID).orElseThrow()).isNotSameAs(page);
+  }
+
+  @Test
+  void getRenderedPage_doesNotCachePagesOverTotalChars() {
+    MarkdownPageService service = new MarkdownPageService(10, 10, false);
+
+    RenderedPage page = service.getRenderedPage(Locale.ENGLISH, ID).orElseThrow();
+    assertThat(service.getRenderedPage(Locale.ENGLISH, ID).orElseThrow()).isNotSameAs(page);
+  }
+
+  @Test
+  void getRenderedPage_servesPrecompiledPages() {
+    MarkdownPageService service = new MarkdownPageService(0, 1_000_000, true);
+
+    RenderedPage page = service.getRenderedPage(Locale.JAPAN, ID).orElseThrow();
+    assertThat(page.resourcePath()).isEqualTo("markdown/splib-test/page_ja.md");
+    assertThat(service.getRenderedPage(Locale.JAPAN, ID).orElseThrow()).isSameAs(page);
+    assertThat(service.getRenderedPage(Locale.ENGLISH, "splib-test/none")).isEmpty();
+  }
+
+  @Test
+  void contentHash_dependsOnlyOnHtml() {
+    MarkdownPageService service = new MarkdownPageService(0, 1_000_000, false);
+
+    String hash = service.getRenderedPage(Locale.ENGLISH, ID).orElseThrow().contentHash();
+
+    assertThat(service.getRenderedPage(Locale.ENGLISH, ID).orElseThrow().contentHash())
+        .isEqualTo(hash).hasSize(32);
+    assertThat(service.getRenderedPage(Locale.JAPAN, ID).orElseThrow().contentHash())
+        .isNotEqualTo(hash);
+  }
+}
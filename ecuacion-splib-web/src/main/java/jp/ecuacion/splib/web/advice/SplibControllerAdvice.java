@@ -22,6 +22,7 @@ import java.util.Map;
 import jp.ecuacion.splib.web.constant.SplibWebConstants;
 import jp.ecuacion.splib.web.form.SplibGeneralForm;
 import jp.ecuacion.splib.web.util.SplibLoginStateUtil;
+import jp.ecuacion.splib.web.util.SplibSavedModelUtil;
 import jp.ecuacion.splib.web.util.internal.TransactionTokenUtil;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -104,9 +105,8 @@ public class SplibControllerAdvice {
 
     // Flash attributes saved before the redirect are already merged into the model by Spring.
     // If KEY_SAVED_MODEL is present, restore the model attributes saved before the redirect.
-    @SuppressWarnings("unchecked")
-    Map<String, Object> savedModel =
-        (Map<String, Object>) model.getAttribute(SplibWebConstants.KEY_SAVED_MODEL);
+    Map<String, Object> savedModel = SplibSavedModelUtil
+        .restore(model.getAttribute(SplibWebConstants.KEY_SAVED_MODEL));
 
     if (savedModel != null) {
       model.addAllAttributes(savedModel);
@@ -116,8 +116,8 @@ public class SplibControllerAdvice {
           .filter(SplibGeneralForm.class::isInstance)
           .map(SplibGeneralForm.class::cast)
           .forEach(SplibGeneralForm::noValidate);
-
-      model.asMap().remove(SplibWebConstants.KEY_SAVED_MODEL);
     }
+
+    model.asMap().remove(SplibWebConstants.KEY_SAVED_MODEL);
   }
 }
@@ -22,7 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
-import jp.ecuacion.lib.core.util.StringUtil;
+import jp.ecuacion.splib.core.util.internal.BoundedCache;
 import jp.ecuacion.splib.web.controller.SplibGeneralController;
 import jp.ecuacion.splib.web.util.SplibLoginStateUtil;
 import jp.ecuacion.splib.web.util.internal.TransactionTokenUtil;
@@ -48,9 +48,17 @@ import org.jspecify.annotations.Nullable;
  *
  * <p>Saving the model into flash attributes for the redirect target is handled by
  * {@code SplibSavedModelUtil#saveToFlash}, not by this class.</p>
+ *
+ * <p>Since it's built on every redirect, the URL is written into a single
+ * {@code StringBuilder} only when {@link #getUrl()} is called,
+ * using the path prefix precomputed in {@code ControllerContext}.
+ * Parameters registered to the controller by {@code addParamToParamListOnRedirect}
+ * are encoded only once per JVM.</p>
  */
 public class ReturnUrlBuilder {
 
+  private static final String PARAM_FORWARD = "forward";
+
   /*
    * Is the protocol (redirect / forward) part of the URL.
    */
@@ -58,9 +66,34 @@ public class ReturnUrlBuilder {
 
   /*
    * Is the path part of the URL.
+   *
+   * It's used only for instances created via ofPath(). Paths of the other instances are built
+   * from the controller in getUrl().
    */
   private String path = "";
 
+  /**
+   * Keeps URL-encoded {@code key=value} strings of parameters whose keys and values are
+   *     fixed in the code (those registered to the controller for every redirect and the ones
+   *     added by this class), so they are encoded only once.
+   *
+   * <p>Values entered by users are not supposed to be put here, but {@code paramListOnRedirect}
+   *     can be changed by subclasses, so the number of parameters cached is limited.</p>
+   */
+  private static final BoundedCache<StaticParam, String> staticParamCache =
+      new BoundedCache<>(1000);
+
+  private record StaticParam(String key, String value) {
+  }
+
+  /**
+   * Holds the encoded {@code key=value} strings of the parameters in {@code paramMap}
+   *     that came from {@code staticParamCache}.
+   *
+   * <p>It's {@code null} until such a parameter is added.</p>
+   */
+  private @Nullable Map<String, String> encodedStaticParamMap;
+
   /**
    * Is the parameters part of the URL.
    *
@@ -105,7 +138,6 @@ public class ReturnUrlBuilder {
     this.loginState = Objects.requireNonNull(loginStateUtil).getLoginState();
     this.subFunction = Objects.requireNonNull(subFunction);
     this.page = Objects.requireNonNull(page);
-    this.path = buildPath(controller, Objects.requireNonNull(loginState), subFunction, page);
 
     putParamList(controller.getParamListOnRedirect());
   }
@@ -185,7 +217,7 @@ public class ReturnUrlBuilder {
   public ReturnUrlBuilder toSubFunction(String subFunction) {
     Objects.requireNonNull(subFunction);
     this.subFunction = subFunction;
-    rebuildPathFromController("toSubFunction");
+    checkCreatedFromController("toSubFunction");
     return this;
   }
 
@@ -198,18 +230,15 @@ public class ReturnUrlBuilder {
   public ReturnUrlBuilder toPage(String page) {
     Objects.requireNonNull(page);
     this.page = page;
-    rebuildPathFromController("toPage");
+    checkCreatedFromController("toPage");
     return this;
   }
 
-  private void rebuildPathFromController(String methodName) {
-    SplibGeneralController<?> ctrl = controller;
-    String state = loginState;
-    if (ctrl == null || state == null) {
+  private void checkCreatedFromController(String methodName) {
+    if (controller == null || loginState == null) {
       throw new IllegalStateException(
           methodName + "() is not applicable for instances created via ofPath().");
     }
-    this.path = buildPath(ctrl, state, subFunction, page);
   }
 
   /**
@@ -218,7 +247,12 @@ public class ReturnUrlBuilder {
    * @return URL string
    */
   public String getUrl() {
-    return getProtocol() + ":" + path + getParamsString();
+    StringBuilder sb = new StringBuilder(128).append(getProtocol()).append(':');
+    int pathStart = sb.length();
+    appendPath(sb);
+    appendParams(sb, sb.indexOf("?", pathStart) >= 0);
+
+    return sb.toString();
   }
 
   public boolean isForward() {
@@ -245,62 +279,107 @@ public class ReturnUrlBuilder {
   }
 
   /**
-   * Builds the path by concatenating the arguments.
+   * Appends the path to {@code sb}.
    */
-  private static String buildPath(SplibGeneralController<?> ctrl, String loginState,
-      String subFunction, String page) {
-    String functionKindPath = ctrl.getFunctionKinds().length == 0 ? ""
-        : (StringUtil.getSeparatedValuesString(ctrl.getFunctionKinds(), "/") + "/");
-    String subFuncPart = (subFunction.isEmpty() ? "" : "/" + subFunction);
+  private void appendPath(StringBuilder sb) {
+    SplibGeneralController<?> ctrl = controller;
+    String state = loginState;
+    if (ctrl == null || state == null) {
+      sb.append(path);
+      return;
+    }
+
+    sb.append('/').append(state).append('/').append(ctrl.getFunctionPath());
+    if (!subFunction.isEmpty()) {
+      sb.append('/').append(subFunction);
+    }
 
-    return "/" + loginState + "/" + functionKindPath + ctrl.getFunction() + subFuncPart + "/"
-        + page;
+    sb.append('/').append(page);
   }
 
   /**
-   * Constructs the parameter part of the URL from {@code paramMap} and returns it.
+   * Appends the parameter part of the URL constructed from {@code paramMap} to {@code sb}.
    *
-   * <p>This method does not mutate {@code paramMap}; it works on a local copy
+   * <p>This method does not mutate {@code paramMap},
    *     so that calling {@link #getUrl()} multiple times yields the same result
    *     and leaves the builder's state untouched.</p>
    *
    * <p>Keys and values are URL-encoded with UTF-8.</p>
    *
-   * @return parameter part of the URL
+   * @param sb StringBuilder
+   * @param pathContainsQuestion whether the path already contains "?"
    */
-  private String getParamsString() {
-    Map<String, String[]> effectiveParams = new LinkedHashMap<>(paramMap);
+  private void appendParams(StringBuilder sb, boolean pathContainsQuestion) {
+    boolean is1st = true;
+    for (Entry<String, String[]> entry : paramMap.entrySet()) {
+      String key = entry.getKey();
 
-    // When adding request parameters to ReturnUrlBuilder in bulk, the transactionToken may be
-    // included, but redirecting with it would cause a check error,
-    // so remove transactionToken from params.
-    effectiveParams.remove(TransactionTokenUtil.SESSION_KEY_TRANSACTION_TOKEN);
+      // When adding request parameters to ReturnUrlBuilder in bulk, the transactionToken may be
+      // included, but redirecting with it would cause a check error,
+      // so remove transactionToken from params.
+      if (key.equals(TransactionTokenUtil.SESSION_KEY_TRANSACTION_TOKEN)) {
+        continue;
+      }
+
+      // If forwarding, "forward=true" replaces the value of the same key at the same position.
+      if (isForward && key.equals(PARAM_FORWARD)) {
+        is1st = appendSeparator(sb, is1st, pathContainsQuestion);
+        sb.append(encodedStaticParam(PARAM_FORWARD, "true"));
+        continue;
+      }
+
+      String encodedStaticParam =
+          encodedStaticParamMap == null ? null : encodedStaticParamMap.get(key);
+      if (encodedStaticParam != null) {
+        is1st = appendSeparator(sb, is1st, pathContainsQuestion);
+        sb.append(encodedStaticParam);
+        continue;
+      }
+
+      for (String value : entry.getValue()) {
+        is1st = appendSeparator(sb, is1st, pathContainsQuestion);
+        sb.append(encode(key)).append('=').append(encode(value));
+      }
+    }
 
     // If forwarding, add a parameter to indicate that
     // (consumed by SplibGeneralController#transactionTokenCheck to skip the check).
-    if (isForward) {
-      effectiveParams.put("forward", new String[] {"true"});
+    if (isForward && !paramMap.containsKey(PARAM_FORWARD)) {
+      appendSeparator(sb, is1st, pathContainsQuestion);
+      sb.append(encodedStaticParam(PARAM_FORWARD, "true"));
     }
+  }
 
-    boolean is1st = true;
-    StringBuilder sb = new StringBuilder();
-    for (Entry<String, String[]> entry : effectiveParams.entrySet()) {
-      for (String value : entry.getValue()) {
-        if (is1st) {
-          is1st = false;
-          sb.append(path.contains("?") ? "&" : "?");
+  private static boolean appendSeparator(StringBuilder sb, boolean is1st,
+      boolean pathContainsQuestion) {
+    sb.append(is1st ? (pathContainsQuestion ? '&' : '?') : '&');
+    return false;
+  }
 
-        } else {
-          sb.append("&");
-        }
+  /**
+   * Returns URL-encoded {@code key=value} from {@code staticParamCache}.
+   */
+  private static String encodedStaticParam(String key, String value) {
+    return staticParamCache.get(new StaticParam(key, value),
+        p -> encode(p.key()) + "=" + encode(p.value()));
+  }
 
-        sb.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8))
-            .append("=")
-            .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+  /**
+   * URL-encodes {@code str} with UTF-8.
+   *
+   * <p>Strings consisting only of characters {@code URLEncoder} leaves as they are
+   *     are returned without encoding.</p>
+   */
+  private static String encode(String str) {
+    for (int i = 0; i < str.length(); i++) {
+      char ch = str.charAt(i);
+      if (!((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')
+          || ch == '.' || ch == '-' || ch == '*' || ch == '_')) {
+        return URLEncoder.encode(str, StandardCharsets.UTF_8);
       }
     }
 
-    return sb.toString();
+    return str;
   }
 
   /**
@@ -318,6 +397,7 @@ public class ReturnUrlBuilder {
   public ReturnUrlBuilder putParam(String key, @Nullable String value) {
     Objects.requireNonNull(key);
     paramMap.put(key, value == null ? new String[] {""} : new String[] {value});
+    removeEncodedStaticParam(key);
 
     return this;
   }
@@ -335,6 +415,7 @@ public class ReturnUrlBuilder {
   public ReturnUrlBuilder putParam(String key, @Nullable String[] values) {
     Objects.requireNonNull(key);
     paramMap.put(key, values == null ? new String[] {""} : values.clone());
+    removeEncodedStaticParam(key);
 
     return this;
   }
@@ -354,6 +435,7 @@ public class ReturnUrlBuilder {
     Objects.requireNonNull(paramMap);
     for (Entry<String, String[]> entry : paramMap.entrySet()) {
       this.paramMap.put(entry.getKey(), entry.getValue().clone());
+      removeEncodedStaticParam(entry.getKey());
     }
 
     return this;
@@ -361,10 +443,27 @@ public class ReturnUrlBuilder {
 
   private void putParamList(List<String[]> keyValueList) {
     for (String[] keyValue : keyValueList) {
-      putParam(keyValue[0], keyValue[1]);
+      putStaticParam(keyValue[0], keyValue[1]);
     }
   }
 
+  /**
+   * Adds a parameter whose key and value are fixed in the code.
+   */
+  private void putStaticParam(String key, String value) {
+    paramMap.put(key, new String[] {value});
+    if (encodedStaticParamMap == null) {
+      encodedStaticParamMap = new LinkedHashMap<>();
+    }
+
+    encodedStaticParamMap.put(key, encodedStaticParam(key, value));
+  }
+
+  private void removeEncodedStaticParam(String key) {
+    if (encodedStaticParamMap != null) {
+      encodedStaticParamMap.remove(key);
+    }
+  }
 
   /**
    * Removes the argument key from {@code paramMap}.
@@ -374,6 +473,7 @@ public class ReturnUrlBuilder {
    */
   public ReturnUrlBuilder removeParam(String key) {
     paramMap.remove(key);
+    removeEncodedStaticParam(key);
     return this;
   }
 
@@ -383,7 +483,7 @@ public class ReturnUrlBuilder {
    * @return ReturnUrlBuilder (for method chain)
    */
   public ReturnUrlBuilder showSuccessMessage() {
-    putParam("success", new String[] {""});
+    putStaticParam("success", "");
     return this;
   }
 }
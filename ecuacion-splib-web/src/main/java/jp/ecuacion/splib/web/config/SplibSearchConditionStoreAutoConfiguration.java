@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jp.ecuacion.lib.core.util.PropertiesFileUtil;
+import jp.ecuacion.splib.web.searchcondition.InMemorySearchConditionStore;
+import jp.ecuacion.splib.web.searchcondition.SearchConditionStore;
+import jp.ecuacion.splib.web.searchcondition.SessionSearchConditionStore;
+import jp.ecuacion.splib.web.searchcondition.UrlEncodedSearchConditionStore;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configures the {@link SearchConditionStore} used by {@code SplibSearchListController}
+ *     when the app does not provide one.
+ *
+ * <p>The implementation is selected by {@value #PROP_STORE}:</p>
+ * <ul>
+ *   <li>{@code session} (default): {@link SessionSearchConditionStore}</li>
+ *   <li>{@code url-encoded}: {@link UrlEncodedSearchConditionStore}</li>
+ *   <li>{@code in-memory}: {@link InMemorySearchConditionStore}</li>
+ * </ul>
+ */
+@AutoConfiguration
+public class SplibSearchConditionStoreAutoConfiguration {
+
+  static final String PROP_STORE = "jp.ecuacion.splib.web.search-condition.store";
+
+  /**
+   * Provides {@link SessionSearchConditionStore}.
+   *
+   * @param request request
+   * @return SearchConditionStore
+   */
+  @Bean
+  @ConditionalOnMissingBean(SearchConditionStore.class)
+  @ConditionalOnProperty(name = PROP_STORE, havingValue = "session", matchIfMissing = true)
+  SearchConditionStore sessionSearchConditionStore(HttpServletRequest request) {
+    return new SessionSearchConditionStore(request);
+  }
+
+  /**
+   * Provides {@link UrlEncodedSearchConditionStore}.
+   *
+   * @param request request
+   * @param response response
+   * @return SearchConditionStore
+   */
+  @Bean
+  @ConditionalOnMissingBean(SearchConditionStore.class)
+  @ConditionalOnProperty(name = PROP_STORE, havingValue = "url-encoded")
+  SearchConditionStore urlEncodedSearchConditionStore(HttpServletRequest request,
+      HttpServletResponse response) {
+    return new UrlEncodedSearchConditionStore(request, response);
+  }
+
+  /**
+   * Provides {@link InMemorySearchConditionStore}.
+   *
+   * @param request request
+   * @return SearchConditionStore
+   */
+  @Bean
+  @ConditionalOnMissingBean(SearchConditionStore.class)
+  @ConditionalOnProperty(name = PROP_STORE, havingValue = "in-memory")
+  SearchConditionStore inMemorySearchConditionStore(HttpServletRequest request) {
+    int maxUsers = Integer.parseInt(PropertiesFileUtil
+        .getApplicationOrElse("jp.ecuacion.splib.web.search-condition.in-memory.max-users",
+            "10000"));
+    int maxEntriesPerUser = Integer.parseInt(PropertiesFileUtil.getApplicationOrElse(
+        "jp.ecuacion.splib.web.search-condition.in-memory.max-entries-per-user", "20"));
+    return new InMemorySearchConditionStore(request, maxUsers, maxEntriesPerUser);
+  }
+}
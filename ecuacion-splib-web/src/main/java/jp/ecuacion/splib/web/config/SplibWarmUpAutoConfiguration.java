@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.config;
+
+import jp.ecuacion.splib.web.util.internal.SplibWarmUpRunner;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Auto-configures {@link SplibWarmUpRunner}
+ *     when {@code jp.ecuacion.splib.web.warm-up.enabled} is {@code true}.
+ *
+ * <p>The warm-up runs before the readiness state becomes {@code ACCEPTING_TRAFFIC},
+ *     so it delays the startup by the time spent on it.</p>
+ */
+@AutoConfiguration
+@ConditionalOnProperty(name = "jp.ecuacion.splib.web.warm-up.enabled", havingValue = "true")
+public class SplibWarmUpAutoConfiguration {
+
+  /**
+   * Provides {@link SplibWarmUpRunner}.
+   *
+   * @param beanFactory beanFactory
+   * @param messageSource messageSource
+   * @param environment environment
+   * @return SplibWarmUpRunner
+   */
+  @Bean
+  SplibWarmUpRunner splibWarmUpRunner(BeanFactory beanFactory, MessageSource messageSource,
+      Environment environment) {
+    return new SplibWarmUpRunner(beanFactory, messageSource, environment);
+  }
+}
@@ -18,6 +18,8 @@ package jp.ecuacion.splib.web.config;
 import jakarta.servlet.SessionTrackingMode;
 import java.util.Collections;
 import jp.ecuacion.splib.web.interceptor.LoggingInterceptor;
+import jp.ecuacion.splib.web.interceptor.RequestTimingRecorder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -37,6 +39,17 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
     + ",jp.ecuacion.splib.web.util")
 public class SplibWebConfig implements WebMvcConfigurer {
 
+  private ObjectProvider<RequestTimingRecorder> timingRecorderProvider;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param timingRecorderProvider provides {@code RequestTimingRecorder} if it's configured
+   */
+  public SplibWebConfig(ObjectProvider<RequestTimingRecorder> timingRecorderProvider) {
+    this.timingRecorderProvider = timingRecorderProvider;
+  }
+
   // Sometimes ";" + jsessionId smuggles into urls, spring detects unknown character ";"
   // and it causes a system error.
   //
@@ -59,7 +72,7 @@ public class SplibWebConfig implements WebMvcConfigurer {
 
   @Bean
   LoggingInterceptor logInterceptor() {
-    return new LoggingInterceptor();
+    return new LoggingInterceptor(timingRecorderProvider.getIfAvailable());
   }
 
   @Override
@@ -22,6 +22,7 @@ import jp.ecuacion.lib.core.util.ObjectsUtil;
 import jp.ecuacion.splib.core.bean.AuthorizationBean;
 import jp.ecuacion.splib.web.oauth2.SplibAppleClientSecretService;
 import jp.ecuacion.splib.web.oauth2.SplibOauth2AuthSuccessHandler;
+import jp.ecuacion.splib.web.searchcondition.UrlEncodedSearchConditionStore;
 import org.jspecify.annotations.Nullable;
 import org.springframework.boot.security.autoconfigure.web.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
@@ -201,6 +202,8 @@ public abstract class SplibWebSecurityConfig {
 
     if (isLoginEnabled()) {
       http.logout(logout -> logout.logoutUrl("/public/logout")
+          .addLogoutHandler((request, response, authentication) ->
+              UrlEncodedSearchConditionStore.clearCookies(request, response))
           .logoutSuccessUrl("/public/login/page?logoutDone"));
     }
 
@@ -259,7 +262,7 @@ public abstract class SplibWebSecurityConfig {
           return new LinkedMultiValueMap<>();
         }
         MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-        params.add("client_secret", appleService.generateClientSecret());
+        params.add("client_secret", appleService.getClientSecret());
         return params;
       });
     }
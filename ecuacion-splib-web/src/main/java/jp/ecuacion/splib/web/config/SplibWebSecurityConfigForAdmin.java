@@ -19,6 +19,7 @@ package jp.ecuacion.splib.web.config;
 import java.util.ArrayList;
 import java.util.List;
 import jp.ecuacion.splib.core.bean.AuthorizationBean;
+import jp.ecuacion.splib.web.searchcondition.UrlEncodedSearchConditionStore;
 import org.springframework.boot.security.autoconfigure.web.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.annotation.Order;
@@ -122,6 +123,8 @@ public abstract class SplibWebSecurityConfigForAdmin {
     }
 
     http.logout(logout -> logout.logoutUrl("/public/adminLogout")
+        .addLogoutHandler((request, response, authentication) ->
+            UrlEncodedSearchConditionStore.clearCookies(request, response))
         .logoutSuccessUrl("/public/adminLogin/page?logoutDone"));
 
     http.exceptionHandling(handling -> handling.accessDeniedPage(getAccessDeniedPage()));
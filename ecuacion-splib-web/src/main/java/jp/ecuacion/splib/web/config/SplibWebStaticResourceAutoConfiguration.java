@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.servlet.autoconfigure.ConditionalOnMissingFilterBean;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+/**
+ * Serves the static resources of ecuacion-splib-web with content-hash versioned urls.
+ *
+ * <p>{@code @{/js/splib-web.js}} in templates is rewritten to
+ *     {@code /js/splib-web-<md5 of the content>.js} by {@code ResourceUrlEncodingFilter},
+ *     and the resources are served with {@code Cache-Control: max-age=31536000, public, immutable}
+ *     so browsers don't revalidate them until the content changes.
+ *     Requests without the version, like {@code /js/splib-web.js} written directly in an html,
+ *     get {@code Cache-Control: no-cache} instead, so they're revalidated
+ *     with {@code ETag} / {@code Last-Modified} and never stale after an upgrade.
+ *     The {@code .gz} (and {@code .br} if present) variant generated at build time
+ *     is served to browsers accepting it.</p>
+ *
+ * <p>Only {@code splib-web*} js and css (which includes {@code splib-web-markdown.css})
+ *     and splib images are handled here. Resources of the app are left to Spring Boot.
+ *     Set {@code jp.ecuacion.splib.web.static-resources.versioned.enabled} to {@code false}
+ *     to disable it.</p>
+ */
+@AutoConfiguration(
+    afterName = "org.springframework.boot.thymeleaf.autoconfigure.ThymeleafAutoConfiguration")
+@ConditionalOnProperty(name = "jp.ecuacion.splib.web.static-resources.versioned.enabled",
+    havingValue = "true", matchIfMissing = true)
+public class SplibWebStaticResourceAutoConfiguration implements WebMvcConfigurer {
+
+  private static final String[][] PATTERNS_AND_LOCATIONS = {
+      {"/js/splib-web*.js", "classpath:/static/js/"},
+      {"/css/splib-web*.css", "classpath:/static/css/"},
+      {"/images/speech-balloon-*.png", "classpath:/static/images/"}};
+
+  /**
+   * Constructs a new instance.
+   */
+  public SplibWebStaticResourceAutoConfiguration() {}
+
+  /*
+   * Cache-Control is not set to the resource handlers, which apply one value to all requests.
+   * It's set by VersionedCacheControlInterceptor, which runs before the handlers.
+   */
+  @Override
+  public void addResourceHandlers(ResourceHandlerRegistry registry) {
+    for (String[] patternAndLocation : PATTERNS_AND_LOCATIONS) {
+      registry.addResourceHandler(patternAndLocation[0])
+          .addResourceLocations(patternAndLocation[1])
+          .resourceChain(true).addResolver(new EncodedResourceResolver())
+          .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new VersionedCacheControlInterceptor()).addPathPatterns(
+        Arrays.stream(PATTERNS_AND_LOCATIONS).map(patternAndLocation -> patternAndLocation[0])
+            .toArray(String[]::new));
+  }
+
+  /**
+   * Provides {@code ResourceUrlEncodingFilter}, which rewrites urls built with {@code @{}}
+   *     to the versioned ones.
+   *
+   * <p>It's not provided when the app or Spring Boot
+   *     (with {@code spring.web.resources.chain.enabled}) already registers one,
+   *     since the urls would be encoded twice.</p>
+   *
+   * @return FilterRegistrationBean
+   */
+  @Bean
+  @ConditionalOnMissingFilterBean(ResourceUrlEncodingFilter.class)
+  FilterRegistrationBean<ResourceUrlEncodingFilter> splibResourceUrlEncodingFilter() {
+    return new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+  }
+
+  /**
+   * Sets {@code Cache-Control} by whether the request path has the content version
+   *     ({@code -<32 hex digits>} before the extension) added by {@code VersionResourceResolver}.
+   */
+  static class VersionedCacheControlInterceptor implements HandlerInterceptor {
+
+    private static final Pattern VERSIONED_PATH = Pattern.compile("-[0-9a-f]{32}\\.[^/.]+$");
+
+    private static final String VERSIONED_CACHE_CONTROL =
+        CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+
+    private static final String UNVERSIONED_CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+        Object handler) {
+      response.setHeader(HttpHeaders.CACHE_CONTROL,
+          VERSIONED_PATH.matcher(request.getRequestURI()).find() ? VERSIONED_CACHE_CONTROL
+              : UNVERSIONED_CACHE_CONTROL);
+      return true;
+    }
+  }
+}
@@ -47,4 +47,18 @@ public class SplibWebConstants {
   /** Flash attribute key used to carry FieldErrors across a redirect 
    * so they survive form re-binding. */
   public static final String KEY_FLASH_FIELD_ERRORS = "_splibFlashFieldErrors";
+
+  /**
+   * Model attribute key holding a boolean flag indicating only the search results are rendered.
+   */
+  public static final String KEY_PARTIAL_RESULTS = "splibPartialResults";
+
+  /** Request header which asks for the search results only. Its value is {@code true}. */
+  public static final String HEADER_PARTIAL_REQUEST = "HX-Request";
+
+  /** Response header which tells the response contains the search results only. */
+  public static final String HEADER_PARTIAL_RESULTS = "X-Splib-Partial-Results";
+
+  /** Response header which holds the URL of the page the search results belong to. */
+  public static final String HEADER_PAGE_URL = "X-Splib-Page-Url";
 }
@@ -16,11 +16,18 @@
 package jp.ecuacion.splib.web.controller;
 
 import jp.ecuacion.lib.core.util.PropertiesFileUtil;
+import jp.ecuacion.splib.core.util.SplibMessageCacheUtil;
 import jp.ecuacion.splib.web.controller.ConfigController.ConfigForm;
 import jp.ecuacion.splib.web.exception.RedirectToHomePageException;
 import jp.ecuacion.splib.web.form.SplibGeneralForm;
 import jp.ecuacion.splib.web.record.ConfigRecord;
 import jp.ecuacion.splib.web.service.SplibGeneral1FormDoNothingService;
+import jp.ecuacion.splib.web.util.SplibComponentUtil;
+import jp.ecuacion.splib.web.util.SplibSavedModelUtil;
+import jp.ecuacion.splib.web.util.SplibThemeColorUtil;
+import jp.ecuacion.splib.web.util.SplibThymeleafPropertiesUtil;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -43,6 +50,12 @@ public class ConfigController
    */
   static final String BASE_PATH = "/ecuacion/public/config";
 
+  @Autowired
+  private SplibThemeColorUtil themeColorUtil;
+
+  @Autowired
+  private ObjectProvider<PropertiesCacheClearListener> cacheClearListeners;
+
   /**
    * Constructs a new instance.
    */
@@ -54,6 +67,9 @@ public class ConfigController
    * Clears the cache of properties files read via {@code PropertiesFileUtil},
    * so that changes to application.properties can be picked up without restarting the app.
    *
+   * <p>{@link PropertiesCacheClearListener} beans are also called
+   *     to clear the caches in other modules.</p>
+   *
    * <p>Rejected unless {@code jp.ecuacion.splib.web.ecuacion-config-buttons.enabled}
    *     is set to {@code true} in application.properties.</p>
    *
@@ -64,6 +80,14 @@ public class ConfigController
     checkConfigButtonsEnabled();
 
     PropertiesFileUtil.clearCache();
+    SplibMessageCacheUtil.clear();
+    SplibThymeleafPropertiesUtil.clearCache();
+    SplibSavedModelUtil.clearSettings();
+    SplibComponentUtil.clearSettings();
+    SplibSearchListController.clearSettings();
+    themeColorUtil.rebuild();
+    cacheClearListeners.orderedStream()
+        .forEach(PropertiesCacheClearListener::onPropertiesCacheCleared);
 
     return "redirect:" + BASE_PATH + "/page?success";
   }
@@ -48,6 +48,16 @@ public class ControllerContext {
    */
   private String function = "";
 
+  /**
+   * See functionKindsPath().
+   */
+  private String functionKindsPath = "";
+
+  /**
+   * See functionPath().
+   */
+  private String functionPath = "";
+
   /**
    * See subFunction().
    */
@@ -73,6 +83,8 @@ public class ControllerContext {
    */
   public ControllerContext functionKinds(String... functionKinds) {
     this.functionKinds = functionKinds;
+    this.functionKindsPath = functionKinds.length == 0 ? "" : String.join("/", functionKinds) + "/";
+    this.functionPath = functionKindsPath + function;
     return this;
   }
 
@@ -94,6 +106,31 @@ public class ControllerContext {
     return functionKinds;
   }
 
+  /**
+   * Returns {@code functionKinds} joined with "/" and followed by "/",
+   *     or "" when {@code functionKinds} is empty.
+   *
+   * <p>It's built when {@code functionKinds} is set, so it costs nothing per request.</p>
+   *
+   * @return functionKindsPath
+   */
+  public String functionKindsPath() {
+    return functionKindsPath;
+  }
+
+  /**
+   * Returns {@code functionKindsPath() + function()},
+   *     which is the part of the URL path after the login state.
+   *
+   * <p>It's built when {@code functionKinds} or {@code function} is set,
+   *     so it costs nothing per request.</p>
+   *
+   * @return functionPath
+   */
+  public String functionPath() {
+    return functionPath;
+  }
+
   /**
    * Stores {@code function} and returns {@code ControllerContext}.
    *
@@ -104,6 +141,7 @@ public class ControllerContext {
    */
   public ControllerContext function(String function) {
     this.function = function == null ? "" : function;
+    this.functionPath = functionKindsPath + this.function;
     return this;
   }
 
@@ -0,0 +1,30 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.controller;
+
+/**
+ * Is notified when {@link ConfigController} clears the cache of properties files.
+ *
+ * <p>Beans of this type are called after the caches of the library are cleared,
+ *     so they can drop what they have built from the properties, like rendered pages.</p>
+ */
+public interface PropertiesCacheClearListener {
+
+  /**
+   * Clears the caches built from the properties.
+   */
+  void onPropertiesCacheCleared();
+}
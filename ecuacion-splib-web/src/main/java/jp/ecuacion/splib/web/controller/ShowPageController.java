@@ -16,16 +16,14 @@
 package jp.ecuacion.splib.web.controller;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.util.Arrays;
-import java.util.List;
-import jp.ecuacion.splib.web.constant.SplibWebConstants;
+import java.util.regex.Pattern;
 import jp.ecuacion.splib.web.exception.RedirectToHomePageException;
 import jp.ecuacion.splib.web.util.SplibLoginStateUtil;
+import jp.ecuacion.splib.web.util.internal.ShowPageIndex;
+import jp.ecuacion.splib.web.util.internal.ShowPageIndex.PageEntry;
 import org.slf4j.event.Level;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -62,6 +60,11 @@ public class ShowPageController extends SplibBaseController {
   @Autowired
   private SplibLoginStateUtil loginStateUtil;
 
+  @Autowired
+  private ShowPageIndex showPageIndex;
+
+  private static final Pattern PAGE_PATTERN = Pattern.compile("^[a-zA-Z0-9_\\-/]*$");
+
   /**
    * Shows the page designated by {@code id} parameter of the url.
    * 
@@ -74,56 +77,26 @@ public class ShowPageController extends SplibBaseController {
   public String page(Model model, @RequestParam("id") String page) throws IOException {
 
     // Validate input string to prevent from attacks.
-    String expression = "^[a-zA-Z0-9_\\-/]*$";
-    if (!page.matches(expression)) {
+    if (!PAGE_PATTERN.matcher(page).matches()) {
       // Redirected to default page because system error is stressful on development...
       throw new RedirectToHomePageException(Level.INFO,
           "jp.ecuacion.splib.web.common.message.htmlFileNameNotAllowed", new String[] {page});
     }
 
     // Check whether the page exists.
-    ClassPathResource resource = new ClassPathResource("templates/" + page + ".html");
-    if (!resource.exists()) {
+    PageEntry entry = showPageIndex.get(page);
+    if (entry == null) {
       throw new RedirectToHomePageException(Level.INFO,
           "jp.ecuacion.splib.web.common.message.htmlFileNotFound", new String[] {page});
     }
 
     // Check that the html tag has the "data-show-page-login-state" attribute
     // and that its value contains the current loginState.
-    htmlTagAttributeCheck(page, resource);
-
-    return page;
-  }
-
-  /*
-   * Checks that the html tag has the "data-show-page-login-state" attribute
-   * and that its value contains the current loginState.
-   * Adding a library just for this would unnecessarily increase the war size,
-   * so string operations are used instead.
-   */
-  private void htmlTagAttributeCheck(String page, ClassPathResource resource) throws IOException {
-    String html = resource.getContentAsString(Charset.defaultCharset());
-    String startTag = "<html";
-
-    // The second condition in the if is: when there are 2 or more html tags.
-    if (!html.contains(startTag) || html.replace(startTag, "").contains(startTag)) {
+    if (!entry.allows(loginStateUtil.getLoginState())) {
       throw new RedirectToHomePageException(Level.INFO,
           "jp.ecuacion.splib.web.common.message.htmlFileNotAllowedToOpen", new String[] {page});
     }
 
-    // Extract the html tag.
-    String htmlTag = html.substring(html.indexOf(startTag));
-    htmlTag = htmlTag.substring(0, htmlTag.indexOf(">") + 1);
-
-    // Split by newlines and spaces, and extract the "data-show-page-login-state" attribute.
-    List<String> list = Arrays.asList(htmlTag.replaceAll("\n", " ").split(" ")).stream()
-        .filter(str -> str.contains(SplibWebConstants.KEY_BASE_PAGE_LOGIN_STATE)).toList();
-
-    // Validate.
-    if (list.size() != 1 || !list.get(0).contains("=")
-        || !list.get(0).split("=", -1)[1].contains(loginStateUtil.getLoginState())) {
-      throw new RedirectToHomePageException(Level.INFO,
-          "jp.ecuacion.splib.web.common.message.htmlFileNotAllowedToOpen", new String[] {page});
-    }
+    return page;
   }
 }
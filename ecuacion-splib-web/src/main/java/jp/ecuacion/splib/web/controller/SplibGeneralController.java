@@ -20,7 +20,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import jp.ecuacion.lib.core.util.StringUtil;
 import jp.ecuacion.splib.web.bean.ReturnUrlBuilder;
 import jp.ecuacion.splib.web.constant.SplibWebConstants;
 import jp.ecuacion.splib.web.form.SplibGeneralForm;
@@ -34,6 +33,7 @@ import jp.ecuacion.splib.web.util.SplibSecurityUtil.RolesAndAuthoritiesBean;
 import jp.ecuacion.splib.web.util.internal.SplibControllerPrepareHelper;
 import org.apache.commons.lang3.StringUtils;
 import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -49,7 +49,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
  * @param <S> SplibGeneralService
  */
 public abstract class SplibGeneralController<S extends SplibGeneralService>
-    extends SplibBaseController {
+    extends SplibBaseController implements InitializingBean {
 
   @Autowired
   protected HttpServletResponse response;
@@ -114,6 +114,26 @@ public abstract class SplibGeneralController<S extends SplibGeneralService>
   @Autowired
   protected List<S> serviceList;
 
+  /**
+   * Holds the service selected from {@code serviceList}.
+   *
+   * <p>It's resolved once in {@link #afterPropertiesSet()},
+   *     so {@link #getService()} does not search {@code serviceList} on every request.</p>
+   */
+  @Nullable
+  private S service;
+
+  /**
+   * Resolves the service used by this controller after the injection.
+   *
+   * <p>An error in the number of matching services is detected here,
+   *     which means at startup.</p>
+   */
+  @Override
+  public void afterPropertiesSet() {
+    service = findService();
+  }
+
   /**
    * Returns a service instance.
    * 
@@ -122,6 +142,19 @@ public abstract class SplibGeneralController<S extends SplibGeneralService>
    * @return service
    */
   public S getService() {
+    S resolvedService = service;
+
+    // Resolve here for the case afterPropertiesSet() has not been called
+    // (e.g. it's overridden by a subclass).
+    if (resolvedService == null) {
+      resolvedService = findService();
+      service = resolvedService;
+    }
+
+    return resolvedService;
+  }
+
+  private S findService() {
 
     Class<?> cls = null;
     if (this instanceof SplibGeneral1FormController) {
@@ -139,7 +172,8 @@ public abstract class SplibGeneralController<S extends SplibGeneralService>
     List<S> list = serviceList.stream().filter(e -> cls2.isAssignableFrom(e.getClass())).toList();
 
     if (list.size() != 1) {
-      throw new RuntimeException("Injected service not 1.");
+      throw new RuntimeException("Injected service not 1. controller: " + getClass().getName()
+          + ", service type: " + cls.getName() + ", number of services: " + list.size());
     }
 
     return list.get(0);
@@ -179,6 +213,17 @@ public abstract class SplibGeneralController<S extends SplibGeneralService>
     return context.function();
   }
 
+  /**
+   * Returns {@code functionKinds} and {@code function} joined as a URL path.
+   *
+   * <p>See {@link ControllerContext#functionPath()}.</p>
+   *
+   * @return functionPath
+   */
+  public String getFunctionPath() {
+    return context.functionPath();
+  }
+
   public String getSubFunction() {
     return context.subFunction();
   }
@@ -255,8 +300,7 @@ public abstract class SplibGeneralController<S extends SplibGeneralService>
   @ModelAttribute
   private void setParamsToModel(Model model,
       @Nullable @AuthenticationPrincipal UserDetails loginUser) {
-    model.addAttribute("functionKindsPathString", context.functionKinds().length == 0 ? ""
-        : (StringUtil.getSeparatedValuesString(context.functionKinds(), "/") + "/"));
+    model.addAttribute("functionKindsPathString", context.functionKindsPath());
     model.addAttribute("function", context.function());
 
 
@@ -338,10 +382,8 @@ public abstract class SplibGeneralController<S extends SplibGeneralService>
    * @return html filename
    */
   public String getDefaultHtmlPageName() {
-    String functionKindPath = context.functionKinds().length == 0 ? ""
-        : StringUtil.getSeparatedValuesString(context.functionKinds(), "/") + "/";
     String postfix = context.htmlFilenamePostfix();
-    return functionKindPath + context.function()
+    return context.functionPath()
         + StringUtils.capitalize(postfix == null ? context.subFunction() : postfix);
   }
 
@@ -17,18 +17,23 @@ package jp.ecuacion.splib.web.controller;
 
 import java.util.ArrayList;
 import jp.ecuacion.lib.core.exception.ViolationException;
+import jp.ecuacion.lib.core.util.PropertiesFileUtil;
 import jp.ecuacion.splib.web.bean.ReturnUrlBuilder;
 import jp.ecuacion.splib.web.constant.SplibWebConstants;
 import jp.ecuacion.splib.web.form.SplibListForm;
 import jp.ecuacion.splib.web.form.SplibSearchForm;
+import jp.ecuacion.splib.web.searchcondition.SearchConditionStore;
 import jp.ecuacion.splib.web.service.SplibSearchListService;
 import jp.ecuacion.splib.web.util.SplibLoginStateUtil;
+import org.jspecify.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /**
@@ -59,8 +64,20 @@ public abstract class SplibSearchListController<FST extends SplibSearchForm,
   @Autowired
   private SplibLoginStateUtil loginStateUtil;
 
+  @Autowired
+  private SearchConditionStore searchConditionStore;
+
   private static final String KEY_ERROR_OCCURS_WHILE_SEARCHING = "errorWhileSearching";
 
+  /**
+   * Keeps {@code jp.ecuacion.splib.web.search-list.partial-results.enabled},
+   *     which is read at the first search and read again after {@link #clearSettings()}.
+   *
+   * <p>It's static since controllers are usually prototype-scoped.</p>
+   */
+  @Nullable
+  private static volatile Boolean partialResultsEnabled;
+
   /**
    * Construct a new instance with {@code function}.
    * 
@@ -134,6 +151,22 @@ public abstract class SplibSearchListController<FST extends SplibSearchForm,
    * 
    * <p>This method only redirects to {@code page} 
    *     because the actual search procedure is implemented at {@code page} method.</p>
+   *
+   * <p>When {@code jp.ecuacion.splib.web.search-list.partial-results.enabled=true}
+   *     and the request has the header {@code HX-Request: true},
+   *     it calls {@code page} directly without the redirect and renders the page
+   *     without the navbar and the search pane, which the browser uses to replace
+   *     the pager and the list only.
+   *     The response has the header {@code X-Splib-Partial-Results: true} in that case,
+   *     and {@code X-Splib-Page-Url} with the URL the redirect would have gone to,
+   *     which the browser shows in the address bar.</p>
+   *
+   * <p>A redirect in reply to a request with {@code HX-Request: true},
+   *     like the one to show validation errors, is answered with {@code 204 No Content}
+   *     and the {@code Location} header instead of {@code 302},
+   *     so that the browser loads the target itself.
+   *     {@code fetch} would follow a {@code 302} and use up the flash attributes
+   *     the target page needs.</p>
    * 
    * @param model model
    * @param searchForm searchForm
@@ -147,6 +180,11 @@ public abstract class SplibSearchListController<FST extends SplibSearchForm,
       @AuthenticationPrincipal UserDetails loginUser,
       RedirectAttributes redirectAttributes) throws Exception {
 
+    if (isPartialRequest()) {
+      // Read by RedirectView, including the one SplibExceptionHandler returns.
+      request.setAttribute(View.RESPONSE_STATUS_ATTRIBUTE, HttpStatus.NO_CONTENT);
+    }
+
     // Prepare searchForm before validating it.
     // This is meaningful when showing errors on opening searchList page
     // by not calling ".../searchList/page" but ".../searchList/action?search"
@@ -162,9 +200,51 @@ public abstract class SplibSearchListController<FST extends SplibSearchForm,
       throw ve;
     }
 
+    if (isPartialRequest() && isPartialResultsEnabled()) {
+      model.addAttribute(SplibWebConstants.KEY_PARTIAL_RESULTS, true);
+      response.setHeader(SplibWebConstants.HEADER_PARTIAL_RESULTS, "true");
+      String pageUrl = ReturnUrlBuilder.forNormalEnd(this, loginStateUtil).getUrl();
+      response.setHeader(SplibWebConstants.HEADER_PAGE_URL,
+          request.getContextPath() + pageUrl.substring(pageUrl.indexOf(':') + 1));
+      return page(model, searchForm, listForm, loginUser);
+    }
+
     return redirectToSamePageTakingOverModel(model, redirectAttributes);
   }
 
+  private boolean isPartialRequest() {
+    return "true".equals(request.getHeader(SplibWebConstants.HEADER_PARTIAL_REQUEST));
+  }
+
+  /**
+   * Returns whether the search results can be returned without the redirect.
+   *
+   * <p>It returns the value of {@code jp.ecuacion.splib.web.search-list.partial-results.enabled}
+   *     by default. Override it to return {@code false} to always redirect in a controller.</p>
+   *
+   * @return boolean
+   */
+  protected boolean isPartialResultsEnabled() {
+    Boolean enabled = partialResultsEnabled;
+    if (enabled == null) {
+      enabled = Boolean.valueOf(PropertiesFileUtil.getApplicationOrElse(
+          "jp.ecuacion.splib.web.search-list.partial-results.enabled", "false"));
+      partialResultsEnabled = enabled;
+    }
+
+    return enabled;
+  }
+
+  /**
+   * Discards the value of {@code jp.ecuacion.splib.web.search-list.partial-results.enabled}
+   *     so that it's read again at the next search.
+   *
+   * <p>It's called when {@code ConfigController} clears the cache of properties files.</p>
+   */
+  public static void clearSettings() {
+    partialResultsEnabled = null;
+  }
+
   /**
    * Searches from the search conditions in {@code searchForm}.
    *
@@ -209,9 +289,9 @@ public abstract class SplibSearchListController<FST extends SplibSearchForm,
       @AuthenticationPrincipal UserDetails loginUser) throws Exception {
     // Clear info.
     String formName = getFunction() + "SearchForm";
-    String sessionKey = getSessionKey(formName, searchForm);
+    String key = getSearchConditionKey(formName, searchForm);
 
-    request.getSession().setAttribute(sessionKey, newSearchForm);
+    searchConditionStore.put(key, newSearchForm);
 
     prepare(model, loginUser, searchForm, listForm);
     String dataKindStr = java.util.Objects.toString(searchForm.getDataKind(), "");
@@ -222,8 +302,8 @@ public abstract class SplibSearchListController<FST extends SplibSearchForm,
   /**
    * Returns proper search form.
    * 
-   * <p>This feature stores the search conditions in {@code session}, 
-   *     so the search conditions are recorded 
+   * <p>This feature stores the search conditions in {@code SearchConditionStore}
+   *     ({@code session} by default), so the search conditions are recorded 
    *     even if you go to the other function pages and come back.</p>
    * 
    * @param model model
@@ -234,40 +314,42 @@ public abstract class SplibSearchListController<FST extends SplibSearchForm,
   protected FST getProperSearchForm(Model model, FST searchForm) {
 
     String formName = getFunction() + "SearchForm";
-    String key = getSessionKey(formName, searchForm);
+    String key = getSearchConditionKey(formName, searchForm);
 
     if (searchForm.isRequestFromSearchForm()) {
       // Argument searchForm (= submitted by pressing search button in a search page) is adopted
       // when isRequestFromSearchForm == true.
-      request.getSession().setAttribute(key, searchForm);
-
       // You've got a search request means the condition is not newly created.
       searchForm.setNewlyCreated(false);
+      searchConditionStore.put(key, searchForm);
 
-    } else {
-      // SearchForm in session is adopted when isRequestFromSearchForm == false
-      // (= accessed by URL or condition clear button pressed)
+      return searchForm;
+    }
 
-      if (request.getSession().getAttribute(key) == null) {
-        // Add the argument form (= newly created form) to the session.
-        request.getSession().setAttribute(key, searchForm);
-      }
+    // SearchForm in the store is adopted when isRequestFromSearchForm == false
+    // (= accessed by URL or condition clear button pressed)
+    FST storedForm = searchConditionStore.get(key, (Class<FST>) searchForm.getClass());
 
-      searchForm = (FST) request.getSession().getAttribute(key);
+    // Adopt the argument form (= newly created form) when nothing is stored.
+    if (storedForm == null) {
+      storedForm = searchForm;
+    }
 
-      // Manage newlyCreated.
-      if (searchForm.getNewlyCreatedRawValue() == null) {
-        searchForm.setNewlyCreated(true);
+    // Manage newlyCreated.
+    if (storedForm.getNewlyCreatedRawValue() == null) {
+      storedForm.setNewlyCreated(true);
 
-      } else if (searchForm.getNewlyCreatedRawValue()) {
-        searchForm.setNewlyCreated(false);
-      }
+    } else if (storedForm.getNewlyCreatedRawValue()) {
+      storedForm.setNewlyCreated(false);
     }
 
-    return (FST) request.getSession().getAttribute(key);
+    // Implementations that keep a copy of the form need the updated one.
+    searchConditionStore.put(key, storedForm);
+
+    return storedForm;
   }
 
-  private String getSessionKey(String formName, FST searchForm) {
+  private String getSearchConditionKey(String formName, FST searchForm) {
     String dataKind = java.util.Objects.toString(searchForm.getDataKind(), "");
     return formName + (dataKind == null || dataKind.isEmpty() ? "" : "." + dataKind);
   }
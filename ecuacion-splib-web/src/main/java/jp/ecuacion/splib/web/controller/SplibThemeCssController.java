@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import jp.ecuacion.splib.web.util.SplibThemeColorUtil;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves the theme color css built by {@link SplibThemeColorUtil}.
+ *
+ * <p>{@code bootstrap/page-base} links it with the version in the url
+ *     ({@code /public/splib/theme.css?v=...}),
+ *     which is cached by browsers for a year as immutable.
+ *     Requests without the current version are answered with {@code no-cache}
+ *     so that they're revalidated with the {@code ETag}.</p>
+ *
+ * <p>It's under {@code /public/} so that the login page and the error page,
+ *     which are shown without login, get the css
+ *     even when the app configures its own security instead of {@code SplibWebSecurityConfig}.</p>
+ */
+@RestController
+public class SplibThemeCssController {
+
+  /** The path of the theme css. */
+  public static final String PATH = "/public/splib/theme.css";
+
+  private static final MediaType TEXT_CSS = new MediaType("text", "css", StandardCharsets.UTF_8);
+
+  private final SplibThemeColorUtil themeColorUtil;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param themeColorUtil themeColorUtil
+   */
+  public SplibThemeCssController(SplibThemeColorUtil themeColorUtil) {
+    this.themeColorUtil = themeColorUtil;
+  }
+
+  /**
+   * Returns the theme css.
+   *
+   * <p>{@code 304 Not Modified} is returned by Spring MVC
+   *     when {@code If-None-Match} matches the {@code ETag}.</p>
+   *
+   * @param v version in the url
+   * @return css
+   */
+  @GetMapping(PATH)
+  public ResponseEntity<String> themeCss(@RequestParam(required = false) @Nullable String v) {
+    String version = themeColorUtil.getVersion();
+    CacheControl cacheControl = version.equals(v)
+        ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+        : CacheControl.noCache();
+
+    return ResponseEntity.ok().contentType(TEXT_CSS).eTag(version).cacheControl(cacheControl)
+        .body(themeColorUtil.buildThemeColorCssOrEmpty());
+  }
+}
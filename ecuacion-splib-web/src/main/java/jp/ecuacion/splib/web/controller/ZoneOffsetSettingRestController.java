@@ -16,34 +16,69 @@
 package jp.ecuacion.splib.web.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import java.time.Duration;
+import jp.ecuacion.splib.web.util.SplibDatetimeFormatUtil;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
- * Receives zone offset value from the user PC and set it into the session.
+ * Receives zone offset value from the user PC.
+ *
+ * <p>The offset is normally carried by the cookie set on the browser side
+ *     (see {@link SplibDatetimeFormatUtil}), and the browser calls this only when the offset
+ *     changes. The cookie is set again here so that it's also stored when the script
+ *     cannot write it.</p>
  */
 @RestController
 public class ZoneOffsetSettingRestController {
 
   private HttpServletRequest request;
 
+  private HttpServletResponse response;
+
   /**
    * Constructs a new instance.
    *
    * @param request request
+   * @param response response
    */
-  public ZoneOffsetSettingRestController(HttpServletRequest request) {
+  public ZoneOffsetSettingRestController(HttpServletRequest request,
+      HttpServletResponse response) {
     this.request = request;
+    this.response = response;
   }
   
   /**
-   * Receives zone offset value from the user PC and set it into the session.
+   * Receives zone offset value from the user PC and sets it into the cookie.
    * 
+   * <p>The session attribute is also updated for apps reading it directly,
+   *     but only when the session already exists, so that no session is created
+   *     for anonymous visitors.</p>
+   *
    * @param zoneOffset zoneOffset
    */
   @GetMapping("/public/zoneOffset")
   public void zoneOffset(@RequestParam String zoneOffset) {
-    request.getSession().setAttribute("zoneOffset", zoneOffset);
+    Integer minutes = SplibDatetimeFormatUtil.parseJsMinutes(zoneOffset);
+    if (minutes == null) {
+      return;
+    }
+
+    String value = String.valueOf(minutes);
+    ResponseCookie cookie = ResponseCookie.from(SplibDatetimeFormatUtil.COOKIE_ZONE_OFFSET, value)
+        .path("/")
+        .maxAge(Duration.ofDays(365)).sameSite("Lax").secure(request.isSecure()).build();
+    response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+
+    HttpSession session = request.getSession(false);
+    if (session != null && !value.equals(
+        session.getAttribute(SplibDatetimeFormatUtil.SESSION_ATTR_ZONE_OFFSET))) {
+      session.setAttribute(SplibDatetimeFormatUtil.SESSION_ATTR_ZONE_OFFSET, value);
+    }
   }
 }
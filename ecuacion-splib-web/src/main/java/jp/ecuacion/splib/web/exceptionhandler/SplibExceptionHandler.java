@@ -19,9 +19,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.nio.channels.OverlappingFileLockException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -31,6 +28,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import jp.ecuacion.lib.core.exception.ConstraintViolationExceptionWithParameters;
 import jp.ecuacion.lib.core.exception.ViolationException;
 import jp.ecuacion.lib.core.exception.ViolationWarningException;
@@ -40,7 +38,6 @@ import jp.ecuacion.lib.core.logging.DetailLogger;
 import jp.ecuacion.lib.core.util.ExceptionUtil;
 import jp.ecuacion.lib.core.util.LogUtil;
 import jp.ecuacion.lib.core.util.PropertiesFileUtil;
-import jp.ecuacion.lib.core.util.PropertyPathUtil;
 import jp.ecuacion.lib.core.violation.BusinessViolation;
 import jp.ecuacion.lib.core.violation.Violations;
 import jp.ecuacion.lib.core.violation.Violations.MessageParameters;
@@ -48,11 +45,13 @@ import jp.ecuacion.splib.core.exceptionhandler.SplibExceptionHandlerAction;
 import jp.ecuacion.splib.web.bean.ReturnUrlBuilder;
 import jp.ecuacion.splib.web.bean.WarnMessageBean;
 import jp.ecuacion.splib.web.constant.SplibWebConstants;
+import jp.ecuacion.splib.web.controller.PropertiesCacheClearListener;
 import jp.ecuacion.splib.web.controller.SplibEditController;
 import jp.ecuacion.splib.web.controller.SplibGeneralController;
 import jp.ecuacion.splib.web.exception.RedirectException;
 import jp.ecuacion.splib.web.exception.RedirectToHomePageException;
 import jp.ecuacion.splib.web.form.SplibGeneralForm;
+import jp.ecuacion.splib.web.form.SplibGeneralFormDescriptor;
 import jp.ecuacion.splib.web.util.SplibLoginStateUtil;
 import jp.ecuacion.splib.web.util.SplibSavedModelUtil;
 import jp.ecuacion.splib.web.util.internal.RefererRedirectUtil;
@@ -71,8 +70,11 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 /**
  * Provides an exception handler.
+ *
+ * <p>The message display settings in {@code application.properties} are read
+ *     at the first violation, and read again after {@link #onPropertiesCacheCleared()}.</p>
  */
-public abstract class SplibExceptionHandler {
+public abstract class SplibExceptionHandler implements PropertiesCacheClearListener {
 
   private DetailLogger detailLog = new DetailLogger(this);
 
@@ -83,6 +85,21 @@ public abstract class SplibExceptionHandler {
 
   private SplibLoginStateUtil loginStateUtil;
 
+  /**
+   * Stores whether the constraint annotation type is validated by a {@code ClassValidator}.
+   *
+   * <p>It's determined by the validator classes of the constraint,
+   *     which do not change for an annotation type while the application runs.</p>
+   */
+  private static final Map<Class<? extends Annotation>, Boolean> CLASS_VALIDATOR_MAP =
+      new ConcurrentHashMap<>();
+
+  @Nullable
+  private volatile MessageDisplayConfig messageDisplayConfig;
+
+  private record MessageDisplayConfig(boolean needsMsgAtItem, boolean needsMsgAtTop) {
+  }
+
   /**
    * Constructs a new instance.
    *
@@ -97,6 +114,14 @@ public abstract class SplibExceptionHandler {
     this.loginStateUtil = loginStateUtil;
   }
 
+  /**
+   * Discards the message display settings so that they're read again at the next violation.
+   */
+  @Override
+  public void onPropertiesCacheCleared() {
+    messageDisplayConfig = null;
+  }
+
   /**
    * Returns the controller from which the exception throws,
    * or {@code null} if the model is not yet available.
@@ -249,13 +274,9 @@ public abstract class SplibExceptionHandler {
 
     Locale locale = request.getLocale();
 
-    boolean needsMsgAtItemDefault = Boolean.valueOf(PropertiesFileUtil.getApplicationOrElse(
-        "jp.ecuacion.splib.web.process-result-message.shown-at-each-item", "false"));
-    boolean needsMsgAtTopDefault = Boolean.valueOf(PropertiesFileUtil.getApplicationOrElse(
-        "jp.ecuacion.splib.web.process-result-message.shown-at-the-top", "false"));
-
-    addViolationErrorsTo(exception, getPrimaryBindingResult(), needsMsgAtItemDefault,
-        needsMsgAtTopDefault, locale);
+    MessageDisplayConfig config = getMessageDisplayConfig();
+    addViolationErrorsTo(exception, getPrimaryBindingResult(), config.needsMsgAtItem(),
+        config.needsMsgAtTop(), locale);
 
     prepareFormForReturn(loginUser);
 
@@ -321,14 +342,16 @@ public abstract class SplibExceptionHandler {
     Violations violations = exception.getViolations();
     MessageParameters params = violations.messageParameters();
 
-    List<ConstraintViolation<?>> sortedCvs = violations.getConstraintViolations().stream()
-        .sorted(Comparator.comparing(cv -> cv.getPropertyPath().toString())).toList();
+    // propertyPath.toString() builds a string every time, so it's called once per violation.
+    List<PathAndViolation> sortedCvs = violations.getConstraintViolations().stream()
+        .map(cv -> new PathAndViolation(cv.getPropertyPath().toString(), cv))
+        .sorted(Comparator.comparing(PathAndViolation::path)).toList();
 
     boolean atEachItemErrorAdded = false;
 
-    for (ConstraintViolation<?> cv : sortedCvs) {
-      atEachItemErrorAdded |= addConstraintViolation(br, cv, params, needsMsgAtItemDefault,
-          needsMsgAtTopDefault, locale);
+    for (PathAndViolation pv : sortedCvs) {
+      atEachItemErrorAdded |= addConstraintViolation(br, pv.violation(), pv.path(), params,
+          needsMsgAtItemDefault, needsMsgAtTopDefault, locale);
     }
     for (BusinessViolation bv : violations.getBusinessViolations()) {
       atEachItemErrorAdded |=
@@ -347,6 +370,20 @@ public abstract class SplibExceptionHandler {
     return br;
   }
 
+  private MessageDisplayConfig getMessageDisplayConfig() {
+    MessageDisplayConfig config = messageDisplayConfig;
+    if (config == null) {
+      config = new MessageDisplayConfig(
+          Boolean.valueOf(PropertiesFileUtil.getApplicationOrElse(
+              "jp.ecuacion.splib.web.process-result-message.shown-at-each-item", "false")),
+          Boolean.valueOf(PropertiesFileUtil.getApplicationOrElse(
+              "jp.ecuacion.splib.web.process-result-message.shown-at-the-top", "false")));
+      messageDisplayConfig = config;
+    }
+
+    return config;
+  }
+
   /**
    * Throws if neither at-item nor at-top messaging is enabled.
    */
@@ -364,8 +401,8 @@ public abstract class SplibExceptionHandler {
    * @return {@code true} if any at-each-item error was added.
    */
   private boolean addConstraintViolation(BindingResult br, ConstraintViolation<?> cv,
-      MessageParameters params, boolean needsMsgAtItemDefault, boolean needsMsgAtTopDefault,
-      Locale locale) {
+      String pathStr, MessageParameters params, boolean needsMsgAtItemDefault,
+      boolean needsMsgAtTopDefault, Locale locale) {
     String errorCode =
         cv.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName();
 
@@ -373,9 +410,8 @@ public abstract class SplibExceptionHandler {
     boolean anyPathNotFound = false;
 
     if (isClassValidatorConstraint(cv)) {
-      String beanPath = cv.getPropertyPath().toString();
-      String[] annotationPaths =
-          getPropertyPathsFromAnnotation(cv.getConstraintDescriptor().getAnnotation());
+      String beanPath = pathStr;
+      String[] annotationPaths = getPropertyPathsFromAnnotation(cv);
       // annotationPaths is guaranteed non-empty by MultiplePropertyPathsValidator.initialize(),
       // so no length check is needed here.
       if (beanPath.isEmpty()) {
@@ -413,7 +449,6 @@ public abstract class SplibExceptionHandler {
         }
       }
     } else {
-      String pathStr = cv.getPropertyPath().toString();
       if (pathStr.isEmpty()) {
         // Class-level constraint (propertyPath is empty): no field to attach the error to.
         // ExceptionUtil.getMessageList cannot resolve an item name from an empty path
@@ -443,21 +478,25 @@ public abstract class SplibExceptionHandler {
   }
 
   private boolean isClassValidatorConstraint(ConstraintViolation<?> cv) {
-    return cv.getConstraintDescriptor().getConstraintValidatorClasses().stream()
-        .anyMatch(c -> ClassValidator.class.isAssignableFrom(c));
+    return CLASS_VALIDATOR_MAP.computeIfAbsent(
+        cv.getConstraintDescriptor().getAnnotation().annotationType(),
+        type -> cv.getConstraintDescriptor().getConstraintValidatorClasses().stream()
+            .anyMatch(c -> ClassValidator.class.isAssignableFrom(c)));
   }
 
-  private String[] getPropertyPathsFromAnnotation(Annotation annotation) {
-    try {
-      Method method = annotation.annotationType().getMethod("propertyPath");
-      Object result = method.invoke(annotation);
-      if (result instanceof String[] paths) {
-        return paths;
-      }
-    } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException ignored) {
-      // annotation doesn't have propertyPath attribute
-    }
-    return new String[] {};
+  /**
+   * Returns the {@code propertyPath} attribute of the constraint annotation.
+   *
+   * <p>The attribute is read from {@code ConstraintDescriptor#getAttributes()},
+   *     which the validator has already built, instead of invoking the annotation method
+   *     by reflection.</p>
+   */
+  private String[] getPropertyPathsFromAnnotation(ConstraintViolation<?> cv) {
+    Object result = cv.getConstraintDescriptor().getAttributes().get("propertyPath");
+    return result instanceof String[] paths ? paths : new String[] {};
+  }
+
+  private record PathAndViolation(String path, ConstraintViolation<?> violation) {
   }
 
   /**
@@ -534,24 +573,7 @@ public abstract class SplibExceptionHandler {
    */
   @Nullable
   private String qualifyForForm(SplibGeneralForm form, String itemPropertyPath) {
-    for (Field field : form.getRootRecordFields()) {
-      field.setAccessible(true);
-      try {
-        Object value = field.get(form);
-        if (!(value instanceof ItemContainer)) {
-          continue;
-        }
-        try {
-          PropertyPathUtil.getClass(value.getClass(), itemPropertyPath);
-          return field.getName() + "." + itemPropertyPath;
-        } catch (RuntimeException ignored) {
-          // path doesn't fit this record; try the next one
-        }
-      } catch (IllegalAccessException ignored) {
-        // skip inaccessible field
-      }
-    }
-    return null; // path not found in any record
+    return SplibGeneralFormDescriptor.of(form.getClass()).qualify(form, itemPropertyPath);
   }
 
   /**
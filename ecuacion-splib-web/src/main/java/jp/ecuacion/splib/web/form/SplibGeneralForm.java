@@ -154,63 +154,31 @@ public abstract class SplibGeneralForm {
 
   /**
    * Gets all records under the form. The key of the returned map is the field name.
+   *
+   * <p>The fields are searched only once per form class and are already accessible.
+   *     See {@link SplibGeneralFormDescriptor}.</p>
+   *
+   * @return unmodifiable list of fields
    */
   public List<Field> getRootRecordFields() {
-    // Gets records held in the form.
-    // When one form is extended for use on the same screen with multiple functions,
-    // private fields in the parent class must also be retrieved,
-    // so the search traverses up the class hierarchy in a loop.
-    Class<?> formCls = this.getClass();
-    List<Field> checkList = new ArrayList<>();
-    while (true) {
-      Field[] fields = formCls.getDeclaredFields();
-
-      // Check that a record correctly exists and retrieve it.
-      for (Field field : fields) {
-        if (SplibRecord.class.isAssignableFrom(field.getType())) {
-          checkList.add(field);
-          field.setAccessible(true);
-        }
-      }
-
-      if (formCls.getSuperclass() == SplibGeneralForm.class) {
-        return checkList;
-
-      } else {
-        formCls = formCls.getSuperclass();
-
-      }
-    }
+    return SplibGeneralFormDescriptor.of(this.getClass()).getRootRecordFields();
   }
 
   /**
    * Gets root record.
    */
   public @Nullable Object getRootRecord(String recordName) {
-    Field field = getRootRecordFields().stream()
-        .filter(f -> f.getName().equals(recordName)).findFirst().orElse(null);
-    if (field == null) {
-      return null;
-    }
-    return getRootRecord(field);
+    return SplibGeneralFormDescriptor.of(this.getClass()).getRootRecord(this, recordName);
   }
 
   /**
    * Gets root record.
+   *
+   * <p>The value is read through the getter cached per form class.
+   *     See {@link SplibGeneralFormDescriptor}.</p>
    */
   protected @Nullable Object getRootRecord(Field rootRecordField) {
-    rootRecordField.setAccessible(true);
-
-    Object rootRecord = null;
-
-    try {
-      rootRecord = rootRecordField.get(this);
-
-    } catch (IllegalArgumentException | IllegalAccessException e) {
-      throw new RuntimeException(e);
-    }
-
-    return rootRecord;
+    return SplibGeneralFormDescriptor.of(this.getClass()).getRootRecord(this, rootRecordField);
   }
 
   public @Nullable String getConfirmedWarnings() {
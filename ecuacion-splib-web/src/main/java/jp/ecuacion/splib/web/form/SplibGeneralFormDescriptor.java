@@ -0,0 +1,212 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.form;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jp.ecuacion.lib.core.item.ItemContainer;
+import jp.ecuacion.lib.core.util.PropertyPathUtil;
+import jp.ecuacion.splib.core.record.SplibRecord;
+import jp.ecuacion.splib.core.util.internal.BoundedCache;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Keeps the reflective information of a form class, which is computed once per class.
+ *
+ * <p>It holds the root record fields of the form with the getters to read them,
+ *     and the index which tells whether an {@code itemPropertyPath} resolves in a record class.
+ *     This enables {@code SplibGeneralForm} and violation mapping to avoid
+ *     reflection on every call.</p>
+ */
+public final class SplibGeneralFormDescriptor {
+
+  private static final ClassValue<SplibGeneralFormDescriptor> DESCRIPTORS =
+      new ClassValue<>() {
+        @Override
+        protected SplibGeneralFormDescriptor computeValue(Class<?> type) {
+          return new SplibGeneralFormDescriptor(type);
+        }
+      };
+
+  /**
+   * Stores whether an {@code itemPropertyPath} resolves in a record class.
+   *
+   * <p>Paths with list indexes like {@code list[3].name} can be unbounded,
+   *     so the number of paths cached per record class is limited.</p>
+   */
+  private static final ClassValue<BoundedCache<String, Boolean>> RESOLVABLE_PATHS =
+      new ClassValue<>() {
+        @Override
+        protected BoundedCache<String, Boolean> computeValue(Class<?> type) {
+          return new BoundedCache<>(1000);
+        }
+      };
+
+  private final List<Field> rootRecordFields;
+  private final List<RootRecordAccessor> rootRecordAccessors;
+  private final Map<String, RootRecordAccessor> rootRecordAccessorMap;
+  private final Map<Field, RootRecordAccessor> rootRecordAccessorByField;
+
+  private SplibGeneralFormDescriptor(Class<?> formClass) {
+    List<Field> fieldList = new ArrayList<>();
+    List<RootRecordAccessor> accessorList = new ArrayList<>();
+    Map<String, RootRecordAccessor> accessorMap = new HashMap<>();
+    Map<Field, RootRecordAccessor> accessorByField = new HashMap<>();
+
+    // When one form is extended for use on the same screen with multiple functions,
+    // private fields in the parent class must also be retrieved,
+    // so the search traverses up the class hierarchy in a loop.
+    Class<?> cls = formClass;
+    while (cls != null && cls != SplibGeneralForm.class && cls != Object.class) {
+      for (Field field : cls.getDeclaredFields()) {
+        if (SplibRecord.class.isAssignableFrom(field.getType())) {
+          field.setAccessible(true);
+          RootRecordAccessor accessor = new RootRecordAccessor(field.getName(), getter(field));
+
+          fieldList.add(field);
+          accessorList.add(accessor);
+          accessorMap.putIfAbsent(field.getName(), accessor);
+          accessorByField.put(field, accessor);
+        }
+      }
+
+      cls = cls.getSuperclass();
+    }
+
+    this.rootRecordFields = Collections.unmodifiableList(fieldList);
+    this.rootRecordAccessors = Collections.unmodifiableList(accessorList);
+    this.rootRecordAccessorMap = Collections.unmodifiableMap(accessorMap);
+    this.rootRecordAccessorByField = Collections.unmodifiableMap(accessorByField);
+  }
+
+  private static MethodHandle getter(Field field) {
+    try {
+      return MethodHandles.lookup().unreflectGetter(field)
+          .asType(MethodType.methodType(Object.class, Object.class));
+
+    } catch (IllegalAccessException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * Returns the descriptor of the form class.
+   *
+   * @param formClass form class
+   * @return descriptor
+   */
+  public static SplibGeneralFormDescriptor of(Class<? extends SplibGeneralForm> formClass) {
+    return DESCRIPTORS.get(formClass);
+  }
+
+  /**
+   * Returns root record fields, which are already accessible.
+   *
+   * @return unmodifiable list of fields
+   */
+  public List<Field> getRootRecordFields() {
+    return rootRecordFields;
+  }
+
+  /**
+   * Returns the root record with the field name.
+   *
+   * @param form form
+   * @param recordName the field name of the root record
+   * @return root record, or {@code null} if the field does not exist or its value is null
+   */
+  public @Nullable Object getRootRecord(SplibGeneralForm form, String recordName) {
+    RootRecordAccessor accessor = rootRecordAccessorMap.get(recordName);
+    return accessor == null ? null : accessor.get(form);
+  }
+
+  /**
+   * Returns the value of the root record field.
+   *
+   * @param form form
+   * @param rootRecordField one of {@link #getRootRecordFields()}
+   * @return root record, may be {@code null}
+   * @throws IllegalArgumentException when {@code rootRecordField} is not a root record field
+   *     of the form class
+   */
+  public @Nullable Object getRootRecord(SplibGeneralForm form, Field rootRecordField) {
+    RootRecordAccessor accessor = rootRecordAccessorByField.get(rootRecordField);
+    if (accessor == null) {
+      throw new IllegalArgumentException("Field '" + rootRecordField.getName()
+          + "' is not a root record field of " + form.getClass().getName() + ".");
+    }
+
+    return accessor.get(form);
+  }
+
+  /**
+   * Returns the path prefixed with the root record field name
+   *     ({@code "recordField.itemPropertyPath"}) when {@code itemPropertyPath} resolves
+   *     in one of the root records of the form.
+   *
+   * @param form form
+   * @param itemPropertyPath itemPropertyPath
+   * @return qualified path, or {@code null} when the path cannot be resolved in any record
+   */
+  public @Nullable String qualify(SplibGeneralForm form, String itemPropertyPath) {
+    for (RootRecordAccessor accessor : rootRecordAccessors) {
+      Object value = accessor.get(form);
+      if (value instanceof ItemContainer && isResolvable(value.getClass(), itemPropertyPath)) {
+        return accessor.name() + "." + itemPropertyPath;
+      }
+    }
+
+    return null;
+  }
+
+  private static boolean isResolvable(Class<?> recordClass, String itemPropertyPath) {
+    return RESOLVABLE_PATHS.get(recordClass).get(itemPropertyPath, path -> {
+      try {
+        PropertyPathUtil.getClass(recordClass, path);
+        return true;
+
+      } catch (RuntimeException ex) {
+        return false;
+      }
+    });
+  }
+
+  /**
+   * Reads a root record field of a form.
+   */
+  private record RootRecordAccessor(String name, MethodHandle getter) {
+
+    @Nullable
+    Object get(SplibGeneralForm form) {
+      try {
+        return (Object) getter.invokeExact((Object) form);
+
+      } catch (RuntimeException | Error ex) {
+        throw ex;
+
+      } catch (Throwable th) {
+        throw new RuntimeException(th);
+      }
+    }
+  }
+}
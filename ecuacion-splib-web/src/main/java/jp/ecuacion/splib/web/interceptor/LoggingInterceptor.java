@@ -17,33 +17,102 @@ package jp.ecuacion.splib.web.interceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.util.List;
+import jakarta.servlet.http.HttpSession;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import jp.ecuacion.lib.core.logging.DetailLogger;
 import jp.ecuacion.lib.core.util.StringUtil;
 import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 
 /**
  * Offers logging features.
+ *
+ * <p>The following values are put into {@code MDC} while the request is processed,
+ *     so they can be written as structured fields by the log encoder
+ *     (for example {@code %X{splibRequestId}} in a logback pattern).</p>
+ * <ul>
+ *   <li>{@value #MDC_REQUEST_ID}: a random id to correlate the lines of one request</li>
+ *   <li>{@value #MDC_SESSION_ID_SUFFIX}: the last 8 characters of the session id,
+ *       or {@code -} when no session exists. A session is never created here.</li>
+ *   <li>{@value #MDC_HANDLER_MILLIS}: elapsed time of the handler (set after the handler)</li>
+ *   <li>{@value #MDC_TOTAL_MILLIS}: elapsed time including view rendering
+ *       (set on completion)</li>
+ * </ul>
+ *
+ * <p>Log messages are built only when DEBUG is enabled.
+ *     When a {@link RequestTimingRecorder} is given,
+ *     handler and request timings are also passed to it regardless of the log level.</p>
  */
 public class LoggingInterceptor implements HandlerInterceptor {
 
+  public static final String MDC_REQUEST_ID = "splibRequestId";
+
+  public static final String MDC_SESSION_ID_SUFFIX = "splibSessionIdSuffix";
+
+  public static final String MDC_HANDLER_MILLIS = "splibHandlerMillis";
+
+  public static final String MDC_TOTAL_MILLIS = "splibTotalMillis";
+
+  private static final String ATTR_START_NANOS =
+      LoggingInterceptor.class.getName() + ".startNanos";
+
+  private static final String ATTR_HANDLER_NANOS =
+      LoggingInterceptor.class.getName() + ".handlerNanos";
+
   /** Marker string logged in place of the value of any parameter whose name looks sensitive. */
   private static final String MASKED_VALUE = "***";
 
   private final DetailLogger detailLog = new DetailLogger(this);
 
+  /** Used only to check the log level before building messages. */
+  private final Logger levelCheckLogger = LoggerFactory.getLogger(getClass());
+
+  @Nullable
+  private final RequestTimingRecorder timingRecorder;
+
+  /**
+   * Constructs a new instance.
+   */
+  public LoggingInterceptor() {
+    this(null);
+  }
+
+  /**
+   * Constructs a new instance with {@code RequestTimingRecorder}.
+   *
+   * @param timingRecorder timingRecorder, may be {@code null}
+   */
+  public LoggingInterceptor(@Nullable RequestTimingRecorder timingRecorder) {
+    this.timingRecorder = timingRecorder;
+  }
+
   @Override
   public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
       throws Exception {
-    List<String> paramList = request.getParameterMap().entrySet().stream()
-        .map(e -> e.getKey() + "=" + formatParamValue(e.getKey(), e.getValue())).toList();
+    request.setAttribute(ATTR_START_NANOS, System.nanoTime());
+
+    MDC.put(MDC_REQUEST_ID, Long.toHexString(ThreadLocalRandom.current().nextLong()));
+    MDC.put(MDC_SESSION_ID_SUFFIX, getSessionIdSuffix(request));
 
-    detailLog.debug(getPrefix(request) + "request process started. request: "
-        + request.getRequestURI() + (paramList.isEmpty() ? ""
-            : ", parameters: " + StringUtil.getSeparatedValuesString(paramList, "&")));
+    if (levelCheckLogger.isDebugEnabled()) {
+      StringBuilder sb = new StringBuilder(getPrefix())
+          .append("request process started. request: ").append(request.getRequestURI());
+      boolean isFirst = true;
+      for (Map.Entry<String, String[]> entry : request.getParameterMap().entrySet()) {
+        sb.append(isFirst ? ", parameters: " : "&").append(entry.getKey()).append('=')
+            .append(formatParamValue(entry.getKey(), entry.getValue()));
+        isFirst = false;
+      }
+
+      detailLog.debug(sb.toString());
+    }
 
     return true;
   }
@@ -64,13 +133,44 @@ public class LoggingInterceptor implements HandlerInterceptor {
   @Override
   public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
       @Nullable ModelAndView modelAndView) throws Exception {
-    detailLog.debug(getPrefix(request) + "request process finished.");
+    long handlerNanos = elapsedNanos(request);
+    request.setAttribute(ATTR_HANDLER_NANOS, handlerNanos);
+    MDC.put(MDC_HANDLER_MILLIS, Long.toString(TimeUnit.NANOSECONDS.toMillis(handlerNanos)));
+
+    if (levelCheckLogger.isDebugEnabled()) {
+      detailLog.debug(getPrefix() + "request process finished.");
+    }
   }
 
   @Override
   public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
       Object handler, @Nullable Exception ex) throws Exception {
-    detailLog.debug(getPrefix(request) + "view rendering finished.");
+    try {
+      long totalNanos = elapsedNanos(request);
+      MDC.put(MDC_TOTAL_MILLIS, Long.toString(TimeUnit.NANOSECONDS.toMillis(totalNanos)));
+
+      if (levelCheckLogger.isDebugEnabled()) {
+        detailLog.debug(getPrefix() + "view rendering finished.");
+      }
+
+      if (timingRecorder != null) {
+        // postHandle is skipped when the handler throws an exception.
+        Object handlerNanos = request.getAttribute(ATTR_HANDLER_NANOS);
+        timingRecorder.record(request, response, handler,
+            handlerNanos instanceof Long l ? l : totalNanos, totalNanos);
+      }
+
+    } finally {
+      MDC.remove(MDC_REQUEST_ID);
+      MDC.remove(MDC_SESSION_ID_SUFFIX);
+      MDC.remove(MDC_HANDLER_MILLIS);
+      MDC.remove(MDC_TOTAL_MILLIS);
+    }
+  }
+
+  private long elapsedNanos(HttpServletRequest request) {
+    Object startNanos = request.getAttribute(ATTR_START_NANOS);
+    return startNanos instanceof Long l ? System.nanoTime() - l : 0L;
   }
 
   /**
@@ -78,12 +178,23 @@ public class LoggingInterceptor implements HandlerInterceptor {
    * for the session (anyone who obtains it can hijack the session without a password), and this
    * prefix is written at DEBUG on every request; the suffix is still enough to correlate the
    * lines belonging to one session in the log.
+   *
+   * <p>{@code getSession(false)} is used so that requests without a session
+   *     (anonymous visitors, static resources) do not create one just for logging.</p>
    */
-  private String getPrefix(HttpServletRequest request) {
-    String sessionId = request.getSession().getId();
-    String sessionIdSuffix =
-        sessionId.length() > 8 ? sessionId.substring(sessionId.length() - 8) : sessionId;
-    return "session ID (last 8 chars): " + sessionIdSuffix + ", thread ID: "
-        + Thread.currentThread().threadId() + " : ";
+  private String getSessionIdSuffix(HttpServletRequest request) {
+    HttpSession session = request.getSession(false);
+    if (session == null) {
+      return "-";
+    }
+
+    String sessionId = session.getId();
+    return sessionId.length() > 8 ? sessionId.substring(sessionId.length() - 8) : sessionId;
+  }
+
+  private String getPrefix() {
+    return "request ID: " + MDC.get(MDC_REQUEST_ID) + ", session ID (last 8 chars): "
+        + MDC.get(MDC_SESSION_ID_SUFFIX) + ", thread ID: " + Thread.currentThread().threadId()
+        + " : ";
   }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.interceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Records request timings to Micrometer timers with percentile histograms.
+ *
+ * <p>Two timers are recorded, tagged with the handler ({@code ClassName#method})
+ *     and the response status:</p>
+ * <ul>
+ *   <li>{@value #METRIC_HANDLER}: elapsed time of the handler</li>
+ *   <li>{@value #METRIC_REQUEST}: elapsed time including view rendering</li>
+ * </ul>
+ *
+ * <p>Handlers and statuses are bounded by the app code,
+ *     so the number of tag combinations stays small. URLs are not used as tags.</p>
+ */
+public class MicrometerRequestTimingRecorder implements RequestTimingRecorder {
+
+  static final String METRIC_HANDLER = "splib.web.handler";
+
+  static final String METRIC_REQUEST = "splib.web.request";
+
+  private MeterRegistry registry;
+
+  /** Keeps timers by handler and status to avoid building them on every request. */
+  private final Map<String, Timer> timerMap = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param registry registry
+   */
+  public MicrometerRequestTimingRecorder(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public void record(HttpServletRequest request, HttpServletResponse response, Object handler,
+      long handlerNanos, long totalNanos) {
+    String handlerTag = handler instanceof HandlerMethod hm
+        ? hm.getBeanType().getSimpleName() + "#" + hm.getMethod().getName()
+        : handler.getClass().getSimpleName();
+    String status = Integer.toString(response.getStatus());
+
+    timer(METRIC_HANDLER, handlerTag, status).record(handlerNanos, TimeUnit.NANOSECONDS);
+    timer(METRIC_REQUEST, handlerTag, status).record(totalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private Timer timer(String name, String handlerTag, String status) {
+    return timerMap.computeIfAbsent(name + "|" + handlerTag + "|" + status,
+        k -> Timer.builder(name).tag("handler", handlerTag).tag("status", status)
+            .publishPercentileHistogram().register(registry));
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.interceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Receives the timings measured by {@link LoggingInterceptor}.
+ *
+ * <p>It's called once per request on completion, so implementations need to be cheap.</p>
+ */
+public interface RequestTimingRecorder {
+
+  /**
+   * Records timings of a request.
+   *
+   * @param request request
+   * @param response response
+   * @param handler handler
+   * @param handlerNanos elapsed time of the handler in nanoseconds
+   * @param totalNanos elapsed time including view rendering in nanoseconds
+   */
+  void record(HttpServletRequest request, HttpServletResponse response, Object handler,
+      long handlerNanos, long totalNanos);
+}
@@ -26,6 +26,12 @@ import java.security.spec.PKCS8EncodedKeySpec;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import jp.ecuacion.lib.core.logging.DetailLogger;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
@@ -37,6 +43,12 @@ import org.springframework.stereotype.Service;
  * token request. This service builds and signs that JWT from the properties
  * below.</p>
  *
+ * <p>Since the JWT is valid for 6 months, the signed one is kept and returned by
+ * {@link #getClientSecret()}, so a login does not sign a JWT.
+ * It is first signed in the background at startup, and signed again in the background
+ * when less than 30 days are left before it expires.
+ * Concurrent callers share one in-flight signing.</p>
+ *
  * <p>Required properties (activate this bean by setting
  * {@code ecuacion.oauth2.apple.team-id}):</p>
  * <pre>
@@ -48,11 +60,22 @@ import org.springframework.stereotype.Service;
  */
 @Service
 @ConditionalOnProperty(name = "ecuacion.oauth2.apple.team-id")
-public class SplibAppleClientSecretService {
+public class SplibAppleClientSecretService implements InitializingBean {
 
   /** Valid duration of the generated JWT: 6 months in milliseconds. */
   private static final long EXPIRY_MS = 6L * 30 * 24 * 60 * 60 * 1000;
 
+  /** Remaining validity under which the JWT is signed again: 30 days in milliseconds. */
+  private static final long REFRESH_BEFORE_EXPIRY_MS = 30L * 24 * 60 * 60 * 1000;
+
+  /**
+   * Remaining validity under which the kept JWT is no longer returned
+   * and callers wait for the new one: 1 hour in milliseconds.
+   */
+  private static final long MIN_REMAINING_MS = 60L * 60 * 1000;
+
+  private final DetailLogger detailLog = new DetailLogger(this);
+
   @Value("${ecuacion.oauth2.apple.team-id}")
   @SuppressWarnings({"NullAway", "null"})
   private String teamId;
@@ -70,26 +93,122 @@ public class SplibAppleClientSecretService {
   @SuppressWarnings({"NullAway", "null"})
   private String privateKeyPem;
 
+  /** Parsed from {@code privateKeyPem} at the first signing. */
+  @Nullable
+  private volatile ECPrivateKey ecPrivateKey;
+
+  @Nullable
+  private volatile SignedSecret signedSecret;
+
+  private final AtomicReference<@Nullable CompletableFuture<SignedSecret>> inFlight =
+      new AtomicReference<>();
+
+  private record SignedSecret(String jwt, long refreshAtMillis, long expiresAtMillis) {
+  }
+
   /**
-   * Generates a signed ES256 JWT to use as the Apple {@code client_secret}.
+   * Starts signing the client secret in the background so that the first login does not wait.
+   */
+  @Override
+  public void afterPropertiesSet() {
+    refresh();
+  }
+
+  /**
+   * Returns the signed ES256 JWT to use as the Apple {@code client_secret}.
+   *
+   * <p>The kept JWT is returned while it's valid enough.
+   *     Only when no valid JWT is kept, the caller waits for signing.</p>
+   *
+   * @return signed JWT string
+   */
+  public String getClientSecret() {
+    SignedSecret current = signedSecret;
+    long now = System.currentTimeMillis();
+    if (current != null && now < current.refreshAtMillis()) {
+      return current.jwt();
+    }
+
+    CompletableFuture<SignedSecret> future = refresh();
+    if (current != null && now < current.expiresAtMillis() - MIN_REMAINING_MS) {
+      return current.jwt();
+    }
+
+    try {
+      return future.join().jwt();
+
+    } catch (CompletionException ex) {
+      throw ex.getCause() instanceof RuntimeException re ? re : ex;
+    }
+  }
+
+  /**
+   * Returns the signing in progress, or starts a new one in the background.
+   */
+  private CompletableFuture<SignedSecret> refresh() {
+    while (true) {
+      CompletableFuture<SignedSecret> existing = inFlight.get();
+      if (existing != null) {
+        return existing;
+      }
+
+      CompletableFuture<SignedSecret> future = new CompletableFuture<>();
+      if (inFlight.compareAndSet(null, future)) {
+        CompletableFuture.runAsync(() -> {
+          try {
+            SignedSecret secret = sign();
+            signedSecret = secret;
+            future.complete(secret);
+
+          } catch (RuntimeException ex) {
+            // Logged here since no caller may wait for the future,
+            // as with the signing started at startup.
+            detailLog.warn("Signing the Apple client secret failed: " + ex);
+            future.completeExceptionally(ex);
+
+          } finally {
+            inFlight.compareAndSet(future, null);
+          }
+        });
+
+        return future;
+      }
+    }
+  }
+
+  private SignedSecret sign() {
+    long now = System.currentTimeMillis();
+    String jwt = generateClientSecret();
+    return new SignedSecret(jwt, now + EXPIRY_MS - REFRESH_BEFORE_EXPIRY_MS, now + EXPIRY_MS);
+  }
+
+  /**
+   * Generates a newly signed ES256 JWT to use as the Apple {@code client_secret}.
+   *
+   * <p>Use {@link #getClientSecret()} unless a new JWT is needed, since signing is costly.</p>
    *
    * @return signed JWT string
    */
   public String generateClientSecret() {
     try {
-      ECPrivateKey ecPrivateKey = parsePrivateKey(privateKeyPem);
+      ECPrivateKey key = ecPrivateKey;
+      if (key == null) {
+        key = parsePrivateKey(privateKeyPem);
+        ecPrivateKey = key;
+      }
 
+      Instant now = Instant.now();
       JWTClaimsSet claims = new JWTClaimsSet.Builder()
           .issuer(teamId)
-          .issueTime(Date.from(Instant.now()))
-          .expirationTime(Date.from(Instant.now().plusMillis(EXPIRY_MS)))
+          .issueTime(Date.from(now))
+          .expirationTime(Date.from(now.plusMillis(EXPIRY_MS)))
           .audience("https://appleid.apple.com")
           .subject(clientId)
           .build();
 
       JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.ES256).keyID(keyId).build();
       SignedJWT jwt = new SignedJWT(header, claims);
-      jwt.sign(new ECDSASigner(ecPrivateKey));
+      jwt.sign(new ECDSASigner(key));
       return jwt.serialize();
 
     } catch (Exception ex) {
@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.searchcondition;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jp.ecuacion.splib.web.form.SplibSearchForm;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Stores search conditions in memory, in a bounded LRU map per user.
+ *
+ * <p>A user is identified by the login user name,
+ *     or by the session id when not logged in.
+ *     When neither is available nothing is stored, so no session is created by this class.</p>
+ *
+ * <p>Both the number of users and the number of conditions per user are bounded,
+ *     and the least recently used ones are evicted.
+ *     Since the map is local to the JVM,
+ *     sticky sessions are required when the app runs on multiple nodes.</p>
+ *
+ * <p>Conditions of a logged-in user are keyed by the user name, not by the session,
+ *     so they are shared by all the sessions of the user (like multiple browsers),
+ *     the last {@code put} wins, and they are kept after logging out and in again.
+ *     Use {@code SessionSearchConditionStore} when they need to be separated per session.</p>
+ */
+public class InMemorySearchConditionStore implements SearchConditionStore {
+
+  private HttpServletRequest request;
+
+  private final Map<String, Map<String, SplibSearchForm>> userMap;
+
+  private final int maxEntriesPerUser;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param request request
+   * @param maxUsers the maximum number of users whose conditions are kept
+   * @param maxEntriesPerUser the maximum number of conditions kept per user
+   */
+  public InMemorySearchConditionStore(HttpServletRequest request, int maxUsers,
+      int maxEntriesPerUser) {
+    this.request = request;
+    this.userMap = new LruMap<>(maxUsers);
+    this.maxEntriesPerUser = maxEntriesPerUser;
+  }
+
+  @Override
+  public <F extends SplibSearchForm> @Nullable F get(String key, Class<F> formClass) {
+    String userKey = getUserKey();
+    if (userKey == null) {
+      return null;
+    }
+
+    Object form;
+    synchronized (userMap) {
+      Map<String, SplibSearchForm> formMap = userMap.get(userKey);
+      form = formMap == null ? null : formMap.get(key);
+    }
+
+    return formClass.isInstance(form) ? formClass.cast(form) : null;
+  }
+
+  @Override
+  public void put(String key, SplibSearchForm form) {
+    String userKey = getUserKey();
+    if (userKey == null) {
+      return;
+    }
+
+    synchronized (userMap) {
+      userMap.computeIfAbsent(userKey, k -> new LruMap<>(maxEntriesPerUser)).put(key, form);
+    }
+  }
+
+  private @Nullable String getUserKey() {
+    Principal principal = request.getUserPrincipal();
+    if (principal != null) {
+      return "user:" + principal.getName();
+    }
+
+    HttpSession session = request.getSession(false);
+    return session == null ? null : "session:" + session.getId();
+  }
+
+  /**
+   * Is a {@code LinkedHashMap} in access order which evicts the eldest entry over the limit.
+   */
+  private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maxSize;
+
+    LruMap(int maxSize) {
+      super(16, 0.75f, true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+      return size() > maxSize;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.searchcondition;
+
+import jp.ecuacion.splib.web.form.SplibSearchForm;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Keeps the search condition of each search-list function between requests,
+ *     so the condition is still there when the user leaves the page and comes back.
+ *
+ * <p>{@code SplibSearchListController} uses the bean of this type.
+ *     The implementation is selected by {@code jp.ecuacion.splib.web.search-condition.store}
+ *     ({@code session} (default), {@code url-encoded} or {@code in-memory}).
+ *     Apps can also provide their own bean, which takes precedence over the default ones.</p>
+ *
+ * <p>{@code key} is unique per function and {@code dataKind}.</p>
+ */
+public interface SearchConditionStore {
+
+  /**
+   * Returns the stored search form.
+   *
+   * @param <F> search form class
+   * @param key key
+   * @param formClass the class of the search form, used when the form needs to be rebuilt
+   * @return the stored search form, or {@code null} if nothing is stored
+   */
+  <F extends SplibSearchForm> @Nullable F get(String key, Class<F> formClass);
+
+  /**
+   * Stores the search form.
+   *
+   * <p>It is called every time the search-list page is shown,
+   *     so implementations should avoid writing anything when the stored condition
+   *     is unchanged.</p>
+   *
+   * @param key key
+   * @param form search form
+   */
+  void put(String key, SplibSearchForm form);
+}
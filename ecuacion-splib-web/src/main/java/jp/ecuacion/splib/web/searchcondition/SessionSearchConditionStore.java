@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.searchcondition;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import jp.ecuacion.splib.web.form.SplibSearchForm;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Stores search conditions in {@code HttpSession}.
+ *
+ * <p>This is the default implementation.
+ *     The form instance itself is stored,
+ *     so changes made to the returned form are kept without calling {@code put} again.</p>
+ */
+public class SessionSearchConditionStore implements SearchConditionStore {
+
+  private HttpServletRequest request;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param request request
+   */
+  public SessionSearchConditionStore(HttpServletRequest request) {
+    this.request = request;
+  }
+
+  @Override
+  public <F extends SplibSearchForm> @Nullable F get(String key, Class<F> formClass) {
+    HttpSession session = request.getSession(false);
+    Object form = session == null ? null : session.getAttribute(key);
+
+    return formClass.isInstance(form) ? formClass.cast(form) : null;
+  }
+
+  @Override
+  public void put(String key, SplibSearchForm form) {
+    HttpSession session = request.getSession();
+
+    // Calling setAttribute marks the attribute as changed in session stores like Spring Session,
+    // so skip it when the same instance is already stored.
+    if (session.getAttribute(key) != form) {
+      session.setAttribute(key, form);
+    }
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.searchcondition;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.beans.PropertyDescriptor;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import jp.ecuacion.lib.core.logging.DetailLogger;
+import jp.ecuacion.splib.core.record.SplibRecord;
+import jp.ecuacion.splib.web.form.SplibSearchForm;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.web.bind.WebDataBinder;
+
+/**
+ * Stores search conditions in a cookie as a compact URL-encoded string,
+ *     so nothing is kept on the server side.
+ *
+ * <p>Only properties with a getter and a setter whose values are {@code String},
+ *     {@code Number}, {@code Boolean} or enums are stored,
+ *     including the ones in {@code SplibRecord}s directly held by the form.
+ *     Since the form is rebuilt from the cookie on every {@code get},
+ *     {@code put} needs to be called after the form is changed.</p>
+ *
+ * <p>The cookie is written only when its value changes,
+ *     and at most once per key and value in a request.
+ *     It is {@code HttpOnly} and {@code SameSite=Lax}, and also {@code Secure} over HTTPS.
+ *     A condition too large for a cookie is not stored and a warning is logged.</p>
+ *
+ * <p>Call {@link #clearCookies(HttpServletRequest, HttpServletResponse)} on logout
+ *     so the conditions are not left to the next user of the browser.
+ *     {@code SplibWebSecurityConfig} and {@code SplibWebSecurityConfigForAdmin} do it.</p>
+ */
+public class UrlEncodedSearchConditionStore implements SearchConditionStore {
+
+  private final DetailLogger detailLog = new DetailLogger(this);
+
+  static final String COOKIE_NAME_PREFIX = "splibSearch.";
+
+  private static final int MAX_COOKIE_VALUE_LENGTH = 3800;
+
+  /** Holds the values written to the response in the current request, by cookie name. */
+  private static final String WRITTEN_VALUES_ATTRIBUTE =
+      UrlEncodedSearchConditionStore.class.getName() + ".writtenValues";
+
+  private static final String PROP_NEWLY_CREATED = "newlyCreated";
+
+  /** Properties which are not search conditions, or handled separately. */
+  private static final Set<String> EXCLUDED_PROPERTIES =
+      Set.of("class", "controllerContext", "prepareSettings", PROP_NEWLY_CREATED);
+
+  private HttpServletRequest request;
+
+  private HttpServletResponse response;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param request request
+   * @param response response
+   */
+  public UrlEncodedSearchConditionStore(HttpServletRequest request,
+      HttpServletResponse response) {
+    this.request = request;
+    this.response = response;
+  }
+
+  @Override
+  public <F extends SplibSearchForm> @Nullable F get(String key, Class<F> formClass) {
+    String value = getCookieValue(key);
+    if (value == null) {
+      return null;
+    }
+
+    String state;
+    try {
+      state = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+
+    } catch (IllegalArgumentException ex) {
+      // Broken or tampered cookie. Treat it as "nothing stored".
+      return null;
+    }
+
+    F form = BeanUtils.instantiateClass(formClass);
+    MutablePropertyValues values = new MutablePropertyValues();
+    for (String pair : state.split("&")) {
+      int index = pair.indexOf('=');
+      if (index <= 0) {
+        continue;
+      }
+
+      String name = URLDecoder.decode(pair.substring(0, index), StandardCharsets.UTF_8);
+      String val = URLDecoder.decode(pair.substring(index + 1), StandardCharsets.UTF_8);
+      if (name.equals(PROP_NEWLY_CREATED)) {
+        form.setNewlyCreated(Boolean.valueOf(val));
+
+      } else {
+        values.add(name, val);
+      }
+    }
+
+    WebDataBinder binder = new WebDataBinder(form);
+    binder.setConversionService(DefaultConversionService.getSharedInstance());
+    binder.setIgnoreInvalidFields(true);
+    binder.bind(values);
+
+    return form;
+  }
+
+  @Override
+  public void put(String key, SplibSearchForm form) {
+    List<String> pairs = new ArrayList<>();
+    addProperties(PropertyAccessorFactory.forBeanPropertyAccess(form), "", pairs, true);
+    Boolean newlyCreated = form.getNewlyCreatedRawValue();
+    if (newlyCreated != null) {
+      pairs.add(PROP_NEWLY_CREATED + "=" + newlyCreated);
+    }
+
+    String value = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(String.join("&", pairs).getBytes(StandardCharsets.UTF_8));
+
+    if (value.equals(getCookieValue(key))) {
+      return;
+    }
+
+    if (value.length() > MAX_COOKIE_VALUE_LENGTH) {
+      detailLog.warn("Search condition is too large to be stored in a cookie. Not stored. key: "
+          + key + ", length: " + value.length());
+      return;
+    }
+
+    String name = getCookieName(key);
+    response.addCookie(newCookie(request, name, value, -1));
+    getWrittenValues(request).put(name, value);
+  }
+
+  /**
+   * Expires all the search condition cookies sent with the request.
+   *
+   * <p>It is meant to be called on logout.</p>
+   *
+   * @param request request
+   * @param response response
+   */
+  public static void clearCookies(HttpServletRequest request, HttpServletResponse response) {
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return;
+    }
+
+    for (Cookie cookie : cookies) {
+      if (cookie.getName().startsWith(COOKIE_NAME_PREFIX)) {
+        response.addCookie(newCookie(request, cookie.getName(), "", 0));
+      }
+    }
+  }
+
+  private static Cookie newCookie(HttpServletRequest request, String name, String value,
+      int maxAge) {
+    Cookie cookie = new Cookie(name, value);
+    cookie.setPath("/");
+    cookie.setHttpOnly(true);
+    cookie.setSecure(request.isSecure());
+    cookie.setAttribute("SameSite", "Lax");
+    cookie.setMaxAge(maxAge);
+    return cookie;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, String> getWrittenValues(HttpServletRequest request) {
+    Object values = request.getAttribute(WRITTEN_VALUES_ATTRIBUTE);
+    if (values instanceof Map<?, ?> map) {
+      return (Map<String, String>) map;
+    }
+
+    Map<String, String> map = new HashMap<>();
+    request.setAttribute(WRITTEN_VALUES_ATTRIBUTE, map);
+    return map;
+  }
+
+  private void addProperties(BeanWrapper wrapper, String prefix, List<String> pairs,
+      boolean recursesIntoRecords) {
+    for (PropertyDescriptor pd : wrapper.getPropertyDescriptors()) {
+      String name = pd.getName();
+      Class<?> type = pd.getPropertyType();
+      boolean isRecord = type != null && SplibRecord.class.isAssignableFrom(type);
+      if (EXCLUDED_PROPERTIES.contains(name) || pd.getReadMethod() == null
+          || (pd.getWriteMethod() == null && !(isRecord && recursesIntoRecords))) {
+        continue;
+      }
+
+      Object value;
+      try {
+        value = wrapper.getPropertyValue(name);
+
+      } catch (BeansException ex) {
+        continue;
+      }
+
+      if (value == null) {
+        continue;
+      }
+
+      if (isRecord && recursesIntoRecords) {
+        addProperties(PropertyAccessorFactory.forBeanPropertyAccess(value), prefix + name + ".",
+            pairs, false);
+
+      } else if (value instanceof String || value instanceof Number || value instanceof Boolean
+          || value instanceof Enum) {
+        pairs.add(URLEncoder.encode(prefix + name, StandardCharsets.UTF_8) + "="
+            + URLEncoder.encode(value instanceof Enum<?> e ? e.name() : value.toString(),
+                StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+  private @Nullable String getCookieValue(String key) {
+    String name = getCookieName(key);
+
+    // A value written earlier in this request is newer than the one in the request cookie.
+    String written = getWrittenValues(request).get(name);
+    if (written != null) {
+      return written;
+    }
+
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return null;
+    }
+
+    for (Cookie cookie : cookies) {
+      if (cookie.getName().equals(name)) {
+        return cookie.getValue();
+      }
+    }
+
+    return null;
+  }
+
+  private String getCookieName(String key) {
+    // URLEncoder output consists only of characters allowed in cookie names.
+    return COOKIE_NAME_PREFIX + URLEncoder.encode(key, StandardCharsets.UTF_8);
+  }
+}
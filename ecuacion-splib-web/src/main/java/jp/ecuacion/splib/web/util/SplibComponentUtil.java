@@ -15,76 +15,269 @@
  */
 package jp.ecuacion.splib.web.util;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Base64;
+import java.util.function.BinaryOperator;
+import jp.ecuacion.lib.core.logging.DetailLogger;
 import jp.ecuacion.lib.core.util.DateTimeApiUtil;
 import jp.ecuacion.lib.core.util.PropertiesFileUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.jspecify.annotations.Nullable;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
  * Provides utilities for html components processing.
+ *
+ * <p>Uploaded files are written to the work directory ({@code jp.ecuacion.work-dir})
+ *     without holding the whole content on the heap,
+ *     so the memory used per upload doesn't depend on the file size.
+ *     The size of a file can be limited by {@code jp.ecuacion.splib.web.upload.max-file-size}
+ *     (like {@code 10MB}), which is checked while the file is written.
+ *     Both are read on the first use, and read again after {@link #clearSettings()},
+ *     which is called when {@code ConfigController} clears the cache of properties files.</p>
  */
 public class SplibComponentUtil {
 
+  static final String PROP_WORK_DIR = "jp.ecuacion.work-dir";
+
+  static final String PROP_MAX_FILE_SIZE = "jp.ecuacion.splib.web.upload.max-file-size";
+
+  private static final String BASE64_DATA_URL_SEPARATOR = ";base64,";
+
+  /**
+   * Upper limit of the length of the data url prefix like {@code data:image/png;base64,}.
+   */
+  private static final int MAX_DATA_URL_PREFIX_LENGTH = 256;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private static volatile @Nullable Settings settings;
+
+  /**
+   * Keeps the settings of uploads, parsed into typed values once.
+   */
+  static final class Settings {
+
+    private final DetailLogger detailLog = new DetailLogger(this);
+
+    private final String workDir;
+    private final long maxFileSize;
+
+    /**
+     * Constructs a new instance which reads the settings with {@code lookUp}.
+     *
+     * @param lookUp returns the value of the key, or the second argument when it's not set
+     */
+    Settings(BinaryOperator<String> lookUp) {
+      workDir = lookUp.apply(PROP_WORK_DIR, "");
+      maxFileSize = parseMaxFileSize(lookUp.apply(PROP_MAX_FILE_SIZE, "-1"));
+    }
+
+    /**
+     * Parses the max file size, which is {@code 0} when it's malformed
+     *     so that uploads are rejected rather than accepted without the limit.
+     */
+    private long parseMaxFileSize(String value) {
+      try {
+        return DataSize.parse(value).toBytes();
+
+      } catch (IllegalArgumentException ex) {
+        detailLog.warn(PROP_MAX_FILE_SIZE + " is malformed: '" + value
+            + "'. Uploaded files are rejected until it's fixed.");
+        return 0;
+      }
+    }
+
+    /**
+     * Returns the max file size in bytes, {@code -1} for no limit.
+     */
+    long getMaxFileSize() {
+      return maxFileSize;
+    }
+
+    /**
+     * Returns the work directory, which must be set.
+     */
+    String getWorkDir() {
+      if (workDir.isEmpty()) {
+        throw new IllegalStateException(PROP_WORK_DIR + " is not set.");
+      }
+
+      return workDir;
+    }
+  }
+
+  private static Settings getSettings() {
+    Settings current = settings;
+    if (current == null) {
+      current = new Settings(PropertiesFileUtil::getApplicationOrElse);
+      settings = current;
+    }
+
+    return current;
+  }
+
+  /**
+   * Discards the settings so that they're read again on the next use.
+   */
+  public static void clearSettings() {
+    settings = null;
+  }
+
   /**
    * Saves uploaded file.
    * 
-   * <p>The file is saved at work directory, which is specified by 
+   * <p>The file is saved at work directory, which is specified by
+   *     {@code jp.ecuacion.work-dir}.
+   *     It's moved or copied by {@link MultipartFile#transferTo(Path)},
+   *     so the content is not loaded on the heap.</p>
    * 
    * @param file file
    * @return file saved path, may be null when file is not uploaded.
+   * @throws MaxUploadSizeExceededException when the file is larger than
+   *     {@code jp.ecuacion.splib.web.upload.max-file-size}
    * @throws Exception Exception
    */
   public static @Nullable String saveUploadedFile(@Nullable MultipartFile file) throws Exception {
-    if (file == null) {
+    return saveUploadedFile(file, getSettings());
+  }
+
+  static @Nullable String saveUploadedFile(@Nullable MultipartFile file, Settings settings)
+      throws Exception {
+    if (file == null || file.isEmpty()) {
       return null;
     }
 
+    long maxFileSize = settings.getMaxFileSize();
+    if (maxFileSize >= 0 && file.getSize() > maxFileSize) {
+      throw new MaxUploadSizeExceededException(maxFileSize);
+    }
+
     String originalFilename = file.getOriginalFilename();
-    return saveUploadedFileCommon(file.getBytes(),
-        originalFilename == null ? "" : originalFilename);
+    Path path = getNewFilePath(originalFilename == null ? "" : originalFilename, settings);
+    file.transferTo(path);
+
+    return path.toString();
   }
 
   /**
    * Saves uploaded file.
    * 
-   * <p>The file is saved at work directory, which is specified by 
+   * <p>The file is saved at work directory, which is specified by
+   *     {@code jp.ecuacion.work-dir}.
+   *     {@code base64} can be a data url like {@code data:image/png;base64,...}.
+   *     It's decoded while being written, without the decoded {@code byte[]}.</p>
    * 
    * @param base64 file
    * @return file saved path, may be null when file is not uploaded.
+   * @throws MaxUploadSizeExceededException when the decoded file is larger than
+   *     {@code jp.ecuacion.splib.web.upload.max-file-size}
    * @throws Exception Exception
    */
   public static @Nullable String saveUploadedFile(String base64) throws Exception {
+    return saveUploadedFile(base64, getSettings());
+  }
 
+  static @Nullable String saveUploadedFile(String base64, Settings settings) throws Exception {
     if (StringUtils.isEmpty(base64)) {
       return null;
     }
     
-    String part = ";base64,";
-    
-    base64 = base64.substring(base64.indexOf(part) + part.length());
-    Base64.Decoder decoder = Base64.getDecoder();
-    return saveUploadedFileCommon(decoder.decode(base64), "");
+    int index = base64.indexOf(BASE64_DATA_URL_SEPARATOR);
+    int start = index < 0 ? 0 : index + BASE64_DATA_URL_SEPARATOR.length();
+    return saveUploadedFileCommon(
+        Base64.getDecoder().wrap(new AsciiCharSequenceInputStream(base64, start)), "", settings);
   }
 
-  @SuppressWarnings("unused")
-  private static @Nullable String saveUploadedFileCommon(byte[] bytes, String filename)
+  /**
+   * Saves uploaded file from the stream of base64 data, like the body of a request.
+   *
+   * <p>The file is saved at work directory, which is specified by
+   *     {@code jp.ecuacion.work-dir}.
+   *     The data can start with a data url prefix like {@code data:image/png;base64,}.
+   *     The stream is decoded while being written, so the data is never held as a whole.
+   *     {@code base64Input} is not closed.</p>
+   *
+   * @param base64Input base64 data
+   * @param filename filename used as the suffix of the saved file, may be empty
+   * @return file saved path, may be null when the data is empty.
+   * @throws MaxUploadSizeExceededException when the decoded file is larger than
+   *     {@code jp.ecuacion.splib.web.upload.max-file-size}
+   * @throws IOException IOException
+   */
+  public static @Nullable String saveUploadedBase64File(InputStream base64Input, String filename)
       throws IOException {
+    return saveUploadedBase64File(base64Input, filename, getSettings());
+  }
+
+  static @Nullable String saveUploadedBase64File(InputStream base64Input, String filename,
+      Settings settings) throws IOException {
+    BufferedInputStream in = new BufferedInputStream(base64Input, BUFFER_SIZE);
+    skipDataUrlPrefix(in);
+
+    return saveUploadedFileCommon(Base64.getDecoder().wrap(in), filename, settings);
+  }
+
+  /*
+   * Skips "data:xxx;base64," at the head of the stream if it exists.
+   */
+  private static void skipDataUrlPrefix(BufferedInputStream in) throws IOException {
+    in.mark(MAX_DATA_URL_PREFIX_LENGTH);
+    byte[] head = in.readNBytes(MAX_DATA_URL_PREFIX_LENGTH);
+    in.reset();
+
+    String headStr = new String(head, StandardCharsets.US_ASCII);
+    int index = headStr.indexOf(BASE64_DATA_URL_SEPARATOR);
+    if (headStr.startsWith("data:") && index >= 0) {
+      in.skipNBytes(index + BASE64_DATA_URL_SEPARATOR.length());
+    }
+  }
+
+  private static @Nullable String saveUploadedFileCommon(InputStream in, String filename,
+      Settings settings) throws IOException {
 
-    if (bytes == null || bytes.length == 0) {
+    long maxFileSize = settings.getMaxFileSize();
+    Path path = getNewFilePath(filename, settings);
+    long size = 0;
+
+    try (OutputStream output = Files.newOutputStream(path)) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int length;
+      while ((length = in.read(buffer)) != -1) {
+        size += length;
+        if (maxFileSize >= 0 && size > maxFileSize) {
+          throw new MaxUploadSizeExceededException(maxFileSize);
+        }
+
+        output.write(buffer, 0, length);
+      }
+
+    } catch (IOException | RuntimeException ex) {
+      Files.deleteIfExists(path);
+      throw ex;
+    }
+
+    if (size == 0) {
+      Files.delete(path);
       return null;
     }
 
-    String workDirPath = PropertiesFileUtil.getApplication("jp.ecuacion.work-dir");
-    new File(workDirPath).mkdirs();
+    return path.toString();
+  }
+
+  private static Path getNewFilePath(String filename, Settings settings) throws IOException {
+    String workDirPath = settings.getWorkDir();
+    Files.createDirectories(Path.of(workDirPath));
 
     // The filename is client-controlled. Use only the last path segment
     // to prevent path traversal outside the work directory.
@@ -97,13 +290,43 @@ public class SplibComponentUtil {
         DateTimeApiUtil.getTimestampStringForFilename(LocalDateTime.now(ZoneId.systemDefault()))
         + "-" + Thread.currentThread().threadId() + "-" + sanitizedFilename;
 
-    String tmpFilePath = workDirPath + "/" + tmpFilename;
+    return Path.of(workDirPath + "/" + tmpFilename);
+  }
 
-    try (FileOutputStream output = new FileOutputStream(tmpFilePath);) {
-      output.write(bytes);
+  /**
+   * Reads the chars of an ascii {@code CharSequence} as bytes without copying it.
+   */
+  static class AsciiCharSequenceInputStream extends InputStream {
+    private final CharSequence chars;
+    private int position;
+
+    AsciiCharSequenceInputStream(CharSequence chars, int start) {
+      this.chars = chars;
+      this.position = start;
+    }
+
+    @Override
+    public int read() {
+      return position < chars.length() ? chars.charAt(position++) & 0xff : -1;
     }
 
-    return tmpFilePath;
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+
+      if (position >= chars.length()) {
+        return -1;
+      }
+
+      int count = Math.min(length, chars.length() - position);
+      for (int i = 0; i < count; i++) {
+        bytes[offset + i] = (byte) chars.charAt(position++);
+      }
+
+      return count;
+    }
   }
 
   /**
@@ -127,7 +350,7 @@ public class SplibComponentUtil {
    * @throws Exception Exception
    */
   public static String getPictureDataBase64(String path, String pictureFormat) throws Exception {
-    String workDirPath = PropertiesFileUtil.getApplication("jp.ecuacion.work-dir");
+    String workDirPath = getSettings().getWorkDir();
     Path realWorkDir = Path.of(workDirPath).toRealPath();
     Path realPath = Path.of(path).toRealPath();
 
@@ -15,38 +15,118 @@
  */
 package jp.ecuacion.splib.web.util;
 
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import java.time.DateTimeException;
+import java.time.ZoneOffset;
 import jp.ecuacion.splib.core.container.DatetimeFormatParameters;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Provides utility methods to build {@link DatetimeFormatParameters} from a request.
+ *
+ * <p>The zone offset of the user PC is sent by the browser with the {@value #COOKIE_ZONE_OFFSET}
+ *     cookie (set by the {@code sendZoneOffset} fragment in {@code components.html})
+ *     or the {@value #HEADER_ZONE_OFFSET} header, as the value of JavaScript's
+ *     {@code Date.getTimezoneOffset()}.
+ *     The {@code zoneOffset} session attribute set by former versions is also read
+ *     when neither is sent.</p>
  */
 public class SplibDatetimeFormatUtil {
 
+  /** The name of the cookie which carries the zone offset. */
+  public static final String COOKIE_ZONE_OFFSET = "splibZoneOffset";
+
+  /** The name of the request header which carries the zone offset. */
+  public static final String HEADER_ZONE_OFFSET = "X-Splib-Zone-Offset";
+
+  /** The name of the session attribute which carries the zone offset. */
+  public static final String SESSION_ATTR_ZONE_OFFSET = "zoneOffset";
+
+  private static final String REQUEST_ATTR_ZONE_OFFSET =
+      SplibDatetimeFormatUtil.class.getName() + ".zoneOffset";
+
   private SplibDatetimeFormatUtil() {}
 
   /**
-   * Returns DatetimeFormatParameters built from the {@code zoneOffset} session attribute.
+   * Returns DatetimeFormatParameters built from the zone offset sent by the browser.
+   *
+   * <p>The zone offset is parsed once per request and kept in a request attribute,
+   *     but a new instance is returned every time
+   *     since {@code DatetimeFormatParameters} is mutable
+   *     and a change by one caller must not affect the others.</p>
    *
    * @param request request
    * @return DatetimeFormatParameters
    */
   public static DatetimeFormatParameters getParams(HttpServletRequest request) {
+    return new DatetimeFormatParameters(getZoneOffset(request));
+  }
+
+  private static ZoneOffset getZoneOffset(HttpServletRequest request) {
+    if (request.getAttribute(REQUEST_ATTR_ZONE_OFFSET) instanceof ZoneOffset zoneOffset) {
+      return zoneOffset;
+    }
+
     DatetimeFormatParameters params = new DatetimeFormatParameters();
-    String strOffset = (String) request.getSession().getAttribute("zoneOffset");
 
-    // strOffset can be null due to irregular behavior,
+    // The offset can be absent due to irregular behavior,
     // such as when a system error occurs and the user is redirected to the login screen
     // even though userDetails are still in the session.
     // In that case the subsequent processing would fail with a null argument,
-    // so set it to UTC (0) when null.
+    // so set it to UTC (0) when absent or invalid.
     // This should be fine since time is unlikely to be displayed on non-login screens.
-    if (strOffset == null) {
-      strOffset = "0";
+    Integer jsMinutes = parseJsMinutes(getZoneOffsetString(request));
+    try {
+      params.setZoneOffsetWithJsMinutes(jsMinutes == null ? 0 : jsMinutes);
+
+    } catch (DateTimeException ex) {
+      params.setZoneOffsetWithJsMinutes(0);
+    }
+
+    request.setAttribute(REQUEST_ATTR_ZONE_OFFSET, params.getZoneOffset());
+    return params.getZoneOffset();
+  }
+
+  private static @Nullable String getZoneOffsetString(HttpServletRequest request) {
+    String header = request.getHeader(HEADER_ZONE_OFFSET);
+    if (header != null) {
+      return header;
     }
 
-    params.setZoneOffsetWithJsMinutes(Integer.parseInt(strOffset));
+    Cookie[] cookies = request.getCookies();
+    if (cookies != null) {
+      for (Cookie cookie : cookies) {
+        if (COOKIE_ZONE_OFFSET.equals(cookie.getName())) {
+          return cookie.getValue();
+        }
+      }
+    }
 
-    return params;
+    HttpSession session = request.getSession(false);
+    return session == null ? null : (String) session.getAttribute(SESSION_ATTR_ZONE_OFFSET);
+  }
+
+  /**
+   * Parses the value of {@code Date.getTimezoneOffset()}.
+   *
+   * @param value value, may be {@code null}
+   * @return minutes, or {@code null} if {@code value} is {@code null} or not a valid offset
+   */
+  public static @Nullable Integer parseJsMinutes(@Nullable String value) {
+    if (value == null) {
+      return null;
+    }
+
+    try {
+      int minutes = Integer.parseInt(value.trim());
+
+      // ZoneOffset supports -18:00 to +18:00.
+      return Math.abs(minutes) <= 18 * 60 ? minutes : null;
+
+    } catch (NumberFormatException ex) {
+      return null;
+    }
   }
 }
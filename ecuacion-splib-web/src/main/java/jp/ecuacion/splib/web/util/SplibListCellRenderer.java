@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jp.ecuacion.splib.core.util.internal.BoundedCache;
+import jp.ecuacion.splib.web.item.HtmlItemContainer;
+import org.jspecify.annotations.Nullable;
+import org.unbescape.html.HtmlEscape;
+
+/**
+ * Renders the read-only {@code td}s of a list row at once,
+ *     with the same markup as {@code listReadOnly*} fragments in {@code components-list.html}.
+ *
+ * <p>Columns are specified in the format of csv
+ *     like {@code 'text:name,number:price,enumText:kind'}.
+ *     Each column is written as {@code kind:itemPropertyPath}, and the kinds are:</p>
+ * <ul>
+ *   <li>{@code text}, {@code enumText}: left-aligned
+ *       ({@code enumText} shows {@code getXxxName(locale)} like {@code listReadOnlyEnumText})</li>
+ *   <li>{@code number}: right-aligned, with commas when the {@code HtmlItemNumber} needs them</li>
+ *   <li>{@code fixedLength}, {@code yearMonth}: centered</li>
+ *   <li>{@code checkbox}: disabled checkbox</li>
+ * </ul>
+ *
+ * <p>Column specs are parsed once, and whether a number column needs commas is obtained
+ *     from the {@code HtmlItem} once per record class.
+ *     Cells with options (like {@code linkUrl} or {@code rows}), inputs and buttons
+ *     are not supported. Use the fragments for them together with this.</p>
+ */
+public class SplibListCellRenderer {
+
+  private static final BoundedCache<String, List<Column>> COLUMNS = new BoundedCache<>(1000);
+
+  /**
+   * Stores whether the number item needs commas, keyed by itemPropertyPath.
+   */
+  private static final ClassValue<Map<String, Boolean>> NEEDS_COMMAS = new ClassValue<>() {
+    @Override
+    protected Map<String, Boolean> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  private static final SplibThymeleafExpressions EXPRESSIONS = new SplibThymeleafExpressions();
+
+  /**
+   * Is the kind of a column.
+   */
+  private enum Kind {
+    TEXT("text", "start"), NUMBER("number", "end"), FIXED_LENGTH("fixedLength", "center"),
+    YEAR_MONTH("yearMonth", "center"), ENUM_TEXT("enumText", "start"),
+    CHECKBOX("checkbox", "center");
+
+    private final String specName;
+    private final String align;
+
+    Kind(String specName, String align) {
+      this.specName = specName;
+      this.align = align;
+    }
+  }
+
+  private record Column(Kind kind, String itemPropertyPath) {
+  }
+
+  /**
+   * Constructs a new instance.
+   */
+  public SplibListCellRenderer() {}
+
+  /**
+   * Appends the {@code td}s of {@code rec} to {@code out}.
+   *
+   * @param out the destination
+   * @param rec record of the row
+   * @param columnSpec columns in the format of {@code kind:itemPropertyPath} csv
+   * @param locale locale
+   * @param deleted whether the row is shown with a deleted line effect
+   */
+  public void render(StringBuilder out, Object rec, String columnSpec, Locale locale,
+      boolean deleted) {
+    DecimalFormat numberFormat = null;
+
+    for (Column column : columns(columnSpec)) {
+      if (column.kind() == Kind.CHECKBOX) {
+        Object value = EXPRESSIONS.value(rec, column.itemPropertyPath());
+        boolean checked = Boolean.TRUE.equals(value) || "true".equals(value);
+        out.append("<td class=\"align-middle text-center\" rowspan=\"1\" colspan=\"1\">")
+            .append("<input class=\"form-check-input align-bottom mb-1 \" type=\"checkbox\"")
+            .append(checked ? " checked=\"checked\"" : "").append(" disabled></td>");
+        continue;
+      }
+
+      Object value;
+      if (column.kind() == Kind.ENUM_TEXT) {
+        value = EXPRESSIONS.enumName(rec, column.itemPropertyPath(), locale);
+
+      } else {
+        value = EXPRESSIONS.value(rec, column.itemPropertyPath());
+        if (column.kind() == Kind.NUMBER && value != null && needsCommas(rec, column)) {
+          if (numberFormat == null) {
+            numberFormat = new DecimalFormat("#,##0", DecimalFormatSymbols.getInstance(Locale.US));
+            // rounds like #numbers.formatDecimal, not with the default HALF_EVEN.
+            numberFormat.setRoundingMode(RoundingMode.HALF_UP);
+          }
+
+          value = formatWithCommas(numberFormat, value);
+        }
+      }
+
+      out.append("<td class=\"align-middle fs-6 text-").append(column.kind().align)
+          .append(deleted ? " text-deleted" : " text-dark")
+          .append("\" rowspan=\"1\" colspan=\"1\">")
+          .append(value == null ? "" : HtmlEscape.escapeHtml4Xml(value.toString()))
+          .append("</td>");
+    }
+  }
+
+  private static Object formatWithCommas(DecimalFormat numberFormat, Object value) {
+    if (value instanceof Number || value instanceof CharSequence cs && !cs.isEmpty()) {
+      try {
+        return numberFormat.format(new BigDecimal(value.toString().replace(",", "")));
+
+      } catch (NumberFormatException ex) {
+        // show the value as it is.
+      }
+    }
+
+    return value;
+  }
+
+  private static boolean needsCommas(Object rec, Column column) {
+    if (!(rec instanceof HtmlItemContainer container)) {
+      return false;
+    }
+
+    return NEEDS_COMMAS.get(rec.getClass()).computeIfAbsent(column.itemPropertyPath(),
+        path -> container.needsCommas("", path));
+  }
+
+  private static List<Column> columns(String columnSpec) {
+    return COLUMNS.get(columnSpec, SplibListCellRenderer::parse);
+  }
+
+  private static List<Column> parse(String columnSpec) {
+    List<Column> list = new ArrayList<>();
+    for (String str : columnSpec.split(",")) {
+      if (str.isBlank()) {
+        continue;
+      }
+
+      int colon = str.indexOf(':');
+      String kindName = colon < 0 ? "" : str.substring(0, colon).trim();
+      Kind kind = kindOf(kindName);
+      if (kind == null) {
+        throw new IllegalArgumentException("Column '" + str.trim() + "' is not in the format of "
+            + "'kind:itemPropertyPath' or its kind is unknown. columnSpec: " + columnSpec);
+      }
+
+      list.add(new Column(kind, str.substring(colon + 1).trim()));
+    }
+
+    return List.copyOf(list);
+  }
+
+  private static @Nullable Kind kindOf(String specName) {
+    for (Kind kind : Kind.values()) {
+      if (kind.specName.equals(specName)) {
+        return kind;
+      }
+    }
+
+    return null;
+  }
+}
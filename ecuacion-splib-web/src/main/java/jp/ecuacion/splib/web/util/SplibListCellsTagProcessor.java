@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util;
+
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.standard.expression.StandardExpressions;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/**
+ * Processes {@code splib:list-cells}, which replaces the element
+ *     with the read-only {@code td}s of the selected record.
+ *
+ * <p>It's used in a row of a list like
+ *     {@code <th:block splib:list-cells="'text:name,number:price'"></th:block>}.
+ *     The record is the selection target ({@code th:object}),
+ *     and the variable {@code deleted} is respected like {@code listReadOnlyCustomizable}.
+ *     See {@link SplibListCellRenderer} for the column spec.</p>
+ */
+public class SplibListCellsTagProcessor extends AbstractAttributeTagProcessor {
+
+  /** The attribute name without the prefix. */
+  public static final String ATTR_NAME = "list-cells";
+
+  private static final SplibListCellRenderer RENDERER = new SplibListCellRenderer();
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param dialectPrefix dialect prefix
+   * @param precedence precedence
+   */
+  public SplibListCellsTagProcessor(String dialectPrefix, int precedence) {
+    super(TemplateMode.HTML, dialectPrefix, null, false, ATTR_NAME, true, precedence, true);
+  }
+
+  @Override
+  protected void doProcess(ITemplateContext context, IProcessableElementTag tag,
+      AttributeName attributeName, String attributeValue,
+      IElementTagStructureHandler structureHandler) {
+
+    Object columnSpec = StandardExpressions.getExpressionParser(context.getConfiguration())
+        .parseExpression(context, attributeValue).execute(context);
+    Object rec = context.getSelectionTarget();
+    if (columnSpec == null || rec == null) {
+      structureHandler.removeElement();
+      return;
+    }
+
+    Object deleted = context.getVariable("deleted");
+
+    StringBuilder sb = new StringBuilder(256);
+    RENDERER.render(sb, rec, columnSpec.toString(), context.getLocale(),
+        Boolean.TRUE.equals(deleted));
+    structureHandler.replaceWith(sb, false);
+  }
+}
@@ -17,16 +17,29 @@ package jp.ecuacion.splib.web.util;
 
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 import jp.ecuacion.splib.web.constant.LoginState;
+import org.jspecify.annotations.Nullable;
 import org.springframework.stereotype.Component;
 
 /**
  * Resolves the login state from the current request URL.
+ *
+ * <p>The login state is resolved once per request and kept as a request attribute,
+ *     so calls after the first one are a single attribute lookup.
+ *     Resolution walks a prefix tree of url path segments built from {@link LoginState}
+ *     at class initialization, without regular expressions or substrings.</p>
  */
 @Component
 public class SplibLoginStateUtil {
 
+  private static final String REQUEST_ATTR_LOGIN_STATE =
+      SplibLoginStateUtil.class.getName() + ".loginState";
+
+  /** The root of the prefix tree. It has no login state itself. */
+  private static final Node ROOT = buildTree();
+
   private HttpServletRequest request;
 
   private ServletContext servletContext;
@@ -49,11 +62,27 @@ public class SplibLoginStateUtil {
    */
   public String getLoginState() {
     String urlPathWithContextPath = request.getRequestURI();
+
+    // The request URI is kept with the result
+    // because it changes in the same request on forward or error dispatch.
+    if (request.getAttribute(REQUEST_ATTR_LOGIN_STATE) instanceof ResolvedLoginState resolved
+        && resolved.requestUri().equals(urlPathWithContextPath)) {
+      return resolved.loginState();
+    }
+
+    String loginState = resolveLoginState(urlPathWithContextPath);
+    request.setAttribute(REQUEST_ATTR_LOGIN_STATE,
+        new ResolvedLoginState(urlPathWithContextPath, loginState));
+
+    return loginState;
+  }
+
+  private String resolveLoginState(String urlPathWithContextPath) {
     String contextPath = servletContext.getContextPath();
 
     // From testing, servletContext.getContextPath() (A) has a leading "/" like "/contextPath",
     // and request.getRequestURI() (B) is like "/contextPath/public/...",
-    // so B.replaceFirst(A) is expected to cleanly remove the contextPath prefix,
+    // so skipping A at the head of B is expected to cleanly remove the contextPath prefix,
     // resulting in "/public/..." just as when there is no contextPath.
     // However, to guard against irregularities such as getContextPath() returning a path
     // without a leading "/", add a check here as a precaution.
@@ -65,34 +94,101 @@ public class SplibLoginStateUtil {
               + ", request.getRequestURI() = " + urlPathWithContextPath);
     }
 
-    String urlPath = urlPathWithContextPath;
-
     // In addition to contextPath == "", also handle contextPath == "/"; ignore both cases.
-    if (!contextPath.isEmpty() && !contextPath.equals("/")) {
-      urlPath = urlPath.replaceFirst(servletContext.getContextPath(), "");
-    }
-
-    String tmp = urlPath.substring(1);
-    String loginState = tmp.substring(0, tmp.indexOf("/"));
+    int pos = !contextPath.isEmpty() && !contextPath.equals("/")
+        && urlPathWithContextPath.startsWith(contextPath) ? contextPath.length() : 0;
 
-    // If loginState is "ecuacion", also append the next path segment to loginState.
+    // Skip the leading "/", then follow the tree segment by segment.
     // e.g. /ecuacion/public/... -> "ecuacion-public"
-    if (loginState.equals("ecuacion")) {
-      // At this point tmp is in the state "ecuacion/public/..." with the leading "/" removed.
-      // Extract "public" from it.
-      tmp = tmp.substring(tmp.indexOf("/") + 1);
-      tmp = tmp.substring(0, tmp.indexOf("/"));
-      loginState = loginState + "-" + tmp;
+    pos++;
+    Node node = ROOT;
+    while (true) {
+      Node child = node.findChild(urlPathWithContextPath, pos);
+      if (child == null) {
+        break;
+      }
+
+      node = child;
+      pos += child.segment.length() + 1;
     }
 
     // Check that the loginState is a valid one.
-    final String finalLoginState = loginState;
-    if (Arrays.stream(LoginState.values())
-        .noneMatch(e -> e.getCode().equals(finalLoginState))) {
-      throw new RuntimeException(
-          "loginState not appropriate: loginState = " + loginState + ", urlPath = " + urlPath);
+    String loginState = node.loginState;
+    if (loginState == null) {
+      throw new RuntimeException("loginState not appropriate: urlPath = "
+          + urlPathWithContextPath.substring(Math.max(0, pos - 1)) + ", requestURI = "
+          + urlPathWithContextPath);
     }
 
     return loginState;
   }
+
+  private static Node buildTree() {
+    Node root = new Node("", null);
+    for (LoginState loginState : LoginState.values()) {
+      // Each "-" in the code corresponds to "/" in the url ("ecuacion-public" -> ecuacion/public).
+      String[] segments = loginState.getCode().split("-");
+      Node node = root;
+      for (String segment : segments) {
+        node = node.getOrAddChild(segment);
+      }
+
+      node.loginState = loginState.getCode();
+    }
+
+    return root;
+  }
+
+  /**
+   * Is the login state resolved for a request URI.
+   */
+  private record ResolvedLoginState(String requestUri, String loginState) {
+  }
+
+  /**
+   * Is a node of the prefix tree, which corresponds to a url path segment.
+   */
+  private static class Node {
+
+    private final String segment;
+
+    @Nullable
+    private String loginState;
+
+    private final List<Node> children = new ArrayList<>();
+
+    Node(String segment, @Nullable String loginState) {
+      this.segment = segment;
+      this.loginState = loginState;
+    }
+
+    Node getOrAddChild(String segment) {
+      for (Node child : children) {
+        if (child.segment.equals(segment)) {
+          return child;
+        }
+      }
+
+      Node child = new Node(segment, null);
+      children.add(child);
+      return child;
+    }
+
+    /**
+     * Returns the child whose segment is at {@code pos} of {@code path}
+     *     and is followed by "/".
+     */
+    @Nullable
+    Node findChild(String path, int pos) {
+      for (Node child : children) {
+        int end = pos + child.segment.length();
+        if (path.startsWith(child.segment, pos) && end < path.length()
+            && path.charAt(end) == '/') {
+          return child;
+        }
+      }
+
+      return null;
+    }
+  }
 }
@@ -15,9 +15,19 @@
  */
 package jp.ecuacion.splib.web.util;
 
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.LongSupplier;
+import jp.ecuacion.lib.core.util.PropertiesFileUtil;
 import jp.ecuacion.splib.web.constant.SplibWebConstants;
+import jp.ecuacion.splib.web.form.SplibGeneralForm;
+import org.jspecify.annotations.Nullable;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
@@ -25,11 +35,86 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 /**
  * Saves the current {@code Model} into flash attributes so it can be restored on the
  * redirect target page (paired with {@code SplibControllerAdvice} which restores it).
+ *
+ * <p>How the snapshot is taken and where it is kept are controlled by
+ *     {@code application.properties}:</p>
+ * <ul>
+ *   <li>{@value #PROP_SNAPSHOT_MODE}: {@code all} (default) copies the whole model,
+ *       {@code forms-and-messages} keeps only forms, {@code BindingResult}s and
+ *       warning / success-flag entries. Controllers, beans and lists are rebuilt
+ *       on the redirect target anyway, so they are not worth carrying over.</li>
+ *   <li>{@value #PROP_STORE}: {@code flash} (default) puts the snapshot itself into
+ *       the flash map (which is normally backed by the session),
+ *       {@code server-cache} keeps it in a bounded in-memory cache and puts only
+ *       a short redirect id into the flash map. Since the cache is local to the JVM,
+ *       {@code server-cache} requires sticky sessions when the app runs on multiple nodes.</li>
+ * </ul>
+ *
+ * <p>The settings are read on the first use, and read again after {@link #clearSettings()},
+ *     which is called when {@code ConfigController} clears the cache of properties files.</p>
  */
 public class SplibSavedModelUtil {
 
+  static final String PROP_SNAPSHOT_MODE = "jp.ecuacion.splib.web.saved-model.snapshot-mode";
+  static final String PROP_STORE = "jp.ecuacion.splib.web.saved-model.store";
+  static final String PROP_CACHE_MAX_SIZE =
+      "jp.ecuacion.splib.web.saved-model.server-cache.max-size";
+  static final String PROP_CACHE_TTL_SECONDS =
+      "jp.ecuacion.splib.web.saved-model.server-cache.ttl-seconds";
+
+  static final String SNAPSHOT_MODE_FORMS_AND_MESSAGES = "forms-and-messages";
+  static final String STORE_SERVER_CACHE = "server-cache";
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private static final ServerCache SERVER_CACHE = new ServerCache(System::currentTimeMillis);
+
+  private static volatile @Nullable Settings settings;
+
   private SplibSavedModelUtil() {}
 
+  /**
+   * Keeps the settings of saved models, parsed into typed values once.
+   */
+  static final class Settings {
+
+    private final boolean formsAndMessagesOnly;
+    private final boolean storedInServerCache;
+    private final int serverCacheMaxSize;
+    private final long serverCacheTtlMillis;
+
+    /**
+     * Constructs a new instance which reads the settings with {@code lookUp}.
+     *
+     * @param lookUp returns the value of the key, or the second argument when it's not set
+     */
+    Settings(BinaryOperator<String> lookUp) {
+      formsAndMessagesOnly =
+          SNAPSHOT_MODE_FORMS_AND_MESSAGES.equals(lookUp.apply(PROP_SNAPSHOT_MODE, "all"));
+      storedInServerCache = STORE_SERVER_CACHE.equals(lookUp.apply(PROP_STORE, "flash"));
+      serverCacheMaxSize = Integer.parseInt(lookUp.apply(PROP_CACHE_MAX_SIZE, "1000"));
+      serverCacheTtlMillis = TimeUnit.SECONDS
+          .toMillis(Long.parseLong(lookUp.apply(PROP_CACHE_TTL_SECONDS, "300")));
+    }
+  }
+
+  private static Settings getSettings() {
+    Settings current = settings;
+    if (current == null) {
+      current = new Settings(PropertiesFileUtil::getApplicationOrElse);
+      settings = current;
+    }
+
+    return current;
+  }
+
+  /**
+   * Discards the settings so that they're read again on the next use.
+   */
+  public static void clearSettings() {
+    settings = null;
+  }
+
   /**
    * Saves a snapshot of {@code model} into {@code redirectAttributes} as a flash attribute
    * keyed by {@link SplibWebConstants#KEY_SAVED_MODEL}.
@@ -48,14 +133,31 @@ public class SplibSavedModelUtil {
    *     {@code SplibExceptionHandler#handleRedirectNeededExceptions}) with that stale,
    *     usually-empty copy.</p>
    *
+   * <p>The value stored in the flash attribute is either the snapshot map itself
+   *     or a redirect id pointing to the server-side cache,
+   *     so the redirect target must read it with {@link #restore(Object)}.</p>
+   *
    * @param model model
    * @param redirectAttributes redirectAttributes
    * @param takeOverMessages whether to carry over warning / error / success messages
    */
   public static void saveToFlash(Model model, RedirectAttributes redirectAttributes,
       boolean takeOverMessages) {
+    saveToFlash(model, redirectAttributes, takeOverMessages, getSettings());
+  }
+
+  static void saveToFlash(Model model, RedirectAttributes redirectAttributes,
+      boolean takeOverMessages, Settings settings) {
+
+    boolean formsAndMessagesOnly = settings.formsAndMessagesOnly;
+
+    Map<String, Object> modelSnapshot = new HashMap<>();
+    for (Map.Entry<String, Object> entry : model.asMap().entrySet()) {
+      if (!formsAndMessagesOnly || isFormOrMessage(entry.getKey(), entry.getValue())) {
+        modelSnapshot.put(entry.getKey(), entry.getValue());
+      }
+    }
 
-    Map<String, Object> modelSnapshot = new HashMap<>(model.asMap());
     modelSnapshot.remove(SplibWebConstants.KEY_GLOBAL_ERRORS);
 
     if (!takeOverMessages) {
@@ -65,6 +167,101 @@ public class SplibSavedModelUtil {
           .removeIf(entry -> entry.getKey().startsWith(BindingResult.MODEL_KEY_PREFIX));
     }
 
-    redirectAttributes.addFlashAttribute(SplibWebConstants.KEY_SAVED_MODEL, modelSnapshot);
+    Object flashValue = modelSnapshot;
+    if (settings.storedInServerCache) {
+      flashValue = SERVER_CACHE.put(modelSnapshot, settings);
+    }
+
+    redirectAttributes.addFlashAttribute(SplibWebConstants.KEY_SAVED_MODEL, flashValue);
+  }
+
+  /**
+   * Returns the model snapshot saved by {@link #saveToFlash(Model, RedirectAttributes, boolean)}.
+   *
+   * <p>When the snapshot was kept in the server-side cache, it is removed from the cache
+   *     since a flash attribute is consumed only once.</p>
+   *
+   * @param savedValue the value of the flash attribute
+   *     {@link SplibWebConstants#KEY_SAVED_MODEL}, may be {@code null}
+   * @return the snapshot, or {@code null} if {@code savedValue} is {@code null}
+   *     or the cached snapshot has already expired
+   */
+  @SuppressWarnings("unchecked")
+  public static @Nullable Map<String, Object> restore(@Nullable Object savedValue) {
+    if (savedValue instanceof String redirectId) {
+      return SERVER_CACHE.remove(redirectId);
+    }
+
+    return savedValue instanceof Map<?, ?> map ? (Map<String, Object>) map : null;
+  }
+
+  private static boolean isFormOrMessage(String key, @Nullable Object value) {
+    return value instanceof SplibGeneralForm || key.startsWith(BindingResult.MODEL_KEY_PREFIX)
+        || key.equals(SplibWebConstants.KEY_WARN_MESSAGE)
+        || key.equals(SplibWebConstants.KEY_NEEDS_SUCCESS_MESSAGE)
+        || key.equals(SplibWebConstants.KEY_FLASH_FIELD_ERRORS);
+  }
+
+  /**
+   * Keeps model snapshots in memory, bounded both by the number of entries and by time.
+   *
+   * <p>Entries are kept in insertion order, which is also the order of expiry.
+   *     Expired entries at the head are dropped on each {@code put},
+   *     then the eldest ones while the size exceeds the limit.
+   *     Expired ones not dropped yet are treated as absent on lookup.</p>
+   */
+  static class ServerCache {
+
+    private final LongSupplier currentTimeMillis;
+
+    private final LinkedHashMap<String, Entry> map = new LinkedHashMap<>();
+
+    private record Entry(Map<String, Object> snapshot, long expiresAtMillis) {
+    }
+
+    ServerCache(LongSupplier currentTimeMillis) {
+      this.currentTimeMillis = currentTimeMillis;
+    }
+
+    String put(Map<String, Object> snapshot, Settings settings) {
+      byte[] bytes = new byte[12];
+      RANDOM.nextBytes(bytes);
+      String redirectId = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+      int maxSize = settings.serverCacheMaxSize;
+      long now = currentTimeMillis.getAsLong();
+      synchronized (map) {
+        Iterator<Entry> it = map.values().iterator();
+        while (it.hasNext()) {
+          Entry eldest = it.next();
+          if (eldest.expiresAtMillis() >= now && map.size() < maxSize) {
+            break;
+          }
+          it.remove();
+        }
+
+        map.put(redirectId,
+            new Entry(snapshot, now + settings.serverCacheTtlMillis));
+      }
+
+      return redirectId;
+    }
+
+    @Nullable
+    Map<String, Object> remove(String redirectId) {
+      Entry entry;
+      synchronized (map) {
+        entry = map.remove(redirectId);
+      }
+
+      return entry == null || entry.expiresAtMillis() < currentTimeMillis.getAsLong() ? null
+          : entry.snapshot();
+    }
+
+    int size() {
+      synchronized (map) {
+        return map.size();
+      }
+    }
   }
 }
@@ -15,8 +15,11 @@
  */
 package jp.ecuacion.splib.web.util;
 
+import java.nio.charset.StandardCharsets;
+import java.util.function.BinaryOperator;
 import jp.ecuacion.lib.core.util.PropertiesFileUtil;
 import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
 
 /**
  * Builds a {@code <style>} block overriding bootstrap theme color css variables
@@ -29,7 +32,12 @@ import org.springframework.stereotype.Component;
  *     Outputting the same selector again after the app's own bootstrap.min.css is loaded
  *     lets the values specified here win, purely by css cascade order.</p>
  *
- * <p>It's supposed to be called from thymeleaf (ex. {@code bootstrap/page-base}).</p>
+ * <p>The css is built once when this is instantiated,
+ *     and built again by {@link #rebuild()},
+ *     which is called when {@code ConfigController} clears the cache of properties files.
+ *     {@code bootstrap/page-base} links it as {@code /public/splib/theme.css}
+ *     (see {@code SplibThemeCssController}) with {@link #getVersion()} in the url,
+ *     instead of writing it into every page.</p>
  */
 @Component("themeColorUtil")
 public class SplibThemeColorUtil {
@@ -39,10 +47,42 @@ public class SplibThemeColorUtil {
   private static final String[] SUFFIXES = {"navbar", "subtitle", "btn", "btn-danger", "footer",
       "paging-btn", "tbl-header", "msg-success-bg", "msg-error-bg"};
 
+  private final BinaryOperator<String> lookUp;
+
+  /** The css and its version, replaced together so that they always match. */
+  private volatile Theme theme;
+
+  private record Theme(String css, String version) {
+  }
+
   /**
    * Constructs a new instance.
    */
-  public SplibThemeColorUtil() {}
+  public SplibThemeColorUtil() {
+    this(PropertiesFileUtil::getApplicationOrElse);
+  }
+
+  /**
+   * Constructs a new instance which reads the colors with {@code lookUp}.
+   *
+   * @param lookUp returns the value of the key, or the second argument when it's not set
+   */
+  SplibThemeColorUtil(BinaryOperator<String> lookUp) {
+    this.lookUp = lookUp;
+    this.theme = newTheme();
+  }
+
+  /**
+   * Builds the css again from the current properties.
+   */
+  public void rebuild() {
+    theme = newTheme();
+  }
+
+  private Theme newTheme() {
+    String css = buildCss();
+    return new Theme(css, DigestUtils.md5DigestAsHex(css.getBytes(StandardCharsets.UTF_8)));
+  }
 
   /**
    * Returns whether any of the theme color keys exists in application[...].properties.
@@ -50,17 +90,11 @@ public class SplibThemeColorUtil {
    * @return boolean
    */
   public boolean hasAnyThemeColor() {
-    for (String suffix : SUFFIXES) {
-      if (PropertiesFileUtil.hasApplication(KEY_PREFIX + suffix)) {
-        return true;
-      }
-    }
-
-    return false;
+    return !theme.css().isEmpty();
   }
 
   /**
-   * Builds the css string to override theme color variables,
+   * Returns the css string to override theme color variables,
    *     using only the keys actually set in application[...].properties.
    * Returns an empty string when none of the keys are set.
    *
@@ -68,15 +102,27 @@ public class SplibThemeColorUtil {
    *     --bs-color-navbar-rgb:79,167,255;}}
    */
   public String buildThemeColorCssOrEmpty() {
+    return theme.css();
+  }
+
+  /**
+   * Returns the hex string of the hash of the css, used in the url and as the ETag.
+   *
+   * @return version
+   */
+  public String getVersion() {
+    return theme.version();
+  }
+
+  private String buildCss() {
     StringBuilder sb = new StringBuilder();
 
     for (String suffix : SUFFIXES) {
-      String key = KEY_PREFIX + suffix;
-      if (!PropertiesFileUtil.hasApplication(key)) {
+      String hex = lookUp.apply(KEY_PREFIX + suffix, "");
+      if (hex.isEmpty()) {
         continue;
       }
 
-      String hex = PropertiesFileUtil.getApplication(key);
       String rgb = hexToRgb(hex);
       sb.append("--bs-color-").append(suffix).append(':').append(hex).append(';');
       sb.append("--bs-color-").append(suffix).append("-rgb:").append(rgb).append(';');
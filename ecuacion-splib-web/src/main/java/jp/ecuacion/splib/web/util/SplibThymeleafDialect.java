@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util;
+
+import java.util.Set;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.dialect.IExpressionObjectDialect;
+import org.thymeleaf.expression.IExpressionObjectFactory;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.standard.StandardDialect;
+
+/**
+ * Is the thymeleaf dialect of splib, which provides the expression object {@code #splib}
+ *     and the attribute {@code splib:list-cells}.
+ *
+ * <p>Spring Boot registers dialect beans to the template engine automatically.
+ *     See {@link SplibThymeleafExpressions} and {@link SplibListCellsTagProcessor}
+ *     for the features.</p>
+ */
+@Component
+public class SplibThymeleafDialect extends AbstractProcessorDialect
+    implements IExpressionObjectDialect {
+
+  /** The name of the expression object. */
+  public static final String EXPRESSION_OBJECT_NAME = "splib";
+
+  /** The prefix of the attributes. */
+  public static final String PREFIX = "splib";
+
+  private static final SplibThymeleafExpressions EXPRESSIONS = new SplibThymeleafExpressions();
+
+  private final IExpressionObjectFactory factory = new IExpressionObjectFactory() {
+
+    @Override
+    public Set<String> getAllExpressionObjectNames() {
+      return Set.of(EXPRESSION_OBJECT_NAME);
+    }
+
+    @Override
+    public Object buildObject(IExpressionContext context, String expressionObjectName) {
+      return EXPRESSIONS;
+    }
+
+    @Override
+    public boolean isCacheable(String expressionObjectName) {
+      return true;
+    }
+  };
+
+  /**
+   * Constructs a new instance.
+   */
+  public SplibThymeleafDialect() {
+    super("Splib Dialect", PREFIX, StandardDialect.PROCESSOR_PRECEDENCE);
+  }
+
+  @Override
+  public Set<IProcessor> getProcessors(String dialectPrefix) {
+    return Set.of(new SplibListCellsTagProcessor(dialectPrefix, getDialectProcessorPrecedence()));
+  }
+
+  @Override
+  public IExpressionObjectFactory getExpressionObjectFactory() {
+    return factory;
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util;
+
+import java.util.Locale;
+import jp.ecuacion.lib.core.item.ItemContainer;
+import jp.ecuacion.splib.core.util.internal.BoundedCache;
+import jp.ecuacion.splib.web.item.HtmlItemContainer;
+import jp.ecuacion.splib.web.util.internal.PropertyPathAccessor;
+import org.apache.commons.lang3.StringUtils;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Is the expression object {@code #splib} provided by {@link SplibThymeleafDialect}.
+ *
+ * <p>It resolves values, select lists and item names from {@code itemPropertyPath}s
+ *     like {@code ${#splib.value(rec, itemPropertyPath)}}.
+ *     Compared to preprocessing like {@code *{__${itemPropertyPath}__}},
+ *     the expression text stays the same for all the items and records,
+ *     so thymeleaf parses it only once and the values are read through cached accessors.</p>
+ */
+public class SplibThymeleafExpressions {
+
+  private static final BoundedCache<String, String> SELECT_LIST_METHOD_NAMES =
+      new BoundedCache<>(10000);
+
+  private final SplibThymeleafStringUtil strUtil = new SplibThymeleafStringUtil();
+
+  /**
+   * Constructs a new instance.
+   */
+  public SplibThymeleafExpressions() {}
+
+  /**
+   * Returns the value of {@code itemPropertyPath}.
+   *
+   * <p>{@code ${#splib.value(#object, 'acc.name')}} is equivalent to {@code *{acc.name}}
+   *     except that it returns {@code null} when {@code acc} is {@code null}.</p>
+   *
+   * @param target the object from which {@code itemPropertyPath} starts
+   * @param itemPropertyPath itemPropertyPath
+   * @return the value, may be {@code null}
+   */
+  public @Nullable Object value(@Nullable Object target, String itemPropertyPath) {
+    return PropertyPathAccessor.getValue(target, itemPropertyPath);
+  }
+
+  /**
+   * Returns the display name of the enum value of {@code itemPropertyPath}.
+   *
+   * <p>When {@code itemPropertyPath} is {@code acc.kind},
+   *     it returns {@code getAcc().getKindName(locale)}.</p>
+   *
+   * @param target the object from which {@code itemPropertyPath} starts
+   * @param itemPropertyPath itemPropertyPath
+   * @param locale locale
+   * @return the display name, or {@code null} if a value on the way is {@code null}
+   */
+  public @Nullable Object enumName(@Nullable Object target, String itemPropertyPath,
+      Locale locale) {
+    Object parent = parentOf(target, itemPropertyPath);
+    return parent == null ? null
+        : PropertyPathAccessor.invoke(parent, lastGetterName(itemPropertyPath) + "Name", locale);
+  }
+
+  /**
+   * Returns the select list of {@code itemPropertyPath}.
+   *
+   * <p>When {@code itemPropertyPath} is {@code acc.name},
+   *     it returns {@code getAcc_NameList()} of {@code target}.
+   *     See {@link SplibThymeleafStringUtil#selectListMethodName(String)}.</p>
+   *
+   * @param target record
+   * @param itemPropertyPath itemPropertyPath
+   * @return the select list
+   */
+  public @Nullable Object selectList(Object target, String itemPropertyPath) {
+    return PropertyPathAccessor.invoke(target, selectListMethodName(itemPropertyPath));
+  }
+
+  /**
+   * Returns the select list of {@code itemPropertyPath} with locale and options.
+   *
+   * @param target record
+   * @param itemPropertyPath itemPropertyPath
+   * @param locale locale
+   * @param options options, may be {@code null}
+   * @return the select list
+   */
+  public @Nullable Object selectList(Object target, String itemPropertyPath, Locale locale,
+      @Nullable String options) {
+    return PropertyPathAccessor.invoke(target, selectListMethodName(itemPropertyPath), locale,
+        options == null ? "" : options);
+  }
+
+  /**
+   * Returns the select list of the enum of {@code itemPropertyPath}.
+   *
+   * <p>When {@code itemPropertyPath} is {@code acc.kind},
+   *     it returns {@code getAcc().getKindList(locale, options)}.
+   *     See {@link SplibThymeleafStringUtil#selectListMethodNameForEnum(String)}.</p>
+   *
+   * @param target record
+   * @param itemPropertyPath itemPropertyPath
+   * @param locale locale
+   * @param options options, may be {@code null}
+   * @return the select list, or {@code null} if a value on the way is {@code null}
+   */
+  public @Nullable Object enumSelectList(Object target, String itemPropertyPath, Locale locale,
+      @Nullable String options) {
+    Object parent = parentOf(target, itemPropertyPath);
+    return parent == null ? null
+        : PropertyPathAccessor.invoke(parent, lastGetterName(itemPropertyPath) + "List", locale,
+            options == null ? "" : options);
+  }
+
+  /**
+   * Returns the item name key of {@code itemPropertyPath}.
+   *
+   * <p>The message is obtained with {@code ${#messages.msg(itemNameKey)}}.</p>
+   *
+   * @param container record which has the item
+   * @param itemPropertyPath itemPropertyPath
+   * @return item name key
+   */
+  public String itemNameKey(ItemContainer container, String itemPropertyPath) {
+    return container.getItem(itemPropertyPath).getItemNameKey();
+  }
+
+  /**
+   * Returns whether the item is required to input something.
+   *
+   * @param container record which has the item
+   * @param itemPropertyPath itemPropertyPath
+   * @param loginState loginState, may be {@code null}
+   * @param rolesOrAuthorities {@code #authentication.principal.authorities},
+   *     or an empty string when not logged in
+   * @return boolean
+   * @see HtmlItemContainer#isNotEmpty(String, String, String)
+   */
+  public boolean isNotEmpty(HtmlItemContainer container, String itemPropertyPath,
+      @Nullable String loginState, @Nullable Object rolesOrAuthorities) {
+    return container.isNotEmpty(itemPropertyPath, loginState == null ? "" : loginState,
+        rolesOrAuthorities == null ? "" : rolesOrAuthorities.toString());
+  }
+
+  private static @Nullable Object parentOf(@Nullable Object target, String itemPropertyPath) {
+    int lastDot = itemPropertyPath.lastIndexOf('.');
+    return lastDot < 0 ? target
+        : PropertyPathAccessor.getValue(target, itemPropertyPath.substring(0, lastDot));
+  }
+
+  private static String lastGetterName(String itemPropertyPath) {
+    return "get"
+        + StringUtils.capitalize(itemPropertyPath.substring(itemPropertyPath.lastIndexOf('.') + 1));
+  }
+
+  private String selectListMethodName(String itemPropertyPath) {
+    return SELECT_LIST_METHOD_NAMES.get(itemPropertyPath, strUtil::selectListMethodName);
+  }
+}
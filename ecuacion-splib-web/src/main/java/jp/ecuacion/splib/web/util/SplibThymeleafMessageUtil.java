@@ -17,6 +17,8 @@ package jp.ecuacion.splib.web.util;
 
 import java.util.Locale;
 import jp.ecuacion.lib.core.util.PropertiesFileUtil;
+import jp.ecuacion.splib.core.util.SplibMessageCacheUtil;
+import jp.ecuacion.splib.core.util.SplibMessageCacheUtil.Kind;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
@@ -47,16 +49,14 @@ public class SplibThymeleafMessageUtil {
       return false;
     }
 
-    boolean hasMsg = PropertiesFileUtil.hasMessage(key);
-    boolean hasStr = PropertiesFileUtil.hasConstant(key);
-    boolean hasItem = PropertiesFileUtil.hasItemName(key);
-
-    return hasMsg || hasStr || hasItem;
+    return SplibMessageCacheUtil.getKind(key) != Kind.NONE;
   }
 
   /**
    * Gets message or itemName from the specified key.
    * 
+   * <p>Values without {@code args} are cached in {@code SplibMessageCacheUtil}.</p>
+   *
    * @param locale locale
    * @param key key
    * @return String
@@ -68,24 +68,24 @@ public class SplibThymeleafMessageUtil {
       return "";
     }
 
-    boolean hasMsg = PropertiesFileUtil.hasMessage(key);
-    boolean hasStr = PropertiesFileUtil.hasConstant(key);
-    boolean hasItem = PropertiesFileUtil.hasItemName(key);
+    Kind kind = SplibMessageCacheUtil.getKind(key);
 
     // Return id when id not exist in both.
-    if (!hasMsg && !hasStr && !hasItem) {
+    if (kind == Kind.NONE) {
       return key;
     }
 
+    if (args.length == 0 || kind == Kind.ITEM_NAME) {
+      String value = SplibMessageCacheUtil.getTemplate(key, locale);
+      return value == null ? key : value;
+    }
+
     // Even when hasMsg == false && hasItem = false, Exception doesn't emerge.
-    if (hasMsg) {
+    if (kind == Kind.MESSAGE) {
       return PropertiesFileUtil.getMessage(locale, key, (Object[]) args);
 
-    } else if (hasStr) {
-      return PropertiesFileUtil.getConstant(key, (Object[]) args);
-
     } else {
-      return PropertiesFileUtil.getItemName(locale, key);
+      return PropertiesFileUtil.getConstant(key, (Object[]) args);
     }
   }
 
@@ -15,17 +15,23 @@
  */
 package jp.ecuacion.splib.web.util;
 
+import java.util.Optional;
 import jp.ecuacion.lib.core.util.PropertiesFileUtil;
+import jp.ecuacion.splib.core.util.internal.BoundedCache;
 import org.springframework.stereotype.Component;
 
 /**
  * Offers access to application[...].properties. It's supposed to called from thymeleaf.
  * 
- * <p>It calls PropertiesFileUtil inside.</p>
+ * <p>It calls PropertiesFileUtil inside.
+ *     Since templates ask the same keys on every render, the result of each key is cached
+ *     until {@link #clearCache()} is called.</p>
  */
 @Component("propUtil")
 public class SplibThymeleafPropertiesUtil {
 
+  private static final BoundedCache<String, Optional<String>> VALUES = new BoundedCache<>(1000);
+
   /**
    * Constructs a new instance.
    */
@@ -38,7 +44,7 @@ public class SplibThymeleafPropertiesUtil {
    * @return boolean
    */
   public boolean hasKey(String key) {
-    return PropertiesFileUtil.hasApplication(key);
+    return lookUp(key).isPresent();
   }
 
   /**
@@ -48,7 +54,8 @@ public class SplibThymeleafPropertiesUtil {
    * @return String
    */
   public String getValue(String key) {
-    return PropertiesFileUtil.getApplication(key);
+    // PropertiesFileUtil throws the exception for the nonexistent key.
+    return lookUp(key).orElseGet(() -> PropertiesFileUtil.getApplication(key));
   }
 
   /**
@@ -59,7 +66,7 @@ public class SplibThymeleafPropertiesUtil {
    * @return value
    */
   public String getValueOrElse(String key, String defaultValue) {
-    return hasKey(key) ? getValue(key) : defaultValue;
+    return lookUp(key).orElse(defaultValue);
   }
 
   /**
@@ -76,11 +83,22 @@ public class SplibThymeleafPropertiesUtil {
    */
   public String getLoginStateDependentValueOrElse(String loginState, String key,
       String defaultValue) {
-    String value = getValueOrElse(key, defaultValue);
-    String accountValue = getValueOrElse(key + "-account", defaultValue);
-    String adminValue = getValueOrElse(key + "-admin", defaultValue);
+    String actualKey = loginState.equals("account") ? key + "-account"
+        : (loginState.equals("admin") ? key + "-admin" : key);
+
+    return getValueOrElse(actualKey, defaultValue);
+  }
+
+  /**
+   * Clears the cached values.
+   */
+  public static void clearCache() {
+    VALUES.clear();
+  }
 
-    return loginState.equals("account") ? accountValue
-        : (loginState.equals("admin") ? adminValue : value);
+  private static Optional<String> lookUp(String key) {
+    return VALUES.get(key, k -> PropertiesFileUtil.hasApplication(k)
+        ? Optional.of(PropertiesFileUtil.getApplication(k))
+        : Optional.empty());
   }
 }
@@ -16,7 +16,6 @@
 package jp.ecuacion.splib.web.util;
 
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.validation.Validation;
 import java.lang.reflect.Field;
 import jp.ecuacion.lib.core.util.ItemUtil;
 import jp.ecuacion.lib.core.violation.BusinessViolation;
@@ -24,6 +23,7 @@ import jp.ecuacion.lib.core.violation.Violations;
 import jp.ecuacion.splib.web.form.SplibGeneralForm;
 import jp.ecuacion.splib.web.item.HtmlItemContainer;
 import jp.ecuacion.splib.web.util.SplibSecurityUtil.RolesAndAuthoritiesBean;
+import jp.ecuacion.splib.web.util.internal.SharedValidator;
 import jp.ecuacion.splib.web.util.internal.SplibControllerPrepareHelper;
 import org.jspecify.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -81,7 +81,7 @@ public class SplibValidationHelper {
    */
   public void validate(Object form) {
     Violations violations = new Violations();
-    violations.addAll(Validation.buildDefaultValidatorFactory().getValidator().validate(form));
+    violations.addAll(SharedValidator.get().validate(form));
     validateHtmlItemContainers(form, violations);
     violations.throwIfAny();
   }
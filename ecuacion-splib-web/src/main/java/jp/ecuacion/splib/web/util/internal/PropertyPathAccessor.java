@@ -0,0 +1,249 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jp.ecuacion.splib.core.util.internal.BoundedCache;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Reads values with {@code itemPropertyPath}s like {@code acc.name} or {@code recList[2].name}
+ *     through {@code MethodHandle}s cached per class.
+ *
+ * <p>It's used from thymeleaf instead of building SpEL expressions from property paths,
+ *     which would make a new expression to parse and cache for every distinct path.</p>
+ */
+public final class PropertyPathAccessor {
+
+  /**
+   * Stores getters keyed by property name, and methods keyed by name and argument types.
+   */
+  private static final ClassValue<Map<String, MethodHandle>> HANDLES = new ClassValue<>() {
+    @Override
+    protected Map<String, MethodHandle> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  /**
+   * Stores parsed segments keyed by path.
+   *
+   * <p>Paths with list indexes like {@code list[3].name} can be unbounded,
+   *     so the number of paths cached is limited.</p>
+   */
+  private static final BoundedCache<String, List<Segment>> SEGMENTS = new BoundedCache<>(10000);
+
+  private PropertyPathAccessor() {}
+
+  /**
+   * Returns the value of {@code itemPropertyPath}.
+   *
+   * @param target the object from which the path starts
+   * @param itemPropertyPath itemPropertyPath
+   * @return the value, or {@code null} if {@code target} or any value on the way is null
+   */
+  public static @Nullable Object getValue(@Nullable Object target, String itemPropertyPath) {
+    Object obj = target;
+    for (Segment segment : segments(itemPropertyPath)) {
+      if (obj == null) {
+        return null;
+      }
+
+      obj = segment.index() < 0 ? getProperty(obj, segment.name()) : getElement(obj, segment);
+    }
+
+    return obj;
+  }
+
+  /**
+   * Invokes the public method of {@code target}.
+   *
+   * <p>When {@code target} has overloaded methods of the name and the number of arguments,
+   *     the most specific one accepting the classes of {@code args} is invoked,
+   *     as the Java compiler would choose.</p>
+   *
+   * @param target target
+   * @param methodName method name
+   * @param args arguments
+   * @return the return value
+   */
+  public static @Nullable Object invoke(Object target, String methodName, Object... args) {
+    Class<?>[] argTypes = new Class<?>[args.length];
+    StringBuilder key = new StringBuilder(methodName).append('(');
+    for (int i = 0; i < args.length; i++) {
+      argTypes[i] = args[i].getClass();
+      key.append(argTypes[i].getName()).append(',');
+    }
+
+    MethodHandle handle = HANDLES.get(target.getClass()).computeIfAbsent(key.toString(),
+        k -> method(target.getClass(), methodName, argTypes));
+
+    Object[] handleArgs = new Object[args.length + 1];
+    handleArgs[0] = target;
+    System.arraycopy(args, 0, handleArgs, 1, args.length);
+
+    return invoke(handle, handleArgs);
+  }
+
+  private static @Nullable Object getProperty(Object obj, String name) {
+    if (obj instanceof Map<?, ?> map) {
+      return map.get(name);
+    }
+
+    MethodHandle handle =
+        HANDLES.get(obj.getClass()).computeIfAbsent(name, key -> getter(obj.getClass(), name));
+    return invoke(handle, obj);
+  }
+
+  private static @Nullable Object getElement(Object obj, Segment segment) {
+    Object container = segment.name().isEmpty() ? obj : getProperty(obj, segment.name());
+    if (container == null) {
+      return null;
+    }
+
+    if (container instanceof List<?> list) {
+      return segment.index() < list.size() ? list.get(segment.index()) : null;
+
+    } else if (container.getClass().isArray()) {
+      return segment.index() < Array.getLength(container) ? Array.get(container, segment.index())
+          : null;
+    }
+
+    throw new IllegalArgumentException("'" + segment.name() + "' of "
+        + obj.getClass().getName() + " is neither a list nor an array.");
+  }
+
+  private static @Nullable Object invoke(MethodHandle handle, Object... args) {
+    try {
+      return (Object) handle.invokeExact(args);
+
+    } catch (RuntimeException | Error ex) {
+      throw ex;
+
+    } catch (Throwable th) {
+      throw new RuntimeException(th);
+    }
+  }
+
+  private static MethodHandle getter(Class<?> cls, String name) {
+    String capitalized = StringUtils.capitalize(name);
+    for (String methodName : new String[] {"get" + capitalized, "is" + capitalized, name}) {
+      try {
+        return spread(cls.getMethod(methodName), 0);
+
+      } catch (NoSuchMethodException ex) {
+        // try next
+      }
+    }
+
+    try {
+      Field field = cls.getField(name);
+      if (!Modifier.isStatic(field.getModifiers())) {
+        field.trySetAccessible();
+        return MethodHandles.lookup().unreflectGetter(field)
+            .asType(MethodType.methodType(Object.class, Object.class))
+            .asSpreader(Object[].class, 1);
+      }
+
+    } catch (NoSuchFieldException | IllegalAccessException ex) {
+      // treated as not found
+    }
+
+    throw new IllegalArgumentException(
+        "Property '" + name + "' not found in " + cls.getName() + ".");
+  }
+
+  private static MethodHandle method(Class<?> cls, String methodName, Class<?>[] argTypes) {
+    Method found = null;
+    for (Method method : cls.getMethods()) {
+      if (method.getName().equals(methodName) && !Modifier.isStatic(method.getModifiers())
+          && ClassUtils.isAssignable(argTypes, method.getParameterTypes(), true)
+          && (found == null || ClassUtils.isAssignable(method.getParameterTypes(),
+              found.getParameterTypes(), true))) {
+        found = method;
+      }
+    }
+
+    if (found == null) {
+      throw new IllegalArgumentException("Method '" + methodName + "' accepting "
+          + Arrays.toString(argTypes) + " not found in " + cls.getName() + ".");
+    }
+
+    return spread(found, argTypes.length);
+  }
+
+  /**
+   * Returns the handle of {@code (Object) method(Object[] {target, args...})}.
+   */
+  private static MethodHandle spread(Method method, int numberOfArgs) {
+    // public methods of non-public classes (like records declared in a controller) need this.
+    method.trySetAccessible();
+    try {
+      return MethodHandles.lookup().unreflect(method)
+          .asType(MethodType.genericMethodType(numberOfArgs + 1))
+          .asSpreader(Object[].class, numberOfArgs + 1);
+
+    } catch (IllegalAccessException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  private static List<Segment> segments(String itemPropertyPath) {
+    return SEGMENTS.get(itemPropertyPath, PropertyPathAccessor::parse);
+  }
+
+  private static List<Segment> parse(String itemPropertyPath) {
+    List<Segment> list = new ArrayList<>();
+    for (String str : itemPropertyPath.split("\\.", -1)) {
+      int bracket = str.indexOf('[');
+      if (bracket < 0) {
+        list.add(new Segment(str, -1));
+        continue;
+      }
+
+      // "name[1][2]" is read as "name[1]" and "[2]".
+      String name = str.substring(0, bracket);
+      for (String index : str.substring(bracket + 1, str.length() - 1).split("\\]\\[", -1)) {
+        list.add(new Segment(name, Integer.parseInt(index.trim())));
+        name = "";
+      }
+    }
+
+    return List.copyOf(list);
+  }
+
+  /**
+   * Is a part of a property path.
+   *
+   * @param name property name, or empty for an index applied to the previous value
+   * @param index list index, or {@code -1} if the segment has no index
+   */
+  private record Segment(String name, int index) {
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util.internal;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+/**
+ * Holds the {@code Validator} shared by the splib validation steps.
+ *
+ * <p>A {@code ValidatorFactory} keeps the constraint metadata of each bean class once built,
+ *     so building a factory per validation throws it away on every request.
+ *     The factory is built on the first use and kept for the lifetime of the class loader.</p>
+ */
+public final class SharedValidator {
+
+  private SharedValidator() {}
+
+  private static class Holder {
+    private static final Validator VALIDATOR =
+        Validation.buildDefaultValidatorFactory().getValidator();
+  }
+
+  /**
+   * Returns the shared {@code Validator}.
+   *
+   * @return Validator
+   */
+  public static Validator get() {
+    return Holder.VALIDATOR;
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util.internal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jp.ecuacion.lib.core.logging.DetailLogger;
+import jp.ecuacion.lib.core.util.PropertiesFileUtil;
+import jp.ecuacion.splib.web.constant.SplibWebConstants;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the html pages under {@code templates/} which {@code ShowPageController} can show,
+ *     with the value of their {@code data-show-page-login-state} attribute.
+ *
+ * <p>The index is built at startup so that a request to {@code ShowPageController}
+ *     needs neither a classpath lookup nor reading the html file.
+ *     With {@code jp.ecuacion.splib.web.show-page.index.enabled=false},
+ *     the html file is read on each request instead,
+ *     which is useful when html files are edited while the app runs.</p>
+ */
+@Component
+public class ShowPageIndex {
+
+  private final DetailLogger detailLog = new DetailLogger(this);
+
+  /** Keeps entries keyed by page (like {@code public/info}), or {@code null} if disabled. */
+  private final @Nullable Map<String, PageEntry> index;
+
+  /**
+   * Stores the result of the check of an html file.
+   *
+   * @param loginStateAttributeValue the value of {@code data-show-page-login-state},
+   *     or {@code null} if the page is not allowed to be shown
+   *     (no or multiple html tags, or the attribute is missing)
+   */
+  public record PageEntry(@Nullable String loginStateAttributeValue) {
+
+    /**
+     * Returns whether the page can be shown with {@code loginState}.
+     *
+     * @param loginState loginState
+     * @return boolean
+     */
+    public boolean allows(String loginState) {
+      return loginStateAttributeValue != null && loginStateAttributeValue.contains(loginState);
+    }
+  }
+
+  /**
+   * Constructs a new instance.
+   */
+  public ShowPageIndex() {
+    index = Boolean.parseBoolean(PropertiesFileUtil
+        .getApplicationOrElse("jp.ecuacion.splib.web.show-page.index.enabled", "true"))
+            ? buildIndex()
+            : null;
+  }
+
+  private Map<String, PageEntry> buildIndex() {
+    long start = System.currentTimeMillis();
+    Map<String, PageEntry> map = new HashMap<>();
+
+    try {
+      PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+      for (Resource root : resolver.getResources("classpath*:templates/")) {
+        String rootUrl = root.getURL().toString();
+        for (Resource resource : resolver.getResources(rootUrl + "**/*.html")) {
+          String relativePath = resource.getURL().toString().substring(rootUrl.length());
+          String page = relativePath.substring(0, relativePath.length() - ".html".length());
+
+          // The first one in the classpath is used, same as ClassPathResource.
+          map.putIfAbsent(page, inspect(resource));
+        }
+      }
+
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to build the index of templates.", ex);
+    }
+
+    detailLog.info("Indexed " + map.size() + " templates for ShowPageController in "
+        + (System.currentTimeMillis() - start) + " ms.");
+    return Map.copyOf(map);
+  }
+
+  /**
+   * Returns the entry of the page.
+   *
+   * @param page the path of the html file under {@code templates/}, without {@code .html}
+   * @return entry, or {@code null} if the html file does not exist
+   */
+  public @Nullable PageEntry get(String page) {
+    if (index != null) {
+      return index.get(page);
+    }
+
+    ClassPathResource resource = new ClassPathResource("templates/" + page + ".html");
+    if (!resource.exists()) {
+      return null;
+    }
+
+    try {
+      return inspect(resource);
+
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /*
+   * Checks that the html tag has the "data-show-page-login-state" attribute
+   * and extracts its value.
+   * Adding a library just for this would unnecessarily increase the war size,
+   * so string operations are used instead.
+   */
+  private PageEntry inspect(Resource resource) throws IOException {
+    String html = resource.getContentAsString(Charset.defaultCharset());
+    String startTag = "<html";
+
+    // The second condition in the if is: when there are 2 or more html tags.
+    if (!html.contains(startTag) || html.replace(startTag, "").contains(startTag)) {
+      return new PageEntry(null);
+    }
+
+    // Extract the html tag.
+    String htmlTag = html.substring(html.indexOf(startTag));
+    htmlTag = htmlTag.substring(0, htmlTag.indexOf(">") + 1);
+
+    // Split by newlines and spaces, and extract the "data-show-page-login-state" attribute.
+    List<String> list = Arrays.asList(htmlTag.replaceAll("\n", " ").split(" ")).stream()
+        .filter(str -> str.contains(SplibWebConstants.KEY_BASE_PAGE_LOGIN_STATE)).toList();
+
+    if (list.size() != 1 || !list.get(0).contains("=")) {
+      return new PageEntry(null);
+    }
+
+    return new PageEntry(list.get(0).split("=", -1)[1]);
+  }
+}
@@ -16,7 +16,6 @@
 package jp.ecuacion.splib.web.util.internal;
 
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.validation.Validation;
 import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Set;
@@ -109,7 +108,7 @@ public class SplibControllerPrepareHelper {
 
   private void validateForm(SplibGeneralForm form, @Nullable RolesAndAuthoritiesBean bean) {
     Violations violations = new Violations();
-    violations.addAll(Validation.buildDefaultValidatorFactory().getValidator().validate(form));
+    violations.addAll(SharedValidator.get().validate(form));
 
     List<Field> rootRecordFields = form.getRootRecordFields();
     if (!rootRecordFields.isEmpty()) {
@@ -0,0 +1,308 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util.internal;
+
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import jp.ecuacion.lib.core.logging.DetailLogger;
+import jp.ecuacion.splib.core.record.SplibRecord;
+import jp.ecuacion.splib.web.form.SplibGeneralForm;
+import jp.ecuacion.splib.web.form.SplibGeneralFormDescriptor;
+import jp.ecuacion.splib.web.item.HtmlItemContainer;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Warms up the app before it reports ready.
+ *
+ * <p>Spring Boot changes the readiness state to {@code ACCEPTING_TRAFFIC}
+ *     after all the {@code ApplicationRunner}s finish,
+ *     so the work here is done before the first request reaches the app. It:</p>
+ * <ul>
+ *   <li>builds {@code SplibGeneralFormDescriptor}s of form classes,
+ *       {@code HtmlItem}s of record classes,
+ *       and the constraint metadata of both in {@link SharedValidator},
+ *       for the classes under the auto-configuration packages.
+ *       {@code HtmlItem}s need an instance, so they're built only for concrete
+ *       {@code SplibRecord}s with a public no-arg constructor.
+ *       No other constructors are called.</li>
+ *   <li>resolves every key in {@code messages*.properties} and {@code item_names*.properties}
+ *       through {@code MessageSource} for the default locale, English and Japanese</li>
+ *   <li>requests the pages in {@code jp.ecuacion.splib.web.warm-up.paths} to the app itself,
+ *       which parses the splib templates and fragments the pages use.
+ *       Nothing is requested by default, so no templates are warmed up
+ *       unless the paths are set.
+ *       Only pages answered with {@code 2xx} are counted as warmed up.</li>
+ * </ul>
+ *
+ * <p>The pages are requested to {@code jp.ecuacion.splib.web.warm-up.base-url} if it's set.
+ *     Otherwise the url is built from {@code server.ssl.*} ({@code https} when SSL is configured),
+ *     {@code server.address} ({@code localhost} when unset or a wildcard address),
+ *     the actual port and {@code server.servlet.context-path}.
+ *     With {@code https}, the certificate needs to be valid for that host,
+ *     so set the base url when it's issued for another name.</p>
+ *
+ * <p>Failures are logged and do not stop the startup. The time spent is logged at the end.</p>
+ */
+public class SplibWarmUpRunner implements ApplicationRunner {
+
+  private static final Set<String> WILDCARD_ADDRESSES = Set.of("0.0.0.0", "::", "[::]", "::0");
+
+  private final DetailLogger detailLog = new DetailLogger(this);
+
+  private final BeanFactory beanFactory;
+  private final MessageSource messageSource;
+  private final Environment environment;
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param beanFactory beanFactory
+   * @param messageSource messageSource
+   * @param environment environment
+   */
+  public SplibWarmUpRunner(BeanFactory beanFactory, MessageSource messageSource,
+      Environment environment) {
+    this.beanFactory = beanFactory;
+    this.messageSource = messageSource;
+    this.environment = environment;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    long start = System.nanoTime();
+
+    long phaseStart = start;
+    int classes = warmUpClasses();
+    long classesMillis = millisSince(phaseStart);
+
+    phaseStart = System.nanoTime();
+    int messages = warmUpMessages();
+    long messagesMillis = millisSince(phaseStart);
+
+    phaseStart = System.nanoTime();
+    int pages = warmUpPages();
+    long pagesMillis = millisSince(phaseStart);
+
+    detailLog.info("Warmed up in " + millisSince(start) + " ms. (classes: "
+        + classes + " in " + classesMillis + " ms, messages: " + messages + " in "
+        + messagesMillis + " ms, pages: " + pages + " in " + pagesMillis + " ms)");
+  }
+
+  private static long millisSince(long startNanos) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+  }
+
+  private int warmUpClasses() {
+    if (!AutoConfigurationPackages.has(beanFactory)) {
+      return 0;
+    }
+
+    ClassPathScanningCandidateComponentProvider scanner =
+        new ClassPathScanningCandidateComponentProvider(false, environment);
+    scanner.addIncludeFilter(new AssignableTypeFilter(SplibGeneralForm.class));
+    scanner.addIncludeFilter(new AssignableTypeFilter(HtmlItemContainer.class));
+
+    Validator validator = SharedValidator.get();
+    ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+    int count = 0;
+    for (String basePackage : AutoConfigurationPackages.get(beanFactory)) {
+      for (BeanDefinition definition : scanner.findCandidateComponents(basePackage)) {
+        String className = definition.getBeanClassName();
+        if (className == null) {
+          continue;
+        }
+
+        try {
+          Class<?> cls = ClassUtils.forName(className, classLoader);
+          validator.getConstraintsForClass(cls);
+
+          if (SplibGeneralForm.class.isAssignableFrom(cls)) {
+            SplibGeneralFormDescriptor.of(cls.asSubclass(SplibGeneralForm.class));
+
+          } else if (isPubliclyInstantiableRecord(cls)) {
+            ((HtmlItemContainer) cls.getConstructor().newInstance()).getHtmlItems();
+          }
+
+          count++;
+
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError ex) {
+          detailLog.warn("Warm-up skipped " + className + ": " + ex);
+        }
+      }
+    }
+
+    return count;
+  }
+
+  /**
+   * Returns whether {@code cls} is a concrete public {@code SplibRecord}
+   *     with a public no-arg constructor.
+   */
+  private static boolean isPubliclyInstantiableRecord(Class<?> cls) {
+    if (!SplibRecord.class.isAssignableFrom(cls) || !Modifier.isPublic(cls.getModifiers())
+        || Modifier.isAbstract(cls.getModifiers())) {
+      return false;
+    }
+
+    try {
+      cls.getConstructor();
+      return true;
+
+    } catch (NoSuchMethodException ex) {
+      return false;
+    }
+  }
+
+  private int warmUpMessages() {
+    Set<String> keys = new LinkedHashSet<>();
+    PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    try {
+      for (String pattern : new String[] {"classpath*:messages*.properties",
+          "classpath*:item_names*.properties"}) {
+        for (Resource resource : resolver.getResources(pattern)) {
+          Properties prop = new Properties();
+          try (InputStream in = resource.getInputStream()) {
+            prop.load(in);
+          }
+
+          keys.addAll(prop.stringPropertyNames());
+        }
+      }
+
+    } catch (IOException ex) {
+      detailLog.warn("Warm-up failed to read messages: " + ex);
+    }
+
+    Set<Locale> locales =
+        new LinkedHashSet<>(List.of(Locale.getDefault(), Locale.ENGLISH, Locale.JAPANESE));
+    int count = 0;
+    for (Locale locale : locales) {
+      for (String key : keys) {
+        try {
+          messageSource.getMessage(key, null, null, locale);
+          count++;
+
+        } catch (RuntimeException ex) {
+          // Messages which need arguments or are malformed are just skipped.
+        }
+      }
+    }
+
+    return count;
+  }
+
+  private int warmUpPages() {
+    List<String> paths = new ArrayList<>();
+    for (String path : environment.getProperty("jp.ecuacion.splib.web.warm-up.paths", "")
+        .split(",")) {
+      if (!path.isBlank()) {
+        paths.add(path.trim());
+      }
+    }
+
+    String baseUrl = baseUrl(environment);
+    if (paths.isEmpty() || baseUrl == null) {
+      return 0;
+    }
+
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    int count = 0;
+    for (String path : paths) {
+      try {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30)).GET().build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status >= 200 && status < 300) {
+          count++;
+
+        } else {
+          // Redirects (like the one to the login page) and errors don't render the page.
+          detailLog.warn("Warm-up request to " + path + " returned " + status + ".");
+        }
+
+      } catch (IOException | RuntimeException ex) {
+        detailLog.warn("Warm-up request to " + path + " failed: " + ex);
+
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+
+    return count;
+  }
+
+  /**
+   * Returns the url the warm-up pages are requested to, without the trailing slash.
+   *
+   * @param environment environment
+   * @return base url, or {@code null} if the server has not started
+   */
+  static @Nullable String baseUrl(Environment environment) {
+    String configured = environment.getProperty("jp.ecuacion.splib.web.warm-up.base-url");
+    if (configured != null && !configured.isBlank()) {
+      return configured.trim().replaceAll("/+$", "");
+    }
+
+    String port = environment.getProperty("local.server.port");
+    if (port == null) {
+      return null;
+    }
+
+    boolean ssl = environment.getProperty("server.ssl.enabled", Boolean.class, true)
+        && (environment.containsProperty("server.ssl.bundle")
+            || environment.containsProperty("server.ssl.key-store")
+            || environment.containsProperty("server.ssl.certificate"));
+
+    String host = environment.getProperty("server.address", "").trim();
+    if (host.isEmpty() || WILDCARD_ADDRESSES.contains(host)) {
+      host = "localhost";
+
+    } else if (host.contains(":") && !host.startsWith("[")) {
+      // IPv6 literal
+      host = "[" + host + "]";
+    }
+
+    return (ssl ? "https" : "http") + "://" + host + ":" + port
+        + environment.getProperty("server.servlet.context-path", "");
+  }
+}
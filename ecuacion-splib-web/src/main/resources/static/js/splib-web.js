@@ -101,19 +101,76 @@ function doubleClickPreventionUnlockButtonsOnBrowserBack(window) {
 	window.addEventListener('pageshow', function(event) {
 		// Means 'if the page is open by browser back'.
 		if (event.persisted || window.performance && window.performance.navigation.type === 2) {
-			Array.from(document.forms).forEach(form => {
-				const elements = form.querySelectorAll('[data-disabled-on-submit]');
-				elements.forEach(element => {
-					if ('disabled' in element) {
-						element.disabled = false;
-						element.innerText = element.dataset.originalLabel;
-					} else {
-						element.style.pointerEvents = '';
-						element.removeAttribute('aria-disabled');
-					}
-				});
-			});
+			doubleClickPreventionUnlockButtons();
+		}
+	});
+}
+
+function doubleClickPreventionUnlockButtons() {
+	Array.from(document.forms).forEach(form => {
+		const elements = form.querySelectorAll('[data-disabled-on-submit]');
+		elements.forEach(element => {
+			if ('disabled' in element) {
+				element.disabled = false;
+				element.innerText = element.dataset.originalLabel;
+			} else {
+				element.style.pointerEvents = '';
+				element.removeAttribute('aria-disabled');
+			}
+		});
+	});
+}
+
+/**
+ * Replaces the search results (pager and list) without reloading the page
+ * when 'jp.ecuacion.splib.web.search-list.partial-results.enabled' is true.
+ *
+ * Search requests are sent with the header 'HX-Request: true', and the server responds
+ * the page without the navbar and the search pane with the header 'X-Splib-Partial-Results: true'.
+ * The address bar is set to 'X-Splib-Page-Url', the page the normal search redirects to.
+ * When the header is not returned (validation errors, for example), the server answers the redirect
+ * with '204 No Content' and 'Location', and the page there is loaded as usual.
+ * The redirect is not followed by fetch, which would use up the flash attributes (the errors) of the page.
+ * Scripts in the replaced elements are not executed.
+ */
+function initPartialSearchResults() {
+	const pager = document.getElementById('splibSearchResultsPager');
+	if (pager == null || pager.dataset.partialResults !== 'true') {
+		return;
+	}
+
+	const form = pager.closest('form');
+	form.addEventListener('submit', async event => {
+		// 'action' is set by doubleClickPreventionLockButtonsOnSubmit or the sort / paging scripts.
+		const action = form.elements['action'].value;
+		if (action !== 'search' && action !== 'searchAgain') {
+			return;
+		}
+
+		event.preventDefault();
+		const url = new URL(form.action, window.location.href);
+		url.search = new URLSearchParams(new FormData(form, event.submitter ?? undefined)).toString();
+
+		const response = await fetch(url, { headers: { 'HX-Request': 'true' }, redirect: 'manual' });
+		if (response.headers.get('X-Splib-Partial-Results') !== 'true') {
+			// Let the browser load it, so the whole page including its scripts is set up as usual.
+			// Other redirects, like the one to the login page, cannot be read ('opaqueredirect'),
+			// so the search is requested again by the browser.
+			window.location.assign(response.headers.get('Location') ?? url);
+			return;
 		}
+
+		const newDocument = new DOMParser().parseFromString(await response.text(), 'text/html');
+		['splibSearchResultsPager', 'splibSearchResultsList'].forEach(id => {
+			const newElement = newDocument.getElementById(id);
+			const element = document.getElementById(id);
+			if (newElement != null && element != null) {
+				element.replaceWith(document.adoptNode(newElement));
+			}
+		});
+
+		history.replaceState(null, '', response.headers.get('X-Splib-Page-Url') ?? url);
+		doubleClickPreventionUnlockButtons();
 	});
 }
 
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.bean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jp.ecuacion.splib.web.util.internal.TransactionTokenUtil;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ReturnUrlBuilder#getUrl()}.
+ */
+class ReturnUrlBuilderTest {
+
+  @Test
+  void getUrl_withoutParams() {
+    assertThat(ReturnUrlBuilder.ofPath("/public/show/page").getUrl())
+        .isEqualTo("redirect:/public/show/page");
+  }
+
+  @Test
+  void getUrl_encodesKeysAndValuesInInsertionOrder() {
+    String url = ReturnUrlBuilder.ofPath("/public/show/page").putParam("id", "home")
+        .putParam("q", "a b&c=日本").putParam("multi", new String[] {"1", "2"})
+        .showSuccessMessage().getUrl();
+
+    assertThat(url).isEqualTo("redirect:/public/show/page?id=home&q=a+b%26c%3D%E6%97%A5%E6%9C%AC"
+        + "&multi=1&multi=2&success=");
+  }
+
+  @Test
+  void getUrl_removesTransactionToken() {
+    Map<String, String[]> paramMap = new LinkedHashMap<>();
+    paramMap.put("id", new String[] {"1"});
+    paramMap.put(TransactionTokenUtil.SESSION_KEY_TRANSACTION_TOKEN, new String[] {"token"});
+
+    assertThat(ReturnUrlBuilder.ofPath("/account/acc/edit/page").putParamMap(paramMap).getUrl())
+        .isEqualTo("redirect:/account/acc/edit/page?id=1");
+  }
+
+  @Test
+  void getUrl_addsForwardParam_whenForward() {
+    assertThat(ReturnUrlBuilder.ofPath("/account/acc/page").asForward().getUrl())
+        .isEqualTo("forward:/account/acc/page?forward=true");
+    assertThat(ReturnUrlBuilder.ofPath("/account/acc/page").putParam("forward", "x")
+        .putParam("id", "1").asForward().getUrl())
+        .isEqualTo("forward:/account/acc/page?forward=true&id=1");
+  }
+
+  @Test
+  void getUrl_isIdempotent_andOverwrittenStaticParamIsNotReused() {
+    ReturnUrlBuilder builder = ReturnUrlBuilder.ofPath("/public/show/page").showSuccessMessage();
+    assertThat(builder.getUrl()).isEqualTo(builder.getUrl());
+
+    builder.putParam("success", "1");
+    assertThat(builder.getUrl()).isEqualTo("redirect:/public/show/page?success=1");
+  }
+}
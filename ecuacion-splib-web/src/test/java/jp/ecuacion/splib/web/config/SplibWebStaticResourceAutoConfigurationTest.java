@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import jp.ecuacion.splib.web.config.SplibWebStaticResourceAutoConfiguration.VersionedCacheControlInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for {@link SplibWebStaticResourceAutoConfiguration}.
+ */
+class SplibWebStaticResourceAutoConfigurationTest {
+
+  private static String cacheControlOf(String uri) {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new VersionedCacheControlInterceptor().preHandle(new MockHttpServletRequest("GET", uri),
+        response, new Object());
+    return response.getHeader("Cache-Control");
+  }
+
+  @Test
+  void preHandle_setsImmutable_forVersionedPath() {
+    assertThat(cacheControlOf("/app/js/splib-web-0123456789abcdef0123456789abcdef.js"))
+        .isEqualTo("max-age=31536000, public, immutable");
+    assertThat(cacheControlOf("/css/splib-web-markdown-0123456789abcdef0123456789abcdef.css"))
+        .isEqualTo("max-age=31536000, public, immutable");
+  }
+
+  @Test
+  void preHandle_setsNoCache_forUnversionedPath() {
+    assertThat(cacheControlOf("/js/splib-web.js")).isEqualTo("no-cache");
+    assertThat(cacheControlOf("/css/splib-web-markdown.css")).isEqualTo("no-cache");
+    assertThat(cacheControlOf("/images/speech-balloon-left.png")).isEqualTo("no-cache");
+  }
+}
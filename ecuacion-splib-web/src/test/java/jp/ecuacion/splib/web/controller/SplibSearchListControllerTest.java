@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.Map;
+import jp.ecuacion.lib.core.exception.ViolationException;
+import jp.ecuacion.lib.core.violation.BusinessViolation;
+import jp.ecuacion.lib.core.violation.Violations;
+import jp.ecuacion.splib.core.record.SplibRecord;
+import jp.ecuacion.splib.web.constant.SplibWebConstants;
+import jp.ecuacion.splib.web.form.SplibGeneralForm;
+import jp.ecuacion.splib.web.form.SplibListForm;
+import jp.ecuacion.splib.web.form.SplibSearchForm;
+import jp.ecuacion.splib.web.service.SplibSearchListService;
+import jp.ecuacion.splib.web.util.SplibLoginStateUtil;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
+import org.springframework.web.servlet.view.RedirectView;
+
+/**
+ * Unit tests for the partial results of {@link SplibSearchListController#search}.
+ */
+class SplibSearchListControllerTest {
+
+  private static class TestSearchForm extends SplibSearchForm {
+    @Override
+    protected String getDefaultSortItem() {
+      return "id";
+    }
+  }
+
+  private static class TestListForm extends SplibListForm<SplibRecord> {
+  }
+
+  /** Skips the form preparation and the search, which are not the subject here. */
+  private static class TestController extends SplibSearchListController<TestSearchForm,
+      TestListForm, SplibSearchListService<TestSearchForm, TestListForm>> {
+
+    @Nullable
+    private ViolationException violationOnPrepare;
+
+    TestController() {
+      super("test");
+    }
+
+    @Override
+    public void prepare(Model model, @Nullable UserDetails loginUser,
+        SplibGeneralForm... forms) {
+      if (violationOnPrepare != null) {
+        throw violationOnPrepare;
+      }
+    }
+
+    @Override
+    public String page(Model model, TestSearchForm searchForm, TestListForm listForm,
+        @Nullable UserDetails loginUser) {
+      return "testSearchList";
+    }
+
+    @Override
+    protected boolean isPartialResultsEnabled() {
+      return true;
+    }
+  }
+
+  private MockHttpServletRequest request;
+
+  private MockHttpServletResponse response;
+
+  private TestController controller;
+
+  private TestSearchForm searchForm;
+
+  @BeforeEach
+  void setUp() {
+    request = new MockHttpServletRequest("GET", "/app/account/test/searchList/action");
+    request.setContextPath("/app");
+    request.addHeader(SplibWebConstants.HEADER_PARTIAL_REQUEST, "true");
+    response = new MockHttpServletResponse();
+
+    SplibLoginStateUtil loginStateUtil = mock(SplibLoginStateUtil.class);
+    when(loginStateUtil.getLoginState()).thenReturn("account");
+
+    controller = new TestController();
+    controller.request = request;
+    controller.response = response;
+    ReflectionTestUtils.setField(controller, "loginStateUtil", loginStateUtil);
+
+    searchForm = new TestSearchForm();
+    searchForm.setPrepared(true);
+  }
+
+  @Test
+  void search_rendersPageWithoutRedirect_whenPartialRequest() throws Exception {
+    Model model = new ExtendedModelMap();
+
+    String view = controller.search(model, searchForm, new TestListForm(), null,
+        new RedirectAttributesModelMap());
+
+    assertThat(view).isEqualTo("testSearchList");
+    assertThat(model.getAttribute(SplibWebConstants.KEY_PARTIAL_RESULTS)).isEqualTo(true);
+    assertThat(response.getHeader(SplibWebConstants.HEADER_PARTIAL_RESULTS)).isEqualTo("true");
+    assertThat(response.getHeader(SplibWebConstants.HEADER_PAGE_URL))
+        .isEqualTo("/app/account/test/searchList/page");
+  }
+
+  @Test
+  void search_answersRedirectWithLocation_whenPartialRequestHasViolations() throws Exception {
+    Violations violations = new Violations();
+    violations.add(new BusinessViolation("msg"));
+    controller.violationOnPrepare = new ViolationException(violations);
+    Model model = new ExtendedModelMap();
+
+    assertThatThrownBy(() -> controller.search(model, searchForm, new TestListForm(), null,
+        new RedirectAttributesModelMap())).isInstanceOf(ViolationException.class);
+    assertThat(model.getAttribute("errorWhileSearching")).isEqualTo(true);
+    assertThat(response.getHeader(SplibWebConstants.HEADER_PARTIAL_RESULTS)).isNull();
+
+    // The redirect SplibExceptionHandler returns is answered without 302,
+    // so that fetch does not follow it and use up the flash attributes.
+    new RedirectView("/account/test/searchList/page", true).render(Map.of(), request, response);
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.NO_CONTENT.value());
+    assertThat(response.getHeader("Location")).isEqualTo("/app/account/test/searchList/page");
+    assertThat(request.getAttribute(View.RESPONSE_STATUS_ATTRIBUTE))
+        .isEqualTo(HttpStatus.NO_CONTENT);
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import jp.ecuacion.splib.web.util.SplibThemeColorUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Unit tests for {@link SplibThemeCssController}.
+ */
+class SplibThemeCssControllerTest {
+
+  private static final String VERSION = "0123456789abcdef0123456789abcdef";
+
+  private static final String CSS = "[data-bs-theme=\"light\"]{--bs-color-btn:#112233;}";
+
+  private SplibThemeCssController controller;
+
+  @BeforeEach
+  void setUp() {
+    SplibThemeColorUtil util = mock(SplibThemeColorUtil.class);
+    when(util.getVersion()).thenReturn(VERSION);
+    when(util.buildThemeColorCssOrEmpty()).thenReturn(CSS);
+    controller = new SplibThemeCssController(util);
+  }
+
+  @Test
+  void themeCss_isImmutable_whenVersionMatches() {
+    ResponseEntity<String> response = controller.themeCss(VERSION);
+
+    assertThat(response.getBody()).isEqualTo(CSS);
+    assertThat(response.getHeaders().getCacheControl())
+        .isEqualTo("max-age=31536000, public, immutable");
+    assertThat(response.getHeaders().getETag()).isEqualTo("\"" + VERSION + "\"");
+    assertThat(response.getHeaders().getContentType().toString())
+        .isEqualTo("text/css;charset=UTF-8");
+  }
+
+  @Test
+  void themeCss_isNoCache_whenVersionDoesNotMatch() {
+    ResponseEntity<String> response = controller.themeCss("old");
+
+    assertThat(response.getBody()).isEqualTo(CSS);
+    assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache");
+    assertThat(response.getHeaders().getETag()).isEqualTo("\"" + VERSION + "\"");
+  }
+
+  @Test
+  void themeCss_isNoCache_whenVersionIsAbsent() {
+    assertThat(controller.themeCss(null).getHeaders().getCacheControl()).isEqualTo("no-cache");
+  }
+}
@@ -844,4 +844,55 @@ class SplibExceptionHandlerTest {
       assertThat(br.getGlobalErrorCount()).isEqualTo(1); // summary only
     }
   }
+
+  // =========================================================================
+  // Cached lookups
+  //
+  // Whether a constraint annotation type is a ClassValidator constraint is
+  // cached per annotation type, so a second violation of the same type must
+  // be mapped the same way as the first.
+  // =========================================================================
+
+  @Nested
+  class CachedLookups {
+
+    @Test
+    void classValidatorLookup_keepsResultPerAnnotationType() {
+      // Alternates a ClassValidator constraint and a plain class-level one,
+      // so that a result cached for one type would be visible on the other.
+      for (int i = 0; i < 2; i++) {
+        BindingResult anyNotNull = newBindingResult();
+        handler.addViolationErrorsTo(
+            new ViolationException(new Violations().validate(new AnyNotNullBean())), anyNotNull,
+            true, false, Locale.ROOT);
+
+        BindingResult classLevel = newBindingResult();
+        handler.addViolationErrorsTo(
+            new ViolationException(new Violations().validate(new ClassLevelBean())), classLevel,
+            true, false, Locale.ROOT);
+
+        assertThat(anyNotNull.getFieldErrors().stream().map(e -> e.getField()).toList())
+            .containsExactly("name");
+        assertThat(classLevel.getFieldErrorCount()).isEqualTo(0);
+        assertThat(classLevel.getGlobalErrorCount()).isEqualTo(1);
+      }
+    }
+
+    @Test
+    void classValidatorMap_mapsSecondViolationSameAsFirst() {
+      BindingResult first = new BeanPropertyBindingResult(new TestForm(), "testForm");
+      BindingResult second = new BeanPropertyBindingResult(new TestForm(), "testForm");
+
+      handler.addViolationErrorsTo(
+          new ViolationException(new Violations().validate(new AnyNotNullBean())), first, true,
+          false, Locale.ROOT);
+      handler.addViolationErrorsTo(
+          new ViolationException(new Violations().validate(new AnyNotNullBean())), second, true,
+          false, Locale.ROOT);
+
+      assertThat(second.getFieldErrors().stream().map(e -> e.getField()).toList())
+          .isEqualTo(first.getFieldErrors().stream().map(e -> e.getField()).toList())
+          .containsExactly("testRecord.name");
+    }
+  }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.form;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.lang.reflect.Field;
+import jp.ecuacion.lib.core.item.Item;
+import jp.ecuacion.lib.core.item.ItemContainer;
+import jp.ecuacion.splib.core.record.SplibRecord;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SplibGeneralFormDescriptor}.
+ */
+class SplibGeneralFormDescriptorTest {
+
+  private static class TestRecord extends SplibRecord implements ItemContainer {
+    @SuppressWarnings({"unused"})
+    @Nullable
+    String name;
+
+    @Override
+    public Item[] customizedItems() {
+      return new Item[] {};
+    }
+  }
+
+  private static class ParentForm extends SplibGeneralForm {
+    @SuppressWarnings("unused")
+    private TestRecord parentRecord = new TestRecord();
+  }
+
+  private static class ChildForm extends ParentForm {
+    @SuppressWarnings("unused")
+    @Nullable
+    TestRecord childRecord;
+
+    @SuppressWarnings("unused")
+    @Nullable
+    String notRecord;
+  }
+
+  @Test
+  void getRootRecordFields_includesPrivateFieldsOfParentClass() {
+    SplibGeneralFormDescriptor descriptor = SplibGeneralFormDescriptor.of(ChildForm.class);
+
+    assertThat(descriptor.getRootRecordFields()).extracting(Field::getName)
+        .containsExactly("childRecord", "parentRecord");
+    assertThat(SplibGeneralFormDescriptor.of(ChildForm.class)).isSameAs(descriptor);
+  }
+
+  @Test
+  void getRootRecord_returnsValueByFieldName() {
+    ChildForm form = new ChildForm();
+
+    assertThat(form.getRootRecord("parentRecord")).isInstanceOf(TestRecord.class);
+    assertThat(form.getRootRecord("childRecord")).isNull();
+    assertThat(form.getRootRecord("notRecord")).isNull();
+  }
+
+  @Test
+  void getRootRecord_returnsValueByField() throws Exception {
+    ChildForm form = new ChildForm();
+    form.childRecord = new TestRecord();
+
+    for (Field field : form.getRootRecordFields()) {
+      assertThat(form.getRootRecord(field)).isInstanceOf(TestRecord.class);
+    }
+    assertThat(form.getRootRecord(ParentForm.class.getDeclaredField("parentRecord")))
+        .isInstanceOf(TestRecord.class);
+    assertThatThrownBy(() -> form.getRootRecord(ChildForm.class.getDeclaredField("notRecord")))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void qualify_skipsNullRecordsAndReturnsNullForUnknownPath() {
+    ChildForm form = new ChildForm();
+    SplibGeneralFormDescriptor descriptor = SplibGeneralFormDescriptor.of(ChildForm.class);
+
+    assertThat(descriptor.qualify(form, "name")).isEqualTo("parentRecord.name");
+    assertThat(descriptor.qualify(form, "nonExistent")).isNull();
+
+    form.childRecord = new TestRecord();
+    assertThat(descriptor.qualify(form, "name")).isEqualTo("childRecord.name");
+  }
+}
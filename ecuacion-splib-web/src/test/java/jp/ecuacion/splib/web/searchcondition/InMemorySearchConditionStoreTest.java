@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.searchcondition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import jp.ecuacion.splib.web.searchcondition.UrlEncodedSearchConditionStoreTest.TestSearchForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+
+/**
+ * Unit tests for {@link InMemorySearchConditionStore}.
+ */
+class InMemorySearchConditionStoreTest {
+
+  private static MockHttpServletRequest requestOf(String userName) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setUserPrincipal(() -> userName);
+    return request;
+  }
+
+  @Test
+  void put_storesNothing_whenNoUserAndNoSession() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    InMemorySearchConditionStore store = new InMemorySearchConditionStore(request, 10, 10);
+    store.put("testSearchForm", new TestSearchForm());
+
+    assertThat(store.get("testSearchForm", TestSearchForm.class)).isNull();
+    assertThat(request.getSession(false)).isNull();
+  }
+
+  @Test
+  void putAndGet_returnsTheSameInstance_perUser() {
+    MockHttpServletRequest request = requestOf("user1");
+    InMemorySearchConditionStore store = new InMemorySearchConditionStore(request, 10, 10);
+    TestSearchForm form = new TestSearchForm();
+    store.put("testSearchForm", form);
+
+    assertThat(store.get("testSearchForm", TestSearchForm.class)).isSameAs(form);
+
+    request.setUserPrincipal(() -> "user2");
+    assertThat(store.get("testSearchForm", TestSearchForm.class)).isNull();
+  }
+
+  @Test
+  void get_sharesConditions_amongSessionsOfTheSameUser() {
+    MockHttpServletRequest request = requestOf("user1");
+    InMemorySearchConditionStore store = new InMemorySearchConditionStore(request, 10, 10);
+    TestSearchForm form = new TestSearchForm();
+    store.put("testSearchForm", form);
+
+    // Another session of the same user.
+    request.setSession(new MockHttpSession());
+    assertThat(store.get("testSearchForm", TestSearchForm.class)).isSameAs(form);
+  }
+
+  @Test
+  void get_usesSessionId_whenNotLoggedIn() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.getSession();
+    InMemorySearchConditionStore store = new InMemorySearchConditionStore(request, 10, 10);
+    TestSearchForm form = new TestSearchForm();
+    store.put("testSearchForm", form);
+
+    assertThat(store.get("testSearchForm", TestSearchForm.class)).isSameAs(form);
+  }
+
+  @Test
+  void put_evictsLeastRecentlyUsedEntries() {
+    MockHttpServletRequest request = requestOf("user1");
+    InMemorySearchConditionStore store = new InMemorySearchConditionStore(request, 2, 2);
+    store.put("a", new TestSearchForm());
+    store.put("b", new TestSearchForm());
+    store.get("a", TestSearchForm.class);
+    store.put("c", new TestSearchForm());
+
+    assertThat(store.get("a", TestSearchForm.class)).isNotNull();
+    assertThat(store.get("b", TestSearchForm.class)).isNull();
+    assertThat(store.get("c", TestSearchForm.class)).isNotNull();
+
+    // Users are bounded as well.
+    request.setUserPrincipal(() -> "user2");
+    store.put("a", new TestSearchForm());
+    request.setUserPrincipal(() -> "user3");
+    store.put("a", new TestSearchForm());
+    request.setUserPrincipal(() -> "user1");
+    assertThat(store.get("a", TestSearchForm.class)).isNull();
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.searchcondition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import jakarta.servlet.http.HttpSession;
+import jp.ecuacion.splib.web.searchcondition.UrlEncodedSearchConditionStoreTest.TestSearchForm;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Unit tests for {@link SessionSearchConditionStore}.
+ */
+class SessionSearchConditionStoreTest {
+
+  @Test
+  void get_returnsNull_withoutCreatingSession() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+
+    assertThat(new SessionSearchConditionStore(request).get("testSearchForm",
+        TestSearchForm.class)).isNull();
+    assertThat(request.getSession(false)).isNull();
+  }
+
+  @Test
+  void putAndGet_returnsTheSameInstance() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    SessionSearchConditionStore store = new SessionSearchConditionStore(request);
+    TestSearchForm form = new TestSearchForm();
+    store.put("testSearchForm", form);
+
+    assertThat(store.get("testSearchForm", TestSearchForm.class)).isSameAs(form);
+  }
+
+  @Test
+  void get_returnsNull_whenStoredFormIsOfAnotherClass() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.getSession().setAttribute("testSearchForm", "not a form");
+
+    assertThat(new SessionSearchConditionStore(request).get("testSearchForm",
+        TestSearchForm.class)).isNull();
+  }
+
+  @Test
+  void put_doesNotSetAttributeAgain_whenSameInstanceIsStored() {
+    TestSearchForm form = new TestSearchForm();
+    HttpSession session = Mockito.mock(HttpSession.class);
+    Mockito.when(session.getAttribute("testSearchForm")).thenReturn(form);
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setSession(session);
+
+    new SessionSearchConditionStore(request).put("testSearchForm", form);
+
+    Mockito.verify(session, Mockito.never()).setAttribute(Mockito.anyString(), Mockito.any());
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.searchcondition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import jakarta.servlet.http.Cookie;
+import jp.ecuacion.splib.web.form.SplibSearchForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for {@link UrlEncodedSearchConditionStore}.
+ */
+class UrlEncodedSearchConditionStoreTest {
+
+  /** Search form for testing only. */
+  public static class TestSearchForm extends SplibSearchForm {
+
+    private String keyword = "";
+
+    @Override
+    protected String getDefaultSortItem() {
+      return "id";
+    }
+
+    public String getKeyword() {
+      return keyword;
+    }
+
+    public void setKeyword(String keyword) {
+      this.keyword = keyword;
+    }
+  }
+
+  @Test
+  void get_returnsNull_whenNoCookie() {
+    UrlEncodedSearchConditionStore store = new UrlEncodedSearchConditionStore(
+        new MockHttpServletRequest(), new MockHttpServletResponse());
+
+    assertThat(store.get("testSearchForm", TestSearchForm.class)).isNull();
+  }
+
+  @Test
+  void putAndGet_restoresConditions() {
+    TestSearchForm form = new TestSearchForm();
+    form.setKeyword("a b&c=日本");
+    form.setPage(3);
+    form.setDirection(SplibSearchForm.DIRECTION_DESC);
+    form.setNewlyCreated(false);
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new UrlEncodedSearchConditionStore(new MockHttpServletRequest(), response)
+        .put("testSearchForm.kind1", form);
+    Cookie cookie = response.getCookie(
+        UrlEncodedSearchConditionStore.COOKIE_NAME_PREFIX + "testSearchForm.kind1");
+    assertThat(cookie).isNotNull();
+
+    MockHttpServletRequest nextRequest = new MockHttpServletRequest();
+    nextRequest.setCookies(cookie);
+    TestSearchForm restored =
+        new UrlEncodedSearchConditionStore(nextRequest, new MockHttpServletResponse())
+            .get("testSearchForm.kind1", TestSearchForm.class);
+
+    assertThat(restored).isNotNull();
+    assertThat(restored.getKeyword()).isEqualTo("a b&c=日本");
+    assertThat(restored.getPage()).isEqualTo(3);
+    assertThat(restored.getDirection()).isEqualTo(SplibSearchForm.DIRECTION_DESC);
+    assertThat(restored.getNewlyCreatedRawValue()).isFalse();
+  }
+
+  @Test
+  void put_doesNotWriteCookie_whenConditionUnchanged() {
+    TestSearchForm form = new TestSearchForm();
+    form.setKeyword("abc");
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new UrlEncodedSearchConditionStore(new MockHttpServletRequest(), response)
+        .put("testSearchForm", form);
+    Cookie cookie =
+        response.getCookie(UrlEncodedSearchConditionStore.COOKIE_NAME_PREFIX + "testSearchForm");
+
+    MockHttpServletRequest nextRequest = new MockHttpServletRequest();
+    nextRequest.setCookies(cookie);
+    MockHttpServletResponse nextResponse = new MockHttpServletResponse();
+    new UrlEncodedSearchConditionStore(nextRequest, nextResponse).put("testSearchForm", form);
+
+    assertThat(nextResponse.getCookies()).isEmpty();
+  }
+
+  @Test
+  void put_writesCookieOnce_whenCalledTwiceInOneRequest() {
+    TestSearchForm form = new TestSearchForm();
+    form.setKeyword("abc");
+
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    UrlEncodedSearchConditionStore store = new UrlEncodedSearchConditionStore(request, response);
+    store.put("testSearchForm", form);
+    store.put("testSearchForm", form);
+
+    assertThat(response.getCookies()).hasSize(1);
+    assertThat(store.get("testSearchForm", TestSearchForm.class).getKeyword()).isEqualTo("abc");
+  }
+
+  @Test
+  void put_setsSecureAndSameSite() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setSecure(true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    new UrlEncodedSearchConditionStore(request, response).put("testSearchForm",
+        new TestSearchForm());
+
+    Cookie cookie =
+        response.getCookie(UrlEncodedSearchConditionStore.COOKIE_NAME_PREFIX + "testSearchForm");
+    assertThat(cookie.getSecure()).isTrue();
+    assertThat(cookie.isHttpOnly()).isTrue();
+    assertThat(cookie.getAttribute("SameSite")).isEqualTo("Lax");
+  }
+
+  @Test
+  void clearCookies_expiresOnlySearchConditionCookies() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setCookies(
+        new Cookie(UrlEncodedSearchConditionStore.COOKIE_NAME_PREFIX + "testSearchForm", "abc"),
+        new Cookie("other", "xyz"));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    UrlEncodedSearchConditionStore.clearCookies(request, response);
+
+    assertThat(response.getCookies()).hasSize(1);
+    Cookie cookie = response.getCookies()[0];
+    assertThat(cookie.getName())
+        .isEqualTo(UrlEncodedSearchConditionStore.COOKIE_NAME_PREFIX + "testSearchForm");
+    assertThat(cookie.getMaxAge()).isZero();
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+import java.util.stream.Stream;
+import jp.ecuacion.splib.web.util.SplibComponentUtil.AsciiCharSequenceInputStream;
+import jp.ecuacion.splib.web.util.SplibComponentUtil.Settings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Unit tests for {@link SplibComponentUtil}.
+ */
+class SplibComponentUtilTest {
+
+  private static final String CONTENT = "Hello, splib!";
+
+  private static final String DATA_URL_PREFIX = "data:text/plain;base64,";
+
+  @TempDir
+  Path workDir;
+
+  private Settings settings;
+
+  @BeforeEach
+  void setUp() {
+    setSettings("-1");
+  }
+
+  private void setSettings(String maxFileSize) {
+    settings = new Settings(Map.of(SplibComponentUtil.PROP_WORK_DIR, workDir.toString(),
+        SplibComponentUtil.PROP_MAX_FILE_SIZE, maxFileSize)::getOrDefault);
+  }
+
+  private static String base64(String str) {
+    return Base64.getEncoder().encodeToString(str.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static InputStream streamOf(String str) {
+    return new ByteArrayInputStream(str.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static String read(String path) throws IOException {
+    return Files.readString(Path.of(path), StandardCharsets.UTF_8);
+  }
+
+  private long fileCount() throws IOException {
+    try (Stream<Path> files = Files.list(workDir)) {
+      return files.count();
+    }
+  }
+
+  @Test
+  void saveUploadedFile_decodesBase64String() throws Exception {
+    String path = SplibComponentUtil.saveUploadedFile(base64(CONTENT), settings);
+
+    assertThat(path).startsWith(workDir.toString());
+    assertThat(read(path)).isEqualTo(CONTENT);
+  }
+
+  @Test
+  void saveUploadedFile_skipsDataUrlPrefixOfString() throws Exception {
+    String path =
+        SplibComponentUtil.saveUploadedFile(DATA_URL_PREFIX + base64(CONTENT), settings);
+
+    assertThat(read(path)).isEqualTo(CONTENT);
+  }
+
+  @Test
+  void saveUploadedFile_returnsNull_whenStringIsEmpty() throws Exception {
+    assertThat(SplibComponentUtil.saveUploadedFile("", settings)).isNull();
+    assertThat(fileCount()).isZero();
+  }
+
+  @Test
+  void saveUploadedBase64File_decodesStream() throws Exception {
+    String path =
+        SplibComponentUtil.saveUploadedBase64File(streamOf(base64(CONTENT)), "a.txt", settings);
+
+    assertThat(path).endsWith("-a.txt");
+    assertThat(read(path)).isEqualTo(CONTENT);
+  }
+
+  @Test
+  void saveUploadedBase64File_skipsDataUrlPrefixOfStream() throws Exception {
+    String path = SplibComponentUtil
+        .saveUploadedBase64File(streamOf(DATA_URL_PREFIX + base64(CONTENT)), "", settings);
+
+    assertThat(read(path)).isEqualTo(CONTENT);
+  }
+
+  @Test
+  void saveUploadedBase64File_returnsNullAndLeavesNoFile_whenStreamIsEmpty() throws Exception {
+    assertThat(SplibComponentUtil.saveUploadedBase64File(streamOf(""), "", settings)).isNull();
+    assertThat(SplibComponentUtil.saveUploadedBase64File(streamOf(DATA_URL_PREFIX), "", settings))
+        .isNull();
+    assertThat(fileCount()).isZero();
+  }
+
+  @Test
+  void saveUploadedBase64File_abortsAndDeletesPartialFile_whenSizeLimitIsExceeded()
+      throws Exception {
+    setSettings("10B");
+    // Longer than the buffer, so a part of it is written before the limit is found exceeded.
+    String large = "x".repeat(20_000);
+
+    assertThatThrownBy(() -> SplibComponentUtil.saveUploadedBase64File(streamOf(base64(large)),
+        "large.txt", settings)).isInstanceOf(MaxUploadSizeExceededException.class);
+    assertThat(fileCount()).isZero();
+  }
+
+  @Test
+  void saveUploadedFile_acceptsStringUpToSizeLimit() throws Exception {
+    setSettings(CONTENT.length() + "B");
+
+    assertThat(read(SplibComponentUtil.saveUploadedFile(base64(CONTENT), settings)))
+        .isEqualTo(CONTENT);
+
+    setSettings((CONTENT.length() - 1) + "B");
+    assertThatThrownBy(() -> SplibComponentUtil.saveUploadedFile(base64(CONTENT), settings))
+        .isInstanceOf(MaxUploadSizeExceededException.class);
+  }
+
+  @Test
+  void saveUploadedFile_rejectsAll_whenSizeLimitIsMalformed() {
+    setSettings("ten bytes");
+
+    assertThatThrownBy(() -> SplibComponentUtil.saveUploadedFile(base64(CONTENT), settings))
+        .isInstanceOf(MaxUploadSizeExceededException.class);
+  }
+
+  @Test
+  void saveUploadedFile_savesMultipartFileWithSanitizedName() throws Exception {
+    MockMultipartFile file = new MockMultipartFile("file", "../../evil.txt", "text/plain",
+        CONTENT.getBytes(StandardCharsets.UTF_8));
+
+    String path = SplibComponentUtil.saveUploadedFile(file, settings);
+
+    assertThat(Path.of(path).getParent()).isEqualTo(workDir);
+    assertThat(path).endsWith("-evil.txt");
+    assertThat(read(path)).isEqualTo(CONTENT);
+  }
+
+  @Test
+  void saveUploadedFile_rejectsMultipartFileOverSizeLimit() throws Exception {
+    setSettings("10B");
+    MockMultipartFile file = new MockMultipartFile("file", "a.txt", "text/plain",
+        CONTENT.getBytes(StandardCharsets.UTF_8));
+
+    assertThatThrownBy(() -> SplibComponentUtil.saveUploadedFile(file, settings))
+        .isInstanceOf(MaxUploadSizeExceededException.class);
+    assertThat(SplibComponentUtil.saveUploadedFile((MultipartFile) null, settings)).isNull();
+    assertThat(fileCount()).isZero();
+  }
+
+  @Test
+  void settings_parsesMaxFileSize() {
+    setSettings("10KB");
+    assertThat(settings.getMaxFileSize()).isEqualTo(10 * 1024);
+
+    assertThat(new Settings((key, defaultValue) -> defaultValue).getMaxFileSize()).isEqualTo(-1);
+  }
+
+  @Test
+  void settings_rejectsAll_whenMaxFileSizeIsMalformed() {
+    setSettings("ten megabytes");
+
+    assertThat(settings.getMaxFileSize()).isZero();
+  }
+
+  @Test
+  void settings_throws_whenWorkDirIsNotSet() {
+    Settings noWorkDir = new Settings((key, defaultValue) -> defaultValue);
+
+    assertThatThrownBy(noWorkDir::getWorkDir).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void asciiCharSequenceInputStream_readsInBulkFromStart() {
+    AsciiCharSequenceInputStream in = new AsciiCharSequenceInputStream("skip:abcde", 5);
+    byte[] bytes = new byte[8];
+
+    assertThat(in.read(bytes, 1, 0)).isZero();
+    assertThat(in.read(bytes, 1, 3)).isEqualTo(3);
+    assertThat(new String(bytes, 1, 3, StandardCharsets.US_ASCII)).isEqualTo("abc");
+    assertThat(in.read(bytes, 0, 8)).isEqualTo(2);
+    assertThat(new String(bytes, 0, 2, StandardCharsets.US_ASCII)).isEqualTo("de");
+    assertThat(in.read(bytes, 0, 8)).isEqualTo(-1);
+    assertThat(in.read()).isEqualTo(-1);
+  }
+
+  @Test
+  void asciiCharSequenceInputStream_readsSingleBytes() {
+    AsciiCharSequenceInputStream in = new AsciiCharSequenceInputStream("ab", 0);
+
+    assertThat(in.read()).isEqualTo('a');
+    assertThat(in.read()).isEqualTo('b');
+    assertThat(in.read()).isEqualTo(-1);
+  }
+}
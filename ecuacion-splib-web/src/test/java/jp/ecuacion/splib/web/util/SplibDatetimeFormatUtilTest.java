@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import jakarta.servlet.http.Cookie;
+import java.time.ZoneOffset;
+import jp.ecuacion.splib.core.container.DatetimeFormatParameters;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Unit tests for {@link SplibDatetimeFormatUtil}.
+ */
+class SplibDatetimeFormatUtilTest {
+
+  @Test
+  void getParams_usesHeaderBeforeCookie() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader(SplibDatetimeFormatUtil.HEADER_ZONE_OFFSET, "-540");
+    request.setCookies(new Cookie(SplibDatetimeFormatUtil.COOKIE_ZONE_OFFSET, "60"));
+
+    assertThat(SplibDatetimeFormatUtil.getParams(request).getZoneOffset())
+        .isEqualTo(ZoneOffset.ofHours(9));
+  }
+
+  @Test
+  void getParams_usesUtc_whenOffsetIsInvalid() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setCookies(new Cookie(SplibDatetimeFormatUtil.COOKIE_ZONE_OFFSET, "abc"));
+
+    assertThat(SplibDatetimeFormatUtil.getParams(request).getZoneOffset())
+        .isEqualTo(ZoneOffset.UTC);
+  }
+
+  @Test
+  void getParams_returnsNewInstance_notAffectedByChangesToFormerOne() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader(SplibDatetimeFormatUtil.HEADER_ZONE_OFFSET, "-540");
+
+    DatetimeFormatParameters first = SplibDatetimeFormatUtil.getParams(request);
+    first.setZoneOffset(ZoneOffset.UTC);
+    first.setDateFormat("yyyy/MM/dd");
+
+    DatetimeFormatParameters second = SplibDatetimeFormatUtil.getParams(request);
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.getZoneOffset()).isEqualTo(ZoneOffset.ofHours(9));
+    assertThat(second.getDateFormat()).isEqualTo("yyyy-MM-dd");
+  }
+}
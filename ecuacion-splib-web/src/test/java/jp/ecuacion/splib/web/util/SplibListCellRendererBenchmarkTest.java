@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import jp.ecuacion.lib.core.logging.DetailLogger;
+import jp.ecuacion.splib.core.record.SplibRecord;
+import jp.ecuacion.splib.web.item.HtmlItem;
+import jp.ecuacion.splib.web.item.HtmlItemContainer;
+import jp.ecuacion.splib.web.item.HtmlItemNumber;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.support.StaticApplicationContext;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+/**
+ * Compares {@code listReadOnlyCells} ({@link SplibListCellRenderer})
+ *     with the {@code listReadOnly*} fragments it replaces, on a page of 1,000 rows.
+ *
+ * <p>It's a plain timing test, not a JMH benchmark.
+ *     The timing runs only with {@code -Dsplib.benchmark=true} and logs the times,
+ *     while the output markup is always compared.</p>
+ */
+class SplibListCellRendererBenchmarkTest {
+
+  private static final String TEMPLATE = "splib-test/list-cells-benchmark";
+
+  private static final int ROWS = 1_000;
+
+  private static final int WARM_UP_ITERATIONS = 10;
+
+  private static final int MEASURED_ITERATIONS = 20;
+
+  private static SpringTemplateEngine engine;
+
+  private static Context context;
+
+  private final DetailLogger detailLog = new DetailLogger(this);
+
+  public static class TestRecord extends SplibRecord implements HtmlItemContainer {
+    private final String name;
+    private final BigDecimal price;
+    private final String code;
+    private final String month = "2024-04";
+    private final int kind;
+    private final boolean active;
+
+    TestRecord(int index) {
+      this.name = "name<" + index + ">";
+      // ends with .5 so that the rounding is compared too.
+      this.price = new BigDecimal(index * 1_000 + ".5");
+      this.code = String.format("%06d", index);
+      this.kind = index % 3;
+      this.active = index % 2 == 0;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public BigDecimal getPrice() {
+      return price;
+    }
+
+    public String getCode() {
+      return code;
+    }
+
+    public String getMonth() {
+      return month;
+    }
+
+    public String getKindName(Locale locale) {
+      return "kind<" + kind + ">";
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    @Override
+    public HtmlItem[] customizedItems() {
+      return new HtmlItem[] {new HtmlItemNumber("price").needsCommas(true)};
+    }
+  }
+
+  @BeforeAll
+  static void setUp() {
+    StaticApplicationContext applicationContext = new StaticApplicationContext();
+    applicationContext.registerSingleton("optUtil", SplibThymeleafOptionUtil.class);
+    applicationContext.refresh();
+
+    ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+    resolver.setPrefix("templates/");
+    resolver.setSuffix(".html");
+    resolver.setTemplateMode(TemplateMode.HTML);
+    resolver.setCharacterEncoding("UTF-8");
+
+    engine = new SpringTemplateEngine();
+    engine.setTemplateResolver(resolver);
+    engine.addDialect(new SplibThymeleafDialect());
+
+    List<TestRecord> recList = new ArrayList<>();
+    for (int i = 0; i < ROWS; i++) {
+      recList.add(new TestRecord(i));
+    }
+
+    context = new Context(Locale.ENGLISH);
+    context.setVariable(
+        ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+        new ThymeleafEvaluationContext(applicationContext, null));
+    context.setVariable("recList", recList);
+    context.setVariable("rootRecordName", "rec");
+  }
+
+  private static String render(String fragment) {
+    return engine.process(TEMPLATE, Set.of(fragment), context);
+  }
+
+  /** Removes the whitespace the fragments leave between and inside tags. */
+  private static String normalize(String html) {
+    return html.replaceAll(">\\s+", ">").replaceAll("\\s+<", "<");
+  }
+
+  private static long measure(String fragment) {
+    for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+      render(fragment);
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+      render(fragment);
+    }
+
+    return (System.nanoTime() - start) / MEASURED_ITERATIONS;
+  }
+
+  @Test
+  void cells_renderTheSameMarkupAsFragments() {
+    String cells = normalize(render("cells"));
+
+    assertThat(cells).isEqualTo(normalize(render("fragments")));
+    assertThat(cells).contains("name&lt;999&gt;", "999,001", "kind&lt;0&gt;", "000999");
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "splib.benchmark", matches = "true")
+  void cells_comparedWithFragments() {
+    long fragmentNanos = measure("fragments");
+    long cellsNanos = measure("cells");
+
+    detailLog.info(String.format(
+        "%,d rows: listReadOnly* fragments %,d us, listReadOnlyCells %,d us",
+        ROWS, fragmentNanos / 1_000, cellsNanos / 1_000));
+  }
+}
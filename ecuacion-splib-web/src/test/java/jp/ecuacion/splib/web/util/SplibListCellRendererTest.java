@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.Locale;
+import jp.ecuacion.splib.core.record.SplibRecord;
+import jp.ecuacion.splib.web.item.HtmlItem;
+import jp.ecuacion.splib.web.item.HtmlItemContainer;
+import jp.ecuacion.splib.web.item.HtmlItemNumber;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SplibListCellRenderer}.
+ */
+class SplibListCellRendererTest {
+
+  private final SplibListCellRenderer renderer = new SplibListCellRenderer();
+
+  public static class TestRecord extends SplibRecord implements HtmlItemContainer {
+    private String name = "<a&b>";
+    private String price = "1234567";
+    private String count = "1234567";
+    private String rate = "1234.5";
+    private boolean active = true;
+
+    public String getName() {
+      return name;
+    }
+
+    public String getPrice() {
+      return price;
+    }
+
+    public String getCount() {
+      return count;
+    }
+
+    public String getRate() {
+      return rate;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    @Override
+    public HtmlItem[] customizedItems() {
+      return new HtmlItem[] {new HtmlItemNumber("price").needsCommas(true),
+          new HtmlItemNumber("rate").needsCommas(true)};
+    }
+  }
+
+  private String render(String columnSpec, boolean deleted) {
+    StringBuilder sb = new StringBuilder();
+    renderer.render(sb, new TestRecord(), columnSpec, Locale.ENGLISH, deleted);
+    return sb.toString();
+  }
+
+  @Test
+  void render_escapesTextAndAlignsByKind() {
+    assertThat(render("text:name, fixedLength:name", false)).isEqualTo(
+        "<td class=\"align-middle fs-6 text-start text-dark\" rowspan=\"1\" colspan=\"1\">"
+            + "&lt;a&amp;b&gt;</td>"
+            + "<td class=\"align-middle fs-6 text-center text-dark\" rowspan=\"1\" colspan=\"1\">"
+            + "&lt;a&amp;b&gt;</td>");
+  }
+
+  @Test
+  void render_addsCommasOnlyToNumberItemsWhichNeedThem() {
+    assertThat(render("number:price,number:count", true)).isEqualTo(
+        "<td class=\"align-middle fs-6 text-end text-deleted\" rowspan=\"1\" colspan=\"1\">"
+            + "1,234,567</td>"
+            + "<td class=\"align-middle fs-6 text-end text-deleted\" rowspan=\"1\" colspan=\"1\">"
+            + "1234567</td>");
+  }
+
+  @Test
+  void render_roundsHalfUp_likeFormatDecimal() {
+    assertThat(render("number:rate", false)).isEqualTo(
+        "<td class=\"align-middle fs-6 text-end text-dark\" rowspan=\"1\" colspan=\"1\">"
+            + "1,235</td>");
+  }
+
+  @Test
+  void render_checkbox() {
+    assertThat(render("checkbox:active", false)).isEqualTo(
+        "<td class=\"align-middle text-center\" rowspan=\"1\" colspan=\"1\">"
+            + "<input class=\"form-check-input align-bottom mb-1 \" type=\"checkbox\""
+            + " checked=\"checked\" disabled></td>");
+  }
+
+  @Test
+  void render_throwsWhenKindIsUnknown() {
+    assertThatThrownBy(() -> render("unknown:name", false))
+        .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("unknown:name");
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+
+/**
+ * Unit tests for {@link SplibLoginStateUtil#getLoginState()}.
+ */
+class SplibLoginStateUtilTest {
+
+  private String getLoginState(String contextPath, String requestUri) {
+    MockServletContext servletContext = new MockServletContext();
+    servletContext.setContextPath(contextPath);
+    MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+    request.setRequestURI(requestUri);
+
+    return new SplibLoginStateUtil(request, servletContext).getLoginState();
+  }
+
+  @Test
+  void getLoginState_resolvesFirstSegment() {
+    assertThat(getLoginState("", "/public/show/page")).isEqualTo("public");
+    assertThat(getLoginState("", "/account/acc/searchList/page")).isEqualTo("account");
+    assertThat(getLoginState("", "/admin/acc/page")).isEqualTo("admin");
+  }
+
+  @Test
+  void getLoginState_resolvesEcuacionPublic() {
+    assertThat(getLoginState("", "/ecuacion/public/config/page")).isEqualTo("ecuacion-public");
+  }
+
+  @Test
+  void getLoginState_skipsContextPath() {
+    assertThat(getLoginState("/app", "/app/account/acc/page")).isEqualTo("account");
+    assertThat(getLoginState("/", "/public/show/page")).isEqualTo("public");
+  }
+
+  @Test
+  void getLoginState_throwsException_whenLoginStateIsNotAppropriate() {
+    assertThatThrownBy(() -> getLoginState("", "/unknown/show/page"))
+        .isInstanceOf(RuntimeException.class);
+    assertThatThrownBy(() -> getLoginState("", "/ecuacion/unknown/page"))
+        .isInstanceOf(RuntimeException.class);
+    assertThatThrownBy(() -> getLoginState("", "/public")).isInstanceOf(RuntimeException.class);
+  }
+
+  @Test
+  void getLoginState_isResolvedAgain_whenRequestUriChanges() {
+    MockServletContext servletContext = new MockServletContext();
+    MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+    SplibLoginStateUtil util = new SplibLoginStateUtil(request, servletContext);
+
+    request.setRequestURI("/public/show/page");
+    assertThat(util.getLoginState()).isEqualTo("public");
+    assertThat(util.getLoginState()).isEqualTo("public");
+
+    request.setRequestURI("/admin/acc/page");
+    assertThat(util.getLoginState()).isEqualTo("admin");
+  }
+}
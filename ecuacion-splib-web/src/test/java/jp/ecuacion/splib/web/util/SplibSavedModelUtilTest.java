@@ -17,17 +17,30 @@ package jp.ecuacion.splib.web.util;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import jp.ecuacion.splib.web.constant.SplibWebConstants;
+import jp.ecuacion.splib.web.form.SplibGeneralForm;
+import jp.ecuacion.splib.web.util.SplibSavedModelUtil.Settings;
 import org.junit.jupiter.api.Test;
 import org.springframework.ui.ExtendedModelMap;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.servlet.mvc.support.RedirectAttributesModelMap;
 
 /**
- * Unit tests for {@link SplibSavedModelUtil#saveToFlash}.
+ * Unit tests for {@link SplibSavedModelUtil}.
  */
 class SplibSavedModelUtilTest {
 
+  private static class TestForm extends SplibGeneralForm {
+  }
+
+  private static Settings settingsOf(Map<String, String> properties) {
+    return new Settings(properties::getOrDefault);
+  }
+
   /**
    * Regression test: {@code KEY_GLOBAL_ERRORS} must never be part of the snapshot, even when
    * {@code takeOverMessages} is {@code true}.
@@ -89,4 +102,100 @@ class SplibSavedModelUtilTest {
     assertThat(snapshot).doesNotContainKey(SplibWebConstants.KEY_NEEDS_SUCCESS_MESSAGE);
     assertThat(snapshot).containsEntry("someForm", "formValue");
   }
+
+  @Test
+  void restore_returnsSnapshotStoredInFlash() {
+    Model model = new ExtendedModelMap();
+    model.addAttribute("someForm", "formValue");
+
+    RedirectAttributesModelMap redirectAttributes = new RedirectAttributesModelMap();
+    SplibSavedModelUtil.saveToFlash(model, redirectAttributes, true);
+
+    var restored = SplibSavedModelUtil.restore(
+        redirectAttributes.getFlashAttributes().get(SplibWebConstants.KEY_SAVED_MODEL));
+    assertThat(restored).containsEntry("someForm", "formValue");
+  }
+
+  @Test
+  void restore_returnsNull_whenNothingSavedOrRedirectIdUnknown() {
+    assertThat(SplibSavedModelUtil.restore(null)).isNull();
+    assertThat(SplibSavedModelUtil.restore("unknownRedirectId")).isNull();
+  }
+
+  @Test
+  void saveToFlash_keepsOnlyFormsAndMessages_whenSnapshotModeIsFormsAndMessages() {
+    Settings settings = settingsOf(Map.of(SplibSavedModelUtil.PROP_SNAPSHOT_MODE,
+        SplibSavedModelUtil.SNAPSHOT_MODE_FORMS_AND_MESSAGES));
+    TestForm form = new TestForm();
+    Model model = new ExtendedModelMap();
+    model.addAttribute("testForm", form);
+    model.addAttribute(BindingResult.MODEL_KEY_PREFIX + "testForm", "bindingResult");
+    model.addAttribute(SplibWebConstants.KEY_WARN_MESSAGE, "warn");
+    model.addAttribute("someList", List.of("rebuilt on the redirect target"));
+
+    RedirectAttributesModelMap redirectAttributes = new RedirectAttributesModelMap();
+    SplibSavedModelUtil.saveToFlash(model, redirectAttributes, true, settings);
+
+    var snapshot = SplibSavedModelUtil.restore(
+        redirectAttributes.getFlashAttributes().get(SplibWebConstants.KEY_SAVED_MODEL));
+    assertThat(snapshot).containsOnlyKeys("testForm",
+        BindingResult.MODEL_KEY_PREFIX + "testForm", SplibWebConstants.KEY_WARN_MESSAGE);
+  }
+
+  @Test
+  void restore_returnsSnapshotStoredInServerCacheOnlyOnce() {
+    Settings settings =
+        settingsOf(Map.of(SplibSavedModelUtil.PROP_STORE, SplibSavedModelUtil.STORE_SERVER_CACHE));
+    Model model = new ExtendedModelMap();
+    model.addAttribute("someForm", "formValue");
+
+    RedirectAttributesModelMap redirectAttributes = new RedirectAttributesModelMap();
+    SplibSavedModelUtil.saveToFlash(model, redirectAttributes, true, settings);
+
+    Object flashValue =
+        redirectAttributes.getFlashAttributes().get(SplibWebConstants.KEY_SAVED_MODEL);
+    assertThat(flashValue).isInstanceOf(String.class);
+    assertThat(SplibSavedModelUtil.restore(flashValue)).containsEntry("someForm", "formValue");
+    assertThat(SplibSavedModelUtil.restore(flashValue)).isNull();
+  }
+
+  @Test
+  void serverCache_treatsExpiredEntryAsAbsent() {
+    Settings settings = settingsOf(Map.of(SplibSavedModelUtil.PROP_CACHE_TTL_SECONDS, "10"));
+    AtomicLong now = new AtomicLong(1_000_000L);
+    SplibSavedModelUtil.ServerCache cache = new SplibSavedModelUtil.ServerCache(now::get);
+
+    String redirectId = cache.put(Map.of("someForm", "formValue"), settings);
+    now.addAndGet(TimeUnit.SECONDS.toMillis(10) + 1);
+    assertThat(cache.remove(redirectId)).isNull();
+  }
+
+  @Test
+  void serverCache_dropsExpiredEntriesOnPut() {
+    Settings settings = settingsOf(Map.of(SplibSavedModelUtil.PROP_CACHE_TTL_SECONDS, "10"));
+    AtomicLong now = new AtomicLong(1_000_000L);
+    SplibSavedModelUtil.ServerCache cache = new SplibSavedModelUtil.ServerCache(now::get);
+    cache.put(Map.of(), settings);
+    cache.put(Map.of(), settings);
+
+    now.addAndGet(TimeUnit.SECONDS.toMillis(10) + 1);
+    String redirectId = cache.put(Map.of("someForm", "formValue"), settings);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.remove(redirectId)).containsEntry("someForm", "formValue");
+  }
+
+  @Test
+  void serverCache_evictsEldestEntry_whenFull() {
+    Settings settings = settingsOf(Map.of(SplibSavedModelUtil.PROP_CACHE_MAX_SIZE, "2"));
+    SplibSavedModelUtil.ServerCache cache =
+        new SplibSavedModelUtil.ServerCache(System::currentTimeMillis);
+    String first = cache.put(Map.of(), settings);
+    String second = cache.put(Map.of(), settings);
+    String third = cache.put(Map.of(), settings);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.remove(first)).isNull();
+    assertThat(cache.remove(second)).isNotNull();
+    assertThat(cache.remove(third)).isNotNull();
+  }
 }
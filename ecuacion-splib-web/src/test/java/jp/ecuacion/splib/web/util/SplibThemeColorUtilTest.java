@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SplibThemeColorUtil}.
+ */
+class SplibThemeColorUtilTest {
+
+  private final Map<String, String> properties = new HashMap<>();
+
+  private final SplibThemeColorUtil util = new SplibThemeColorUtil(properties::getOrDefault);
+
+  @Test
+  void buildThemeColorCssOrEmpty_returnsEmpty_whenNoColorIsSet() {
+    assertThat(util.buildThemeColorCssOrEmpty()).isEmpty();
+    assertThat(util.hasAnyThemeColor()).isFalse();
+    // md5 of an empty string
+    assertThat(util.getVersion()).isEqualTo("d41d8cd98f00b204e9800998ecf8427e");
+  }
+
+  @Test
+  void buildThemeColorCssOrEmpty_returnsVariablesOfColorsSet() {
+    properties.put("jp.ecuacion.splib.web.theme.color-navbar", "#4fa7ff");
+    properties.put("jp.ecuacion.splib.web.theme.color-footer", "000000");
+    util.rebuild();
+
+    assertThat(util.buildThemeColorCssOrEmpty()).isEqualTo("[data-bs-theme=\"light\"]{"
+        + "--bs-color-navbar:#4fa7ff;--bs-color-navbar-rgb:79,167,255;"
+        + "--bs-color-footer:000000;--bs-color-footer-rgb:0,0,0;}");
+    assertThat(util.hasAnyThemeColor()).isTrue();
+  }
+
+  @Test
+  void rebuild_changesCssAndVersion_onlyWhenPropertiesChange() {
+    properties.put("jp.ecuacion.splib.web.theme.color-btn", "#112233");
+    util.rebuild();
+    String version = util.getVersion();
+
+    util.rebuild();
+    assertThat(util.getVersion()).isEqualTo(version);
+
+    properties.put("jp.ecuacion.splib.web.theme.color-btn", "#445566");
+    util.rebuild();
+    assertThat(util.getVersion()).isNotEqualTo(version).hasSize(32);
+    assertThat(util.buildThemeColorCssOrEmpty()).contains("--bs-color-btn-rgb:68,85,102;");
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.List;
+import java.util.Locale;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SplibThymeleafExpressions}.
+ */
+class SplibThymeleafExpressionsTest {
+
+  private final SplibThymeleafExpressions expressions = new SplibThymeleafExpressions();
+
+  public static class Child {
+    public String getName() {
+      return "child";
+    }
+
+    public String getKindName(Locale locale) {
+      return "kind-" + locale.getLanguage();
+    }
+
+    public List<String[]> getKindList(Locale locale, String options) {
+      return List.of(new String[] {locale.getLanguage(), options});
+    }
+  }
+
+  public static class OverloadedChild {
+    public String getKindList(String language, String options) {
+      return "string";
+    }
+
+    public String getKindList(Object locale, String options) {
+      return "object";
+    }
+
+    public String getKindList(Locale locale, String options) {
+      return "locale";
+    }
+  }
+
+  public static class Parent {
+    public @Nullable Child child = new Child();
+
+    public boolean isActive() {
+      return true;
+    }
+
+    public OverloadedChild getOverloaded() {
+      return new OverloadedChild();
+    }
+
+    public List<Child> getChildList() {
+      return List.of(new Child());
+    }
+
+    public List<String[]> getChild_NameList() {
+      return List.of(new String[] {"1", "one"});
+    }
+  }
+
+  @Test
+  void value_readsGettersFieldsAndIndexes() {
+    Parent parent = new Parent();
+
+    assertThat(expressions.value(parent, "active")).isEqualTo(true);
+    assertThat(expressions.value(parent, "child.name")).isEqualTo("child");
+    assertThat(expressions.value(parent, "childList[0].name")).isEqualTo("child");
+    assertThat(expressions.value(parent, "childList[1].name")).isNull();
+  }
+
+  @Test
+  void value_returnsNullWhenValueOnTheWayIsNull() {
+    Parent parent = new Parent();
+    parent.child = null;
+
+    assertThat(expressions.value(parent, "child.name")).isNull();
+    assertThat(expressions.value(null, "child")).isNull();
+    assertThat(expressions.enumName(parent, "child.kind", Locale.ENGLISH)).isNull();
+  }
+
+  @Test
+  void value_throwsWhenPropertyNotFound() {
+    assertThatThrownBy(() -> expressions.value(new Parent(), "nonExistent"))
+        .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("nonExistent");
+  }
+
+  @Test
+  void enumNameAndSelectLists_callMethodsNamedAfterPath() {
+    Parent parent = new Parent();
+
+    assertThat(expressions.enumName(parent, "child.kind", Locale.JAPANESE)).isEqualTo("kind-ja");
+    assertThat((List<?>) expressions.selectList(parent, "child.name")).hasSize(1);
+    assertThat((List<?>) expressions.enumSelectList(parent, "child.kind", Locale.ENGLISH, null))
+        .singleElement().isEqualTo(new String[] {"en", ""});
+  }
+
+  @Test
+  void enumSelectList_callsMostSpecificOverloadAcceptingArguments() {
+    Parent parent = new Parent();
+
+    for (int i = 0; i < 2; i++) {
+      assertThat(expressions.enumSelectList(parent, "overloaded.kind", Locale.ENGLISH, null))
+          .isEqualTo("locale");
+    }
+  }
+}
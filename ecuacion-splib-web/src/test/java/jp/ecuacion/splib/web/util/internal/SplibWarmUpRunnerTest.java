@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2012 ecuacion.jp (info@ecuacion.jp)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package jp.ecuacion.splib.web.util.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Unit tests for the url {@link SplibWarmUpRunner} requests pages to.
+ */
+class SplibWarmUpRunnerTest {
+
+  private final MockEnvironment environment =
+      new MockEnvironment().withProperty("local.server.port", "8080");
+
+  @Test
+  void baseUrl_isNull_beforeServerStarts() {
+    assertThat(SplibWarmUpRunner.baseUrl(new MockEnvironment())).isNull();
+  }
+
+  @Test
+  void baseUrl_usesLocalhostWithHttp_byDefault() {
+    environment.setProperty("server.servlet.context-path", "/app");
+
+    assertThat(SplibWarmUpRunner.baseUrl(environment)).isEqualTo("http://localhost:8080/app");
+  }
+
+  @Test
+  void baseUrl_usesHttpsAndServerAddress_whenConfigured() {
+    environment.setProperty("server.ssl.bundle", "web");
+    environment.setProperty("server.address", "192.168.0.10");
+
+    assertThat(SplibWarmUpRunner.baseUrl(environment)).isEqualTo("https://192.168.0.10:8080");
+  }
+
+  @Test
+  void baseUrl_usesHttp_whenSslIsDisabled() {
+    environment.setProperty("server.ssl.key-store", "classpath:keystore.p12");
+    environment.setProperty("server.ssl.enabled", "false");
+    environment.setProperty("server.address", "0.0.0.0");
+
+    assertThat(SplibWarmUpRunner.baseUrl(environment)).isEqualTo("http://localhost:8080");
+  }
+
+  @Test
+  void baseUrl_bracketsIpv6Address() {
+    environment.setProperty("server.address", "::1");
+
+    assertThat(SplibWarmUpRunner.baseUrl(environment)).isEqualTo("http://[::1]:8080");
+  }
+
+  @Test
+  void baseUrl_usesConfiguredOne_withoutTrailingSlash() {
+    environment.setProperty("jp.ecuacion.splib.web.warm-up.base-url",
+        "https://app.example.com/app/");
+
+    assertThat(SplibWarmUpRunner.baseUrl(environment)).isEqualTo("https://app.example.com/app");
+  }
+}